@@ -0,0 +1,440 @@
+package top.wuhunyu.oss.api;
+
+import top.wuhunyu.oss.api.model.DirectorySyncResult;
+import top.wuhunyu.oss.api.model.ObjectStat;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步 oss 客户端
+ * 与 {@link OssClient} 的操作一一对应，结果以 {@link CompletableFuture} 的形式返回，调用线程不会阻塞在存储 I/O 上。
+ * 列举操作返回的流本身是惰性的且在后台预取，不提供异步版本
+ **/
+
+public interface AsyncOssClient {
+
+    /**
+     * 判断一个 bucket 是否存在
+     *
+     * @param bucketName bucket
+     * @return true：存在；false：不存在
+     * @see OssClient#isBucketExist(String)
+     */
+    CompletableFuture<Boolean> isBucketExist(String bucketName);
+
+    /**
+     * 判断一个文件对象是否存在
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     * @return true：存在；false：不存在
+     * @see OssClient#isObjectExist(String, String)
+     */
+    CompletableFuture<Boolean> isObjectExist(String bucketName, String objectName);
+
+    /**
+     * 判断一个目录是否存在
+     *
+     * @param bucketName bucket
+     * @param folderName 目录
+     * @return true：存在；false：不存在
+     * @see OssClient#isFolderExist(String, String)
+     */
+    CompletableFuture<Boolean> isFolderExist(String bucketName, String folderName);
+
+    /**
+     * 创建一个 bucket
+     *
+     * @param bucketName bucket
+     * @return true：成功；false：失败
+     * @see OssClient#createBucket(String)
+     */
+    CompletableFuture<Boolean> createBucket(String bucketName);
+
+    /**
+     * 移除一个 bucket
+     *
+     * @param bucketName bucket
+     * @return true：成功；false：失败
+     * @see OssClient#removeBucket(String)
+     */
+    CompletableFuture<Boolean> removeBucket(String bucketName);
+
+    /**
+     * 获取一个文件对象的输出流
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @return 文件对象的输出流
+     * @see OssClient#getObject(String, String)
+     */
+    CompletableFuture<OutputStream> getObject(String bucketName, String objectName);
+
+    /**
+     * 获取一个大文件对象某个切片的输出流
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param offset     位移
+     * @param length     长度
+     * @return 文件对象的输出流
+     * @see OssClient#getObject(String, String, Long, Long)
+     */
+    CompletableFuture<OutputStream> getObject(String bucketName, String objectName, Long offset, Long length);
+
+    /**
+     * 获取一个文件对象的输入流，调用方负责关闭输入流
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @return 文件对象的输入流，文件对象不存在或获取失败时为 null
+     * @see OssClient#getObjectInputStream(String, String)
+     */
+    CompletableFuture<InputStream> getObjectInputStream(String bucketName, String objectName);
+
+    /**
+     * 获取一个大文件对象某个切片的输入流，调用方负责关闭输入流
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param offset     位移
+     * @param length     长度
+     * @return 切片的输入流，文件对象不存在或获取失败时为 null
+     * @see OssClient#getObjectInputStream(String, String, Long, Long)
+     */
+    CompletableFuture<InputStream> getObjectInputStream(String bucketName, String objectName,
+                                                        Long offset, Long length);
+
+    /**
+     * 将一个文件对象写入到调用方提供的输出流中
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象的绝对访问路径
+     * @param outputStream 目标输出流
+     * @return 写入的字节数，文件对象不存在或获取失败时为 null
+     * @see OssClient#getObject(String, String, OutputStream)
+     */
+    CompletableFuture<Long> getObject(String bucketName, String objectName, OutputStream outputStream);
+
+    /**
+     * 将一个大文件对象的某个切片写入到调用方提供的输出流中
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象的绝对访问路径
+     * @param offset       位移
+     * @param length       长度
+     * @param outputStream 目标输出流
+     * @return 写入的字节数，文件对象不存在或获取失败时为 null
+     * @see OssClient#getObject(String, String, Long, Long, OutputStream)
+     */
+    CompletableFuture<Long> getObject(String bucketName, String objectName, Long offset, Long length,
+                                      OutputStream outputStream);
+
+    /**
+     * 将一个文件对象下载到本地文件
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param localFile  本地文件路径
+     * @return 写入的字节数，文件对象不存在或下载失败时为 null
+     * @see OssClient#getObject(String, String, Path)
+     */
+    CompletableFuture<Long> getObject(String bucketName, String objectName, Path localFile);
+
+    /**
+     * 以并发分片的形式将一个文件对象下载到本地文件
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param localFile  本地文件路径
+     * @return 写入的字节数，文件对象不存在或下载失败时为 null
+     * @see OssClient#download4LocalFile(String, String, Path)
+     */
+    CompletableFuture<Long> download4LocalFile(String bucketName, String objectName, Path localFile);
+
+    /**
+     * 将本地目录下的所有文件上传到指定前缀下
+     *
+     * @param bucketName     bucket
+     * @param localDirectory 本地目录
+     * @param prefix         文件对象名称前缀
+     * @return 同步结果，目录不存在或同步失败时为 null
+     * @see OssClient#upload4LocalDirectory(String, Path, String)
+     */
+    CompletableFuture<DirectorySyncResult> upload4LocalDirectory(String bucketName, Path localDirectory, String prefix);
+
+    /**
+     * 将指定前缀下的所有文件对象下载到本地目录
+     *
+     * @param bucketName     bucket
+     * @param prefix         文件对象名称前缀
+     * @param localDirectory 本地目录
+     * @return 同步结果，同步失败时为 null
+     * @see OssClient#download4LocalDirectory(String, String, Path)
+     */
+    CompletableFuture<DirectorySyncResult> download4LocalDirectory(String bucketName, String prefix,
+                                                                   Path localDirectory);
+
+    /**
+     * 删除一个文件对象
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @return true：成功；false：失败
+     * @see OssClient#removeObject(String, String)
+     */
+    CompletableFuture<Boolean> removeObject(String bucketName, String objectName);
+
+    /**
+     * 批量删除文件对象
+     *
+     * @param bucketName  bucket
+     * @param objectNames 文件对象的绝对访问路径
+     * @return 每个文件对象的删除结果，true：成功；false：失败
+     * @see OssClient#removeObjects(String, Collection)
+     */
+    CompletableFuture<Map<String, Boolean>> removeObjects(String bucketName, Collection<String> objectNames);
+
+    /**
+     * 批量查询文件对象的元数据
+     *
+     * @param bucketName  bucket
+     * @param objectNames 文件对象的绝对访问路径
+     * @return 每个文件对象的元数据，查询失败时为 null
+     * @see OssClient#statObjects(String, Collection)
+     */
+    CompletableFuture<Map<String, ObjectStat>> statObjects(String bucketName, Collection<String> objectNames);
+
+    /**
+     * 以 base64 字符串的形式上传一个文件
+     *
+     * @param bucketName bucket
+     * @param base64     base64 字符串
+     * @param suffix     上传文件的后缀，没有 .
+     * @return 上传完毕后文件在文件服务器的路径
+     * @see OssClient#upload4Base64(String, String, String)
+     */
+    CompletableFuture<String> upload4Base64(String bucketName, String base64, String suffix);
+
+    /**
+     * 以字符流的形式上传一个 base64 编码的文件
+     *
+     * @param bucketName   bucket
+     * @param base64Reader base64 字符流
+     * @param suffix       上传文件的后缀，没有 .
+     * @return 上传完毕后文件在文件服务器的路径
+     * @see OssClient#upload4Base64(String, Reader, String)
+     */
+    CompletableFuture<String> upload4Base64(String bucketName, Reader base64Reader, String suffix);
+
+    /**
+     * 上传一个本地文件
+     *
+     * @param bucketName bucket
+     * @param localFile  本地文件的绝对路径
+     * @return 上传完毕后文件在文件服务器的路径
+     * @see OssClient#upload4LocalFile(String, String)
+     */
+    CompletableFuture<String> upload4LocalFile(String bucketName, String localFile);
+
+    /**
+     * 以输入流的形式上传一个文件
+     *
+     * @param bucketName  bucket
+     * @param inputStream 输入流对象
+     * @param suffix      上传文件的后缀，没有 .
+     * @return 上传完毕后文件在文件服务器的路径
+     * @see OssClient#upload4InputStream(String, InputStream, String)
+     */
+    CompletableFuture<String> upload4InputStream(String bucketName, InputStream inputStream, String suffix);
+
+    /**
+     * 以字节数组的形式上传一个文件
+     *
+     * @param bucketName bucket
+     * @param bytes      字节数组
+     * @param suffix     上传文件的后缀，没有 .
+     * @return 上传完毕后文件在文件服务器的路径
+     * @see OssClient#upload4Bytes(String, byte[], String)
+     */
+    CompletableFuture<String> upload4Bytes(String bucketName, byte[] bytes, String suffix);
+
+    /**
+     * 以指定的名称上传字节数组，已存在时覆盖
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     * @param bytes      字节数组
+     * @return true：成功；false：失败
+     * @see OssClient#putObject(String, String, byte[])
+     */
+    CompletableFuture<Boolean> putObject(String bucketName, String objectName, byte[] bytes);
+
+    /**
+     * 合并多个文件对象为一个文件对象
+     *
+     * @param bucketName        bucket
+     * @param sourceObjectNames 需要被合并的文件绝对路径
+     * @param suffix            上传文件的后缀，没有 .
+     * @return 合并完毕后文件在文件服务器的路径
+     * @see OssClient#composeObjects(String, List, String)
+     */
+    CompletableFuture<String> composeObjects(String bucketName, List<String> sourceObjectNames, String suffix);
+
+    /**
+     * 复制一个文件对象，可以跨 bucket，已存在时覆盖
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourceObjectName 源文件对象的绝对访问路径
+     * @param targetBucketName 目标 bucket
+     * @param targetObjectName 目标文件对象的绝对访问路径
+     * @return true：成功；false：失败；源文件对象不存在时返回 null
+     * @see OssClient#copyObject(String, String, String, String)
+     */
+    CompletableFuture<Boolean> copyObject(String sourceBucketName, String sourceObjectName,
+                                          String targetBucketName, String targetObjectName);
+
+    /**
+     * 移动一个文件对象，可以跨 bucket，已存在时覆盖
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourceObjectName 源文件对象的绝对访问路径
+     * @param targetBucketName 目标 bucket
+     * @param targetObjectName 目标文件对象的绝对访问路径
+     * @return true：成功；false：失败；源文件对象不存在时返回 null
+     * @see OssClient#moveObject(String, String, String, String)
+     */
+    CompletableFuture<Boolean> moveObject(String sourceBucketName, String sourceObjectName,
+                                          String targetBucketName, String targetObjectName);
+
+    /**
+     * 将前缀下的所有文件对象复制到目标前缀下，保持相对路径不变
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourcePrefix     源文件对象名称前缀
+     * @param targetBucketName 目标 bucket
+     * @param targetPrefix     目标文件对象名称前缀
+     * @return 每个源文件对象的复制结果，true：成功；false：失败
+     * @see OssClient#copyObjects(String, String, String, String)
+     */
+    CompletableFuture<Map<String, Boolean>> copyObjects(String sourceBucketName, String sourcePrefix,
+                                                        String targetBucketName, String targetPrefix);
+
+    /**
+     * 将前缀下的所有文件对象移动到目标前缀下，保持相对路径不变
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourcePrefix     源文件对象名称前缀
+     * @param targetBucketName 目标 bucket
+     * @param targetPrefix     目标文件对象名称前缀
+     * @return 每个源文件对象的移动结果，true：成功；false：失败
+     * @see OssClient#moveObjects(String, String, String, String)
+     */
+    CompletableFuture<Map<String, Boolean>> moveObjects(String sourceBucketName, String sourcePrefix,
+                                                        String targetBucketName, String targetPrefix);
+
+    /**
+     * 开始一个断点续传上传会话
+     *
+     * @param bucketName bucket
+     * @param suffix     最终文件的后缀，没有 .
+     * @return 会话 id
+     * @see OssClient#beginUploadSession(String, String)
+     */
+    CompletableFuture<String> beginUploadSession(String bucketName, String suffix);
+
+    /**
+     * 上传会话中的一个分片
+     *
+     * @param bucketName  bucket
+     * @param sessionId   会话 id
+     * @param chunkNumber 分片序号，从 1 开始
+     * @param inputStream 分片数据
+     * @return true：成功；false：失败
+     * @see OssClient#uploadChunk4InputStream(String, String, Integer, InputStream)
+     */
+    CompletableFuture<Boolean> uploadChunk4InputStream(String bucketName, String sessionId, Integer chunkNumber,
+                                                       InputStream inputStream);
+
+    /**
+     * 查询上传会话中已上传的分片
+     *
+     * @param bucketName bucket
+     * @param sessionId  会话 id
+     * @return 已上传的分片序号
+     * @see OssClient#getUploadedChunks(String, String)
+     */
+    CompletableFuture<List<Integer>> getUploadedChunks(String bucketName, String sessionId);
+
+    /**
+     * 完成上传会话
+     *
+     * @param bucketName bucket
+     * @param sessionId  会话 id
+     * @param chunkCount 分片总数
+     * @return 合并完毕后文件在文件服务器的路径
+     * @see OssClient#completeUploadSession(String, String, Integer)
+     */
+    CompletableFuture<String> completeUploadSession(String bucketName, String sessionId, Integer chunkCount);
+
+    /**
+     * 放弃上传会话
+     *
+     * @param bucketName bucket
+     * @param sessionId  会话 id
+     * @return true：成功；false：失败
+     * @see OssClient#abortUploadSession(String, String)
+     */
+    CompletableFuture<Boolean> abortUploadSession(String bucketName, String sessionId);
+
+    /**
+     * 清理超过有效期未更新的上传会话
+     *
+     * @param bucketName bucket
+     * @return 被清理的会话数
+     * @see OssClient#purgeExpiredUploadSessions(String)
+     */
+    CompletableFuture<Integer> purgeExpiredUploadSessions(String bucketName);
+
+    /**
+     * 获取一个文件对象的临时访问凭证，有效时间单位是 分
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象的绝对访问路径
+     * @param expireMinute 有效时间，单位 分
+     * @return 临时访问凭证完整地址
+     * @see OssClient#getPresignedObjectUrl4Get(String, String, Integer)
+     */
+    CompletableFuture<String> getPresignedObjectUrl4Get(String bucketName, String objectName, Integer expireMinute);
+
+    /**
+     * 批量获取文件对象的临时访问凭证，有效时间单位是 分
+     *
+     * @param bucketName   bucket
+     * @param objectNames  文件对象的绝对访问路径
+     * @param expireMinute 有效时间，单位 分
+     * @return 文件对象与临时访问凭证完整地址的映射，获取失败的文件对象对应 null
+     * @see OssClient#getPresignedObjectUrls4Get(String, List, Integer)
+     */
+    CompletableFuture<Map<String, String>> getPresignedObjectUrls4Get(String bucketName, List<String> objectNames,
+                                                                      Integer expireMinute);
+
+    /**
+     * 获取一个文件对象的临时上传凭证，有效时间单位是 分
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象的绝对访问路径
+     * @param expireMinute 有效时间，单位 分
+     * @return 临时上传凭证完整地址
+     * @see OssClient#getPresignedObjectUrl4Put(String, String, Integer)
+     */
+    CompletableFuture<String> getPresignedObjectUrl4Put(String bucketName, String objectName, Integer expireMinute);
+
+}
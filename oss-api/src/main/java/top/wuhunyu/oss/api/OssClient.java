@@ -1,8 +1,18 @@
 package top.wuhunyu.oss.api;
 
+import top.wuhunyu.oss.api.model.DirectorySyncResult;
+import top.wuhunyu.oss.api.model.ListObjectsQuery;
+import top.wuhunyu.oss.api.model.ObjectStat;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * oss客户端
@@ -75,8 +85,121 @@ public interface OssClient {
      */
     OutputStream getObject(String bucketName, String objectName, Long offset, Long length);
 
+    /**
+     * 获取一个文件对象的输入流
+     * 数据直接来自网络连接，不会在内存中缓冲整个文件对象，调用方负责关闭输入流
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @return 文件对象的输入流，文件对象不存在或获取失败时返回 null
+     */
+    InputStream getObjectInputStream(String bucketName, String objectName);
+
+    /**
+     * 获取一个大文件对象某个切片的输入流
+     * 数据直接来自网络连接，不会在内存中缓冲整个切片，调用方负责关闭输入流
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param offset     位移
+     * @param length     长度
+     * @return 切片的输入流，文件对象不存在或获取失败时返回 null
+     */
+    InputStream getObjectInputStream(String bucketName, String objectName, Long offset, Long length);
+
+    /**
+     * 将一个文件对象写入到调用方提供的输出流中
+     * 使用固定大小的缓冲区边读边写，不会关闭调用方的输出流
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象的绝对访问路径
+     * @param outputStream 目标输出流
+     * @return 写入的字节数，文件对象不存在或获取失败时返回 null
+     */
+    Long getObject(String bucketName, String objectName, OutputStream outputStream);
+
+    /**
+     * 将一个大文件对象的某个切片写入到调用方提供的输出流中
+     * 使用固定大小的缓冲区边读边写，不会关闭调用方的输出流
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象的绝对访问路径
+     * @param offset       位移
+     * @param length       长度
+     * @param outputStream 目标输出流
+     * @return 写入的字节数，文件对象不存在或获取失败时返回 null
+     */
+    Long getObject(String bucketName, String objectName, Long offset, Long length, OutputStream outputStream);
+
+    /**
+     * 将一个文件对象下载到本地文件，本地文件已存在时会被覆盖
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param localFile  本地文件路径
+     * @return 写入的字节数，文件对象不存在或下载失败时返回 null
+     */
+    Long getObject(String bucketName, String objectName, Path localFile);
+
+    /**
+     * 以并发分片的形式将一个文件对象下载到本地文件，本地文件已存在时会被覆盖
+     * 文件对象会按照配置的分片大小切分，各个分片并发下载并直接写入本地文件的对应位置
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param localFile  本地文件路径
+     * @return 写入的字节数，文件对象不存在或下载失败时返回 null
+     */
+    Long download4LocalFile(String bucketName, String objectName, Path localFile);
+
+    /**
+     * 将本地目录下的所有文件上传到指定前缀下，文件对象名称为 前缀 + 文件相对于目录的路径
+     * 各个文件并发上传；上传完成后在前缀下保存同步清单，再次同步时大小和修改时间与清单一致、
+     * 且文件对象仍存在并且 etag 与清单一致的文件会被跳过，服务端被删除或覆盖的文件对象会重新上传
+     *
+     * @param bucketName     bucket
+     * @param localDirectory 本地目录
+     * @param prefix         文件对象名称前缀，为 "" 时上传到 bucket 根路径
+     * @return 同步结果，目录不存在或同步失败时返回 null
+     */
+    DirectorySyncResult upload4LocalDirectory(String bucketName, Path localDirectory, String prefix);
+
+    /**
+     * 将指定前缀下的所有文件对象下载到本地目录，本地文件路径为 目录 + 文件对象名称去掉前缀后的路径
+     * 各个文件对象并发下载；下载完成后在本地目录保存同步清单，再次同步时 etag 与清单一致且本地文件未被修改的文件对象会被跳过
+     *
+     * @param bucketName     bucket
+     * @param prefix         文件对象名称前缀，为 "" 时下载整个 bucket
+     * @param localDirectory 本地目录，不存在时创建
+     * @return 同步结果，同步失败时返回 null
+     */
+    DirectorySyncResult download4LocalDirectory(String bucketName, String prefix, Path localDirectory);
+
+    /**
+     * 递归列举前缀下的所有文件对象
+     *
+     * @param bucketName bucket
+     * @param prefix     文件对象名称前缀，为 "" 时列举整个 bucket
+     * @return 按名称排序的文件对象摘要
+     * @see #listObjects(String, ListObjectsQuery)
+     */
+    Stream<ObjectSummary> listObjects(String bucketName, String prefix);
+
+    /**
+     * 按条件列举文件对象
+     * 返回的流是惰性的：开始消费时才请求第一页，消费当前页的同时在后台预取下一页，内存中最多保留两页。
+     * 遍历过程中请求失败时抛出 {@link IllegalStateException}；未遍历完毕时需要关闭流以取消预取
+     *
+     * @param bucketName bucket
+     * @param query      列举条件
+     * @return 按名称排序的文件对象摘要
+     */
+    Stream<ObjectSummary> listObjects(String bucketName, ListObjectsQuery query);
+
     /**
      * 删除一个文件对象
+     * 启用内容寻址上传时，内容相同的上传共享同一个以摘要命名的文件对象，删除会使所有持有者丢失数据，
+     * 因此实现可以拒绝删除这类文件对象并返回 false
      *
      * @param bucketName bucket
      * @param objectName 文件对象的绝对访问路径
@@ -84,16 +207,47 @@ public interface OssClient {
      */
     Boolean removeObject(String bucketName, String objectName);
 
+    /**
+     * 批量删除文件对象
+     * 每 1000 个文件对象合并为一次批量删除请求，多个请求并发执行
+     *
+     * @param bucketName  bucket
+     * @param objectNames 文件对象的绝对访问路径
+     * @return 每个文件对象的删除结果，true：成功；false：失败
+     */
+    Map<String, Boolean> removeObjects(String bucketName, Collection<String> objectNames);
+
+    /**
+     * 批量查询文件对象的元数据
+     * 多个文件对象并发查询；上传时压缩的文件对象返回解压后的长度，与读取到的数据一致
+     *
+     * @param bucketName  bucket
+     * @param objectNames 文件对象的绝对访问路径
+     * @return 每个文件对象的元数据，查询失败时为 null
+     */
+    Map<String, ObjectStat> statObjects(String bucketName, Collection<String> objectNames);
+
     /**
      * 以 base64 字符串的形式上传一个文件
+     * 上传的是解码后的原始内容，支持 data uri 形式的前缀，媒体类型根据解码后内容的文件头识别
      *
      * @param bucketName bucket
      * @param base64     base64 字符串
-     * @param suffix     上传文件的后缀，没有 .
+     * @param suffix     上传文件的后缀，没有 .，为 null 时根据文件头识别
      * @return 上传完毕后文件在文件服务器的路径
      */
     String upload4Base64(String bucketName, String base64, String suffix);
 
+    /**
+     * 以字符流的形式上传一个 base64 编码的文件，边读取边解码，适用于较大的文件
+     *
+     * @param bucketName   bucket
+     * @param base64Reader base64 字符流，上传完毕后不会关闭
+     * @param suffix       上传文件的后缀，没有 .，为 null 时根据文件头识别
+     * @return 上传完毕后文件在文件服务器的路径
+     */
+    String upload4Base64(String bucketName, Reader base64Reader, String suffix);
+
     /**
      * 上传一个本地文件
      *
@@ -123,9 +277,20 @@ public interface OssClient {
      */
     String upload4Bytes(String bucketName, byte[] bytes, String suffix);
 
+    /**
+     * 以指定的名称上传字节数组，已存在时覆盖
+     * 数据按原样保存，不压缩、不去重，也不经过异步写入队列，返回时已写入服务端
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     * @param bytes      字节数组
+     * @return true：成功；false：失败
+     */
+    Boolean putObject(String bucketName, String objectName, byte[] bytes);
+
     /**
      * 合并多个文件对象为一个文件对象
-     * 被合并的文件对象需要已存在于文件服务器中
+     * 被合并的文件对象需要已存在于文件服务器中，并且不能是上传时压缩的文件对象
      *
      * @param bucketName        bucket
      * @param sourceObjectNames 需要被合并的文件绝对路径
@@ -134,8 +299,122 @@ public interface OssClient {
      */
     String composeObjects(String bucketName, List<String> sourceObjectNames, String suffix);
 
+    /**
+     * 复制一个文件对象，可以跨 bucket，已存在时覆盖
+     * 由服务端完成复制，数据不经过客户端；超过分片复制阈值的文件对象拆分为多个范围并发复制
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourceObjectName 源文件对象的绝对访问路径
+     * @param targetBucketName 目标 bucket
+     * @param targetObjectName 目标文件对象的绝对访问路径
+     * @return true：成功；false：失败；源文件对象不存在时返回 null
+     */
+    Boolean copyObject(String sourceBucketName, String sourceObjectName,
+                       String targetBucketName, String targetObjectName);
+
+    /**
+     * 移动一个文件对象，可以跨 bucket，已存在时覆盖
+     * 服务端复制成功后删除源文件对象
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourceObjectName 源文件对象的绝对访问路径
+     * @param targetBucketName 目标 bucket
+     * @param targetObjectName 目标文件对象的绝对访问路径
+     * @return true：成功；false：失败；源文件对象不存在时返回 null
+     * @see #copyObject(String, String, String, String)
+     */
+    Boolean moveObject(String sourceBucketName, String sourceObjectName,
+                       String targetBucketName, String targetObjectName);
+
+    /**
+     * 将前缀下的所有文件对象复制到目标前缀下，保持相对路径不变
+     * 边列举边并发复制；同一个 bucket 内目标前缀不能位于源前缀下，否则不做处理并返回空结果
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourcePrefix     源文件对象名称前缀
+     * @param targetBucketName 目标 bucket
+     * @param targetPrefix     目标文件对象名称前缀
+     * @return 每个源文件对象的复制结果，true：成功；false：失败
+     */
+    Map<String, Boolean> copyObjects(String sourceBucketName, String sourcePrefix,
+                                     String targetBucketName, String targetPrefix);
+
+    /**
+     * 将前缀下的所有文件对象移动到目标前缀下，保持相对路径不变
+     * 复制成功的源文件对象按批删除
+     *
+     * @param sourceBucketName 源 bucket
+     * @param sourcePrefix     源文件对象名称前缀
+     * @param targetBucketName 目标 bucket
+     * @param targetPrefix     目标文件对象名称前缀
+     * @return 每个源文件对象的移动结果，true：成功；false：失败
+     * @see #copyObjects(String, String, String, String)
+     */
+    Map<String, Boolean> moveObjects(String sourceBucketName, String sourcePrefix,
+                                     String targetBucketName, String targetPrefix);
+
+    /**
+     * 开始一个断点续传上传会话
+     * 会话状态保存在文件服务器中，客户端断线或服务重启后可以使用同一个会话 id 继续上传
+     *
+     * @param bucketName bucket
+     * @param suffix     最终文件的后缀，没有 .
+     * @return 会话 id，失败时返回 null
+     */
+    String beginUploadSession(String bucketName, String suffix);
+
+    /**
+     * 上传会话中的一个分片，分片之间可以乱序、并发上传，重复上传同一个分片时覆盖之前的数据
+     * 除最后一个分片外，每个分片不能小于 5MB
+     *
+     * @param bucketName  bucket
+     * @param sessionId   会话 id
+     * @param chunkNumber 分片序号，从 1 开始
+     * @param inputStream 分片数据，上传完毕后不会关闭
+     * @return true：成功；false：失败
+     */
+    Boolean uploadChunk4InputStream(String bucketName, String sessionId, Integer chunkNumber,
+                                    InputStream inputStream);
+
+    /**
+     * 查询上传会话中已上传的分片，用于断线后确定需要补传的分片
+     *
+     * @param bucketName bucket
+     * @param sessionId  会话 id
+     * @return 已上传的分片序号，升序，查询失败时返回 null
+     */
+    List<Integer> getUploadedChunks(String bucketName, String sessionId);
+
+    /**
+     * 完成上传会话，按分片序号合并全部分片为最终文件，并删除会话数据
+     *
+     * @param bucketName bucket
+     * @param sessionId  会话 id
+     * @param chunkCount 分片总数，已上传的分片必须恰好为 1 ~ chunkCount
+     * @return 合并完毕后文件在文件服务器的路径，分片不完整或失败时返回 null
+     */
+    String completeUploadSession(String bucketName, String sessionId, Integer chunkCount);
+
+    /**
+     * 放弃上传会话，删除已上传的分片
+     *
+     * @param bucketName bucket
+     * @param sessionId  会话 id
+     * @return true：成功；false：失败
+     */
+    Boolean abortUploadSession(String bucketName, String sessionId);
+
+    /**
+     * 清理超过有效期未更新的上传会话
+     *
+     * @param bucketName bucket
+     * @return 被清理的会话数，失败时返回 null
+     */
+    Integer purgeExpiredUploadSessions(String bucketName);
+
     /**
      * 获取一个文件对象的临时访问凭证，需要指定有效时间，有效时间单位是 分
+     * 上传时压缩的文件对象以 Content-Encoding: gzip 响应，由客户端解压
      *
      * @param bucketName   bucket
      * @param objectName   文件对象的绝对访问路径
@@ -144,6 +423,17 @@ public interface OssClient {
      */
     String getPresignedObjectUrl4Get(String bucketName, String objectName, Integer expireMinute);
 
+    /**
+     * 批量获取文件对象的临时访问凭证，需要指定有效时间，有效时间单位是 分
+     * 同一批文件对象共用签名时间和签名密钥
+     *
+     * @param bucketName   bucket
+     * @param objectNames  文件对象的绝对访问路径
+     * @param expireMinute 有效时间，单位 分
+     * @return 文件对象与临时访问凭证完整地址的映射，获取失败的文件对象对应 null
+     */
+    Map<String, String> getPresignedObjectUrls4Get(String bucketName, List<String> objectNames, Integer expireMinute);
+
     /**
      * 获取一个文件对象的临时上传凭证，需要指定有效时间，有效时间单位是 分
      *
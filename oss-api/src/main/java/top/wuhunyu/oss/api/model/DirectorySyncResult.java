@@ -0,0 +1,19 @@
+package top.wuhunyu.oss.api.model;
+
+import java.util.List;
+
+/**
+ * 目录同步结果
+ *
+ * @param transferred 实际传输的文件个数
+ * @param skipped     与清单一致而跳过的文件个数
+ * @param failed      传输失败的文件相对路径，下次同步时会重新传输
+ * @param bytes       实际传输的字节数
+ **/
+
+public record DirectorySyncResult(int transferred,
+                                  int skipped,
+                                  List<String> failed,
+                                  long bytes) {
+
+}
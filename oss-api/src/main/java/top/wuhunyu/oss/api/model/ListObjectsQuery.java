@@ -0,0 +1,43 @@
+package top.wuhunyu.oss.api.model;
+
+/**
+ * 列举文件对象的条件
+ *
+ * @param prefix          文件对象名称前缀，为 "" 时列举整个 bucket
+ * @param delimiter       分隔符，不为 null 时前缀之后包含分隔符的名称折叠为公共前缀；为 null 时递归列举
+ * @param startAfter      从该名称之后开始列举，为 null 时从头开始
+ * @param pageSize        每页的文件对象个数，取值 1 ~ 1000
+ * @param includeMetadata 是否同时返回用户自定义元数据
+ **/
+
+public record ListObjectsQuery(String prefix,
+                               String delimiter,
+                               String startAfter,
+                               int pageSize,
+                               boolean includeMetadata) {
+
+    /**
+     * 单页允许的最大文件对象个数
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public ListObjectsQuery {
+        if (prefix == null) {
+            throw new IllegalArgumentException("prefix 不能为 null");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize 取值范围为 1 ~ " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * 递归列举前缀下的所有文件对象，不返回用户自定义元数据
+     *
+     * @param prefix 文件对象名称前缀
+     * @return 列举条件
+     */
+    public static ListObjectsQuery of(String prefix) {
+        return new ListObjectsQuery(prefix, null, null, MAX_PAGE_SIZE, false);
+    }
+
+}
@@ -0,0 +1,36 @@
+package top.wuhunyu.oss.api.model;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+/**
+ * 文件对象元数据
+ *
+ * @param objectName   文件对象全路径名称
+ * @param exists       文件对象是否存在，不存在时其余字段均为 null
+ * @param size         文件对象大小，单位 字节
+ * @param etag         文件对象的 etag
+ * @param lastModified 最后修改时间
+ * @param contentType  媒体类型
+ * @param userMetadata 用户自定义元数据
+ **/
+
+public record ObjectStat(String objectName,
+                         boolean exists,
+                         Long size,
+                         String etag,
+                         ZonedDateTime lastModified,
+                         String contentType,
+                         Map<String, String> userMetadata) {
+
+    /**
+     * 构建一个不存在的文件对象元数据
+     *
+     * @param objectName 文件对象全路径名称
+     * @return 文件对象元数据
+     */
+    public static ObjectStat notExist(String objectName) {
+        return new ObjectStat(objectName, false, null, null, null, null, Map.of());
+    }
+
+}
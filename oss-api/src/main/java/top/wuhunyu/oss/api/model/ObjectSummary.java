@@ -0,0 +1,34 @@
+package top.wuhunyu.oss.api.model;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+/**
+ * 列举得到的文件对象摘要
+ *
+ * @param objectName   文件对象全路径名称，公共前缀时为前缀本身
+ * @param prefix       是否为按分隔符折叠得到的公共前缀，为 true 时其余字段均为 null
+ * @param size         文件对象大小，单位 字节
+ * @param etag         文件对象的 etag
+ * @param lastModified 最后修改时间
+ * @param userMetadata 用户自定义元数据，未要求返回元数据时为空
+ **/
+
+public record ObjectSummary(String objectName,
+                            boolean prefix,
+                            Long size,
+                            String etag,
+                            ZonedDateTime lastModified,
+                            Map<String, String> userMetadata) {
+
+    /**
+     * 构建一个公共前缀
+     *
+     * @param prefix 公共前缀
+     * @return 文件对象摘要
+     */
+    public static ObjectSummary ofPrefix(String prefix) {
+        return new ObjectSummary(prefix, true, null, null, null, Map.of());
+    }
+
+}
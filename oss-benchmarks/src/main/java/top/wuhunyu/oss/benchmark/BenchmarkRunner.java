@@ -0,0 +1,33 @@
+package top.wuhunyu.oss.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 默认运行全部基准测试并启用 gc 分析器输出分配速率，命令行参数与 jmh 一致，例如：
+ * <pre>
+ * java -Doss.benchmark.endpoint=http://127.0.0.1:9000 -jar benchmarks.jar DownloadBenchmark -p size=1048576
+ * </pre>
+ **/
+
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                // 将被测 minio 服务的系统属性传递给 fork 出的 jvm
+                .jvmArgsAppend(System.getProperties().stringPropertyNames().stream()
+                        .filter(name -> name.startsWith("oss.benchmark."))
+                        .map(name -> "-D" + name + "=" + System.getProperty(name))
+                        .toArray(String[]::new))
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,93 @@
+package top.wuhunyu.oss.benchmark;
+
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.local.LocalOssClient;
+import top.wuhunyu.oss.minio.MyMinioClient;
+import top.wuhunyu.oss.properties.LocalProperties;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基准测试公共支持
+ * 通过系统属性指定被测的 minio 服务，默认连接本地以默认账号启动的 minio：
+ * <pre>
+ * -Doss.benchmark.backend=minio
+ * -Doss.benchmark.endpoint=http://127.0.0.1:9000
+ * -Doss.benchmark.accessKey=minioadmin
+ * -Doss.benchmark.secretKey=minioadmin
+ * -Doss.benchmark.bucket=oss-benchmark
+ * </pre>
+ * 指定 -Doss.benchmark.backend=local 时改为测试本地文件系统实现，无需启动 minio，
+ * 存储目录由 -Doss.benchmark.rootDirectory 指定
+ **/
+
+final class BenchmarkSupport {
+
+    static final String BUCKET = System.getProperty("oss.benchmark.bucket", "oss-benchmark");
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 创建被测客户端，并保证测试用的 bucket 存在
+     *
+     * @return oss 客户端
+     */
+    static OssClient createClient() {
+        OssClient ossClient = "local".equals(System.getProperty("oss.benchmark.backend"))
+                ? createLocalClient()
+                : createMinioClient();
+        if (!ossClient.createBucket(BUCKET)) {
+            throw new IllegalStateException("创建基准测试 bucket: " + BUCKET + " 失败");
+        }
+        return ossClient;
+    }
+
+    private static OssClient createLocalClient() {
+        LocalProperties localProperties = new LocalProperties();
+        localProperties.setRootDirectory(System.getProperty("oss.benchmark.rootDirectory",
+                System.getProperty("java.io.tmpdir") + "/oss-benchmark"));
+        return new LocalOssClient(localProperties);
+    }
+
+    private static OssClient createMinioClient() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setEndpoint(System.getProperty("oss.benchmark.endpoint", "http://127.0.0.1:9000"));
+        minioProperties.setAccessKey(System.getProperty("oss.benchmark.accessKey", "minioadmin"));
+        minioProperties.setSecretKey(System.getProperty("oss.benchmark.secretKey", "minioadmin"));
+        // 指定区域，避免签名时查询 bucket 所在区域
+        minioProperties.setRegion(System.getProperty("oss.benchmark.region", "us-east-1"));
+
+        return new MyMinioClient(minioProperties);
+    }
+
+    /**
+     * 生成指定大小的随机字节数组
+     *
+     * @param size 大小，单位 字节
+     * @return 随机字节数组
+     */
+    static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * 删除基准测试产生的文件对象并关闭客户端
+     *
+     * @param ossClient   oss 客户端
+     * @param objectNames 需要删除的文件对象
+     */
+    static void cleanUp(OssClient ossClient, Collection<String> objectNames) throws Exception {
+        if (!objectNames.isEmpty()) {
+            ossClient.removeObjects(BUCKET, objectNames);
+        }
+        if (ossClient instanceof AutoCloseable autoCloseable) {
+            autoCloseable.close();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package top.wuhunyu.oss.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.wuhunyu.oss.api.OssClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合并基准测试
+ * 除最后一个外，被合并的文件对象都需要不小于 5MB
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ComposeBenchmark {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Param({"2", "8"})
+    private int partCount;
+
+    private OssClient ossClient;
+
+    private final List<String> sourceObjectNames = new ArrayList<>();
+
+    private final Queue<String> composedObjectNames = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ossClient = BenchmarkSupport.createClient();
+        byte[] part = BenchmarkSupport.randomBytes(PART_SIZE);
+        for (int i = 0; i < partCount; i++) {
+            sourceObjectNames.add(ossClient.upload4Bytes(BenchmarkSupport.BUCKET, part, "bin"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        composedObjectNames.addAll(sourceObjectNames);
+        BenchmarkSupport.cleanUp(ossClient, composedObjectNames);
+    }
+
+    @Benchmark
+    public String composeObjects() {
+        String objectName = ossClient.composeObjects(BenchmarkSupport.BUCKET, sourceObjectNames, "bin");
+        if (objectName == null) {
+            throw new IllegalStateException("合并失败");
+        }
+        composedObjectNames.add(objectName);
+        return objectName;
+    }
+
+}
@@ -0,0 +1,95 @@
+package top.wuhunyu.oss.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.wuhunyu.oss.api.OssClient;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下载基准测试
+ * 覆盖完整下载、切片下载、流式读取以及并发分片下载到本地文件
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DownloadBenchmark {
+
+    /**
+     * 切片下载的长度
+     */
+    private static final long RANGE_LENGTH = 64 * 1024;
+
+    @Param({"1024", "1048576", "67108864"})
+    private int size;
+
+    private OssClient ossClient;
+
+    private String objectName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ossClient = BenchmarkSupport.createClient();
+        objectName = ossClient.upload4Bytes(BenchmarkSupport.BUCKET, BenchmarkSupport.randomBytes(size), "bin");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.cleanUp(ossClient, List.of(objectName));
+    }
+
+    @Benchmark
+    public OutputStream getObjectBuffered() {
+        return ossClient.getObject(BenchmarkSupport.BUCKET, objectName);
+    }
+
+    @Benchmark
+    public Long getObjectStreaming() {
+        return ossClient.getObject(BenchmarkSupport.BUCKET, objectName, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public Long getObjectRange() {
+        long length = Math.min(RANGE_LENGTH, size);
+        return ossClient.getObject(BenchmarkSupport.BUCKET, objectName, (size - length) / 2, length,
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long getObjectInputStream() throws Exception {
+        try (InputStream inputStream = ossClient.getObjectInputStream(BenchmarkSupport.BUCKET, objectName)) {
+            return inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public Long download4LocalFile(LocalFileState localFileState) {
+        return ossClient.download4LocalFile(BenchmarkSupport.BUCKET, objectName, localFileState.localFile);
+    }
+
+    @State(Scope.Thread)
+    public static class LocalFileState {
+
+        private Path localFile;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            localFile = Files.createTempFile("oss-benchmark-", ".bin");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            Files.deleteIfExists(localFile);
+        }
+
+    }
+
+}
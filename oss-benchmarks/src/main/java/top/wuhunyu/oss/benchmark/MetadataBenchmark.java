@@ -0,0 +1,64 @@
+package top.wuhunyu.oss.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.ObjectStat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 元数据基准测试
+ * 覆盖 bucket、文件对象的存在性检查以及批量查询元数据
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class MetadataBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private OssClient ossClient;
+
+    private final List<String> objectNames = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ossClient = BenchmarkSupport.createClient();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            objectNames.add(ossClient.upload4Bytes(BenchmarkSupport.BUCKET, BenchmarkSupport.randomBytes(16), "bin"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.cleanUp(ossClient, objectNames);
+    }
+
+    @Benchmark
+    public Boolean isBucketExist() {
+        return ossClient.isBucketExist(BenchmarkSupport.BUCKET);
+    }
+
+    @Benchmark
+    public Boolean isObjectExist() {
+        return ossClient.isObjectExist(BenchmarkSupport.BUCKET, objectNames.get(0));
+    }
+
+    @Benchmark
+    public Boolean isObjectExistMissing() {
+        return ossClient.isObjectExist(BenchmarkSupport.BUCKET, "missing-object");
+    }
+
+    @Benchmark
+    public Map<String, ObjectStat> statObjects() {
+        return ossClient.statObjects(BenchmarkSupport.BUCKET, objectNames);
+    }
+
+}
@@ -0,0 +1,54 @@
+package top.wuhunyu.oss.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.wuhunyu.oss.api.OssClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 临时凭证签名基准测试
+ * 签名只在本地计算，不依赖 minio 服务返回结果
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PresignBenchmark {
+
+    private static final int BATCH_SIZE = 200;
+
+    private OssClient ossClient;
+
+    private List<String> objectNames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ossClient = BenchmarkSupport.createClient();
+        objectNames = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> "gallery/" + i + ".jpg")
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.cleanUp(ossClient, List.of());
+    }
+
+    @Benchmark
+    public String presignGet() {
+        return ossClient.getPresignedObjectUrl4Get(BenchmarkSupport.BUCKET, objectNames.get(0), 60);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Map<String, String> presignGetBatch() {
+        return ossClient.getPresignedObjectUrls4Get(BenchmarkSupport.BUCKET, objectNames, 60);
+    }
+
+}
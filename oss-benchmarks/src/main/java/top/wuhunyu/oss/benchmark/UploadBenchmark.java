@@ -0,0 +1,78 @@
+package top.wuhunyu.oss.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.wuhunyu.oss.api.OssClient;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传基准测试
+ * 分别以字节数组、输入流、本地文件的形式上传不同大小的文件
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UploadBenchmark {
+
+    /**
+     * 1KB、1MB、32MB，最后一档会走分片上传
+     */
+    @Param({"1024", "1048576", "33554432"})
+    private int size;
+
+    private OssClient ossClient;
+
+    private byte[] payload;
+
+    private Path localFile;
+
+    private final Queue<String> objectNames = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ossClient = BenchmarkSupport.createClient();
+        payload = BenchmarkSupport.randomBytes(size);
+        localFile = Files.createTempFile("oss-benchmark-", ".bin");
+        Files.write(localFile, payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.cleanUp(ossClient, objectNames);
+        Files.deleteIfExists(localFile);
+    }
+
+    @Benchmark
+    public String upload4Bytes() {
+        return this.record(ossClient.upload4Bytes(BenchmarkSupport.BUCKET, payload, "bin"));
+    }
+
+    @Benchmark
+    public String upload4InputStream() {
+        return this.record(ossClient.upload4InputStream(BenchmarkSupport.BUCKET,
+                new ByteArrayInputStream(payload), "bin"));
+    }
+
+    @Benchmark
+    public String upload4LocalFile() {
+        return this.record(ossClient.upload4LocalFile(BenchmarkSupport.BUCKET, localFile.toString()));
+    }
+
+    private String record(String objectName) {
+        if (objectName == null || objectName.isEmpty()) {
+            throw new IllegalStateException("上传失败");
+        }
+        objectNames.add(objectName);
+        return objectName;
+    }
+
+}
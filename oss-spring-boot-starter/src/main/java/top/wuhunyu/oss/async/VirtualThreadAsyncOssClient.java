@@ -0,0 +1,255 @@
+package top.wuhunyu.oss.async;
+
+import top.wuhunyu.oss.api.AsyncOssClient;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.DirectorySyncResult;
+import top.wuhunyu.oss.api.model.ObjectStat;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 基于虚拟线程的异步 oss 客户端
+ * 每个操作都在独立的虚拟线程上调用同步的 {@link OssClient}，阻塞的存储 I/O 只会挂起虚拟线程而不会占用平台线程
+ **/
+
+public class VirtualThreadAsyncOssClient implements AsyncOssClient, AutoCloseable {
+
+    private final OssClient ossClient;
+
+    private final ExecutorService executorService;
+
+    public VirtualThreadAsyncOssClient(OssClient ossClient) {
+        this.ossClient = Objects.requireNonNull(ossClient);
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isBucketExist(String bucketName) {
+        return this.supplyAsync(() -> ossClient.isBucketExist(bucketName));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isObjectExist(String bucketName, String objectName) {
+        return this.supplyAsync(() -> ossClient.isObjectExist(bucketName, objectName));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isFolderExist(String bucketName, String folderName) {
+        return this.supplyAsync(() -> ossClient.isFolderExist(bucketName, folderName));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> createBucket(String bucketName) {
+        return this.supplyAsync(() -> ossClient.createBucket(bucketName));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeBucket(String bucketName) {
+        return this.supplyAsync(() -> ossClient.removeBucket(bucketName));
+    }
+
+    @Override
+    public CompletableFuture<OutputStream> getObject(String bucketName, String objectName) {
+        return this.supplyAsync(() -> ossClient.getObject(bucketName, objectName));
+    }
+
+    @Override
+    public CompletableFuture<OutputStream> getObject(String bucketName, String objectName, Long offset, Long length) {
+        return this.supplyAsync(() -> ossClient.getObject(bucketName, objectName, offset, length));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> getObjectInputStream(String bucketName, String objectName) {
+        return this.supplyAsync(() -> ossClient.getObjectInputStream(bucketName, objectName));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> getObjectInputStream(String bucketName, String objectName,
+                                                               Long offset, Long length) {
+        return this.supplyAsync(() -> ossClient.getObjectInputStream(bucketName, objectName, offset, length));
+    }
+
+    @Override
+    public CompletableFuture<Long> getObject(String bucketName, String objectName, OutputStream outputStream) {
+        return this.supplyAsync(() -> ossClient.getObject(bucketName, objectName, outputStream));
+    }
+
+    @Override
+    public CompletableFuture<Long> getObject(String bucketName, String objectName, Long offset, Long length,
+                                             OutputStream outputStream) {
+        return this.supplyAsync(() -> ossClient.getObject(bucketName, objectName, offset, length, outputStream));
+    }
+
+    @Override
+    public CompletableFuture<Long> getObject(String bucketName, String objectName, Path localFile) {
+        return this.supplyAsync(() -> ossClient.getObject(bucketName, objectName, localFile));
+    }
+
+    @Override
+    public CompletableFuture<Long> download4LocalFile(String bucketName, String objectName, Path localFile) {
+        return this.supplyAsync(() -> ossClient.download4LocalFile(bucketName, objectName, localFile));
+    }
+
+    @Override
+    public CompletableFuture<DirectorySyncResult> upload4LocalDirectory(String bucketName, Path localDirectory,
+                                                                        String prefix) {
+        return this.supplyAsync(() -> ossClient.upload4LocalDirectory(bucketName, localDirectory, prefix));
+    }
+
+    @Override
+    public CompletableFuture<DirectorySyncResult> download4LocalDirectory(String bucketName, String prefix,
+                                                                          Path localDirectory) {
+        return this.supplyAsync(() -> ossClient.download4LocalDirectory(bucketName, prefix, localDirectory));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeObject(String bucketName, String objectName) {
+        return this.supplyAsync(() -> ossClient.removeObject(bucketName, objectName));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Boolean>> removeObjects(String bucketName, Collection<String> objectNames) {
+        return this.supplyAsync(() -> ossClient.removeObjects(bucketName, objectNames));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, ObjectStat>> statObjects(String bucketName,
+                                                                  Collection<String> objectNames) {
+        return this.supplyAsync(() -> ossClient.statObjects(bucketName, objectNames));
+    }
+
+    @Override
+    public CompletableFuture<String> upload4Base64(String bucketName, String base64, String suffix) {
+        return this.supplyAsync(() -> ossClient.upload4Base64(bucketName, base64, suffix));
+    }
+
+    @Override
+    public CompletableFuture<String> upload4Base64(String bucketName, Reader base64Reader, String suffix) {
+        return this.supplyAsync(() -> ossClient.upload4Base64(bucketName, base64Reader, suffix));
+    }
+
+    @Override
+    public CompletableFuture<String> upload4LocalFile(String bucketName, String localFile) {
+        return this.supplyAsync(() -> ossClient.upload4LocalFile(bucketName, localFile));
+    }
+
+    @Override
+    public CompletableFuture<String> upload4InputStream(String bucketName, InputStream inputStream, String suffix) {
+        return this.supplyAsync(() -> ossClient.upload4InputStream(bucketName, inputStream, suffix));
+    }
+
+    @Override
+    public CompletableFuture<String> upload4Bytes(String bucketName, byte[] bytes, String suffix) {
+        return this.supplyAsync(() -> ossClient.upload4Bytes(bucketName, bytes, suffix));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> putObject(String bucketName, String objectName, byte[] bytes) {
+        return this.supplyAsync(() -> ossClient.putObject(bucketName, objectName, bytes));
+    }
+
+    @Override
+    public CompletableFuture<String> composeObjects(String bucketName, List<String> sourceObjectNames, String suffix) {
+        return this.supplyAsync(() -> ossClient.composeObjects(bucketName, sourceObjectNames, suffix));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> copyObject(String sourceBucketName, String sourceObjectName,
+                                                 String targetBucketName, String targetObjectName) {
+        return this.supplyAsync(() -> ossClient.copyObject(sourceBucketName, sourceObjectName,
+                targetBucketName, targetObjectName));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> moveObject(String sourceBucketName, String sourceObjectName,
+                                                 String targetBucketName, String targetObjectName) {
+        return this.supplyAsync(() -> ossClient.moveObject(sourceBucketName, sourceObjectName,
+                targetBucketName, targetObjectName));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Boolean>> copyObjects(String sourceBucketName, String sourcePrefix,
+                                                               String targetBucketName, String targetPrefix) {
+        return this.supplyAsync(() -> ossClient.copyObjects(sourceBucketName, sourcePrefix,
+                targetBucketName, targetPrefix));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Boolean>> moveObjects(String sourceBucketName, String sourcePrefix,
+                                                               String targetBucketName, String targetPrefix) {
+        return this.supplyAsync(() -> ossClient.moveObjects(sourceBucketName, sourcePrefix,
+                targetBucketName, targetPrefix));
+    }
+
+    @Override
+    public CompletableFuture<String> beginUploadSession(String bucketName, String suffix) {
+        return this.supplyAsync(() -> ossClient.beginUploadSession(bucketName, suffix));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> uploadChunk4InputStream(String bucketName, String sessionId,
+                                                              Integer chunkNumber, InputStream inputStream) {
+        return this.supplyAsync(() -> ossClient.uploadChunk4InputStream(bucketName, sessionId, chunkNumber,
+                inputStream));
+    }
+
+    @Override
+    public CompletableFuture<List<Integer>> getUploadedChunks(String bucketName, String sessionId) {
+        return this.supplyAsync(() -> ossClient.getUploadedChunks(bucketName, sessionId));
+    }
+
+    @Override
+    public CompletableFuture<String> completeUploadSession(String bucketName, String sessionId, Integer chunkCount) {
+        return this.supplyAsync(() -> ossClient.completeUploadSession(bucketName, sessionId, chunkCount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> abortUploadSession(String bucketName, String sessionId) {
+        return this.supplyAsync(() -> ossClient.abortUploadSession(bucketName, sessionId));
+    }
+
+    @Override
+    public CompletableFuture<Integer> purgeExpiredUploadSessions(String bucketName) {
+        return this.supplyAsync(() -> ossClient.purgeExpiredUploadSessions(bucketName));
+    }
+
+    @Override
+    public CompletableFuture<String> getPresignedObjectUrl4Get(String bucketName, String objectName,
+                                                               Integer expireMinute) {
+        return this.supplyAsync(() -> ossClient.getPresignedObjectUrl4Get(bucketName, objectName, expireMinute));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getPresignedObjectUrls4Get(String bucketName,
+                                                                             List<String> objectNames,
+                                                                             Integer expireMinute) {
+        return this.supplyAsync(() -> ossClient.getPresignedObjectUrls4Get(bucketName, objectNames, expireMinute));
+    }
+
+    @Override
+    public CompletableFuture<String> getPresignedObjectUrl4Put(String bucketName, String objectName,
+                                                               Integer expireMinute) {
+        return this.supplyAsync(() -> ossClient.getPresignedObjectUrl4Put(bucketName, objectName, expireMinute));
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executorService);
+    }
+
+}
@@ -1,13 +1,26 @@
 package top.wuhunyu.oss.autoconfigure;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import top.wuhunyu.oss.api.AsyncOssClient;
 import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.async.VirtualThreadAsyncOssClient;
+import top.wuhunyu.oss.local.LocalOssClient;
+import top.wuhunyu.oss.metrics.MinioMetricsBinder;
+import top.wuhunyu.oss.metrics.MinioMetricsInterceptor;
+import top.wuhunyu.oss.minio.MinioHttpClientCustomizer;
 import top.wuhunyu.oss.minio.MyMinioClient;
+import top.wuhunyu.oss.pack.PackStore;
+import top.wuhunyu.oss.properties.LocalProperties;
 import top.wuhunyu.oss.properties.MinioProperties;
+import top.wuhunyu.oss.properties.PackProperties;
 
 /**
  * oss 自动装配
@@ -17,14 +30,58 @@ import top.wuhunyu.oss.properties.MinioProperties;
  **/
 
 @Configuration
-@EnableConfigurationProperties(MinioProperties.class)
+@EnableConfigurationProperties({MinioProperties.class, LocalProperties.class, PackProperties.class})
 public class OssAutoconfigure {
 
+    @Bean("localOssClient")
+    @ConditionalOnProperty(prefix = "spring.oss.local", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean(OssClient.class)
+    public OssClient localOssClient(LocalProperties localProperties) {
+        return new LocalOssClient(localProperties);
+    }
+
     @Bean("myMinioClient")
     @ConditionalOnBean(MinioProperties.class)
     @ConditionalOnMissingBean(OssClient.class)
-    public OssClient myMinioClient(MinioProperties minioProperties) {
-        return new MyMinioClient(minioProperties);
+    @ConditionalOnProperty(prefix = "spring.oss.local", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public OssClient myMinioClient(MinioProperties minioProperties,
+                                   ObjectProvider<MinioHttpClientCustomizer> httpClientCustomizers) {
+        return new MyMinioClient(minioProperties, httpClientCustomizers.orderedStream().toList());
+    }
+
+    @Bean("asyncOssClient")
+    @ConditionalOnBean(OssClient.class)
+    @ConditionalOnMissingBean(AsyncOssClient.class)
+    public AsyncOssClient asyncOssClient(OssClient ossClient) {
+        return new VirtualThreadAsyncOssClient(ossClient);
+    }
+
+    @Bean("packStore")
+    @ConditionalOnBean(OssClient.class)
+    @ConditionalOnMissingBean(PackStore.class)
+    @ConditionalOnProperty(prefix = "spring.oss.pack", name = "enabled", havingValue = "true")
+    public PackStore packStore(OssClient ossClient, PackProperties packProperties) {
+        return new PackStore(ossClient, packProperties);
+    }
+
+    /**
+     * micrometer 指标装配，存在 {@link MeterRegistry} 时生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class OssMetricsConfiguration {
+
+        @Bean("minioMetricsHttpClientCustomizer")
+        public MinioHttpClientCustomizer minioMetricsHttpClientCustomizer(ObjectProvider<MeterRegistry> meterRegistry) {
+            return builder -> meterRegistry.ifAvailable(registry ->
+                    builder.addInterceptor(new MinioMetricsInterceptor(registry)));
+        }
+
+        @Bean("minioMetricsBinder")
+        public MinioMetricsBinder minioMetricsBinder(ObjectProvider<OssClient> ossClient) {
+            return new MinioMetricsBinder(ossClient);
+        }
+
     }
 
 }
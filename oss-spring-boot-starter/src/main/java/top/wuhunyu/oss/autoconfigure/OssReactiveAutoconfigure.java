@@ -0,0 +1,28 @@
+package top.wuhunyu.oss.autoconfigure;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import reactor.core.publisher.Flux;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.reactive.ReactiveOssClient;
+
+/**
+ * 响应式客户端自动装配，存在 reactor 时生效
+ * 需要在 {@link OssAutoconfigure} 注册 {@link OssClient} 之后判断条件，因此单独作为一个自动装配类
+ **/
+
+@AutoConfiguration(after = OssAutoconfigure.class)
+@ConditionalOnClass(Flux.class)
+public class OssReactiveAutoconfigure {
+
+    @Bean("reactiveOssClient")
+    @ConditionalOnBean(OssClient.class)
+    @ConditionalOnMissingBean(ReactiveOssClient.class)
+    public ReactiveOssClient reactiveOssClient(OssClient ossClient) {
+        return new ReactiveOssClient(ossClient);
+    }
+
+}
@@ -0,0 +1,225 @@
+package top.wuhunyu.oss.cache;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地磁盘文件对象缓存
+ * 以 bucket / 文件对象 / etag 为键将文件对象保存在本地目录，按总字节数进行最近最少使用淘汰，
+ * 命中时通过 {@link FileChannel#transferTo} 输出，etag 与服务端不一致的条目视为未命中。
+ * 索引只保存在内存中，启动时会清理目录中上一次运行遗留的缓存文件；缓存文件都带有固定的前缀，
+ * 清理时只删除带有该前缀的文件，目录中的其他文件不受影响
+ **/
+
+@Slf4j
+public class DiskObjectCache {
+
+    /**
+     * 本缓存创建的文件的前缀
+     */
+    private static final String FILE_PREFIX = "oss-disk-cache-";
+
+    private static final String CACHE_FILE_SUFFIX = ".obj";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long totalBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public DiskObjectCache(Path directory, long maxBytes) {
+        this.directory = Objects.requireNonNull(directory);
+        this.maxBytes = maxBytes;
+
+        try {
+            Files.createDirectories(directory);
+            // 清理上一次运行遗留的缓存文件
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory,
+                    FILE_PREFIX + "*{" + CACHE_FILE_SUFFIX + "," + TEMP_FILE_SUFFIX + "}")) {
+                for (Path path : paths) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("初始化本地缓存目录: " + directory + " 异常", e);
+        }
+    }
+
+    /**
+     * 获取缓存的文件对象
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     * @param etag       服务端当前的 etag
+     * @return 缓存文件路径，未命中或 etag 不一致时返回 null
+     */
+    public synchronized Path get(String bucketName, String objectName, String etag) {
+        Entry entry = entries.get(this.key(bucketName, objectName));
+        if (entry == null || !entry.etag().equals(etag)) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.path();
+    }
+
+    /**
+     * 创建一个位于缓存目录中的临时文件，写入完毕后通过 {@link #put} 加入缓存
+     *
+     * @return 临时文件路径
+     */
+    public Path createTempFile() {
+        return directory.resolve(FILE_PREFIX + IdUtil.fastSimpleUUID() + TEMP_FILE_SUFFIX);
+    }
+
+    /**
+     * 将已写入完毕的临时文件加入缓存，必要时淘汰最久未使用的条目
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     * @param etag       文件对象的 etag
+     * @param tempFile   临时文件
+     * @return 缓存文件路径，加入失败时返回 null
+     */
+    public Path put(String bucketName, String objectName, String etag, Path tempFile) {
+        Path path = directory.resolve(FILE_PREFIX + IdUtil.fastSimpleUUID() + CACHE_FILE_SUFFIX);
+        long size;
+        try {
+            size = Files.size(tempFile);
+            if (size > maxBytes) {
+                Files.deleteIfExists(tempFile);
+                return null;
+            }
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入本地缓存: {} / {} 异常", bucketName, objectName, e);
+            this.delete(tempFile);
+            return null;
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(this.key(bucketName, objectName), new Entry(etag, path, size));
+            if (previous != null) {
+                totalBytes -= previous.size();
+                this.delete(previous.path());
+            }
+            totalBytes += size;
+
+            // 按总字节数淘汰
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                if (eldest.path().equals(path)) {
+                    continue;
+                }
+                iterator.remove();
+                totalBytes -= eldest.size();
+                this.delete(eldest.path());
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 移除一个文件对象的缓存
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     */
+    public synchronized void invalidate(String bucketName, String objectName) {
+        Entry entry = entries.remove(this.key(bucketName, objectName));
+        if (entry != null) {
+            totalBytes -= entry.size();
+            this.delete(entry.path());
+        }
+    }
+
+    /**
+     * 以零拷贝的方式将缓存文件写入到输出流中
+     *
+     * @param path         缓存文件路径
+     * @param outputStream 目标输出流
+     * @return 写入的字节数
+     */
+    public long transferTo(Path path, OutputStream outputStream) throws IOException {
+        return this.transferTo(path, Channels.newChannel(outputStream));
+    }
+
+    /**
+     * 以零拷贝的方式将缓存文件复制到本地文件
+     *
+     * @param path      缓存文件路径
+     * @param localFile 目标本地文件
+     * @return 写入的字节数
+     */
+    public long transferTo(Path path, Path localFile) throws IOException {
+        try (FileChannel target = FileChannel.open(localFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return this.transferTo(path, target);
+        }
+    }
+
+    private long transferTo(Path path, WritableByteChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("删除本地缓存文件: {} 异常", path, e);
+        }
+    }
+
+    private String key(String bucketName, String objectName) {
+        return bucketName + "/" + objectName;
+    }
+
+    private record Entry(String etag, Path path, long size) {
+    }
+
+}
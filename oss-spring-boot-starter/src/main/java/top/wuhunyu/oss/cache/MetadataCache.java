@@ -0,0 +1,134 @@
+package top.wuhunyu.oss.cache;
+
+import top.wuhunyu.oss.api.model.ObjectStat;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内的 bucket / 文件对象元数据缓存
+ * 按最近最少使用淘汰，条目超过有效期后失效，不存在的结果使用单独的（通常更短的）有效期缓存，
+ * 由本客户端发起的写入、删除会同步更新缓存
+ **/
+
+public class MetadataCache {
+
+    private static final String BUCKET_KEY_PREFIX = "b:";
+
+    private static final String OBJECT_KEY_PREFIX = "o:";
+
+    private final long ttlNanos;
+
+    private final long negativeTtlNanos;
+
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public MetadataCache(int maximumSize, Duration ttl, Duration negativeTtl) {
+        Objects.requireNonNull(ttl);
+        Objects.requireNonNull(negativeTtl);
+
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的 bucket 是否存在
+     *
+     * @param bucketName bucket
+     * @return 是否存在，未命中时返回 null
+     */
+    public Boolean getBucketExist(String bucketName) {
+        return (Boolean) this.get(BUCKET_KEY_PREFIX + bucketName);
+    }
+
+    public void putBucketExist(String bucketName, boolean exists) {
+        this.put(BUCKET_KEY_PREFIX + bucketName, exists, exists);
+    }
+
+    /**
+     * 移除 bucket 及其下所有文件对象的缓存
+     *
+     * @param bucketName bucket
+     */
+    public synchronized void invalidateBucket(String bucketName) {
+        String objectKeyPrefix = OBJECT_KEY_PREFIX + bucketName + "/";
+        entries.remove(BUCKET_KEY_PREFIX + bucketName);
+        entries.keySet().removeIf(key -> key.startsWith(objectKeyPrefix));
+    }
+
+    /**
+     * 获取缓存的文件对象元数据
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象全路径名称
+     * @return 文件对象元数据，未命中时返回 null
+     */
+    public ObjectStat getObjectStat(String bucketName, String objectName) {
+        return (ObjectStat) this.get(this.objectKey(bucketName, objectName));
+    }
+
+    public void putObjectStat(String bucketName, ObjectStat objectStat) {
+        this.put(this.objectKey(bucketName, objectStat.objectName()), objectStat, objectStat.exists());
+    }
+
+    public synchronized void invalidateObject(String bucketName, String objectName) {
+        entries.remove(this.objectKey(bucketName, objectName));
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.expireAt() >= 0) {
+            entries.remove(key);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value();
+    }
+
+    private synchronized void put(String key, Object value, boolean positive) {
+        long ttl = positive ? ttlNanos : negativeTtlNanos;
+        if (ttl <= 0) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry(value, System.nanoTime() + ttl));
+    }
+
+    private String objectKey(String bucketName, String objectName) {
+        return OBJECT_KEY_PREFIX + bucketName + "/" + objectName;
+    }
+
+    private record Entry(Object value, long expireAt) {
+    }
+
+}
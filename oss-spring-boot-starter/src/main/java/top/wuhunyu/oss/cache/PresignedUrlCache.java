@@ -0,0 +1,93 @@
+package top.wuhunyu.oss.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 临时凭证地址缓存
+ * 已签名的地址在剩余有效时间不低于总有效时间的 reuseFraction 时会被复用，
+ * 既减少重复签名的开销，也让同一个文件对象的地址保持稳定以便浏览器缓存
+ **/
+
+public class PresignedUrlCache {
+
+    private final double reuseFraction;
+
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public PresignedUrlCache(int maximumSize, double reuseFraction) {
+        if (reuseFraction < 0 || reuseFraction > 1) {
+            throw new IllegalArgumentException("reuseFraction 必须位于 [0, 1] 区间");
+        }
+        this.reuseFraction = reuseFraction;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * 获取仍可复用的临时凭证地址
+     *
+     * @param method     请求方法
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param expiry     有效时间
+     * @return 临时凭证地址，未命中或剩余有效时间不足时返回 null
+     */
+    public synchronized String get(String method, String bucketName, String objectName, Duration expiry) {
+        String key = this.key(method, bucketName, objectName, expiry);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        long remaining = entry.signedAt() + expiry.toNanos() - System.nanoTime();
+        if (remaining < expiry.toNanos() * reuseFraction) {
+            entries.remove(key);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.url();
+    }
+
+    /**
+     * 缓存一个刚签名的临时凭证地址
+     *
+     * @param method     请求方法
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param expiry     有效时间
+     * @param signedAt   签名时的 {@link System#nanoTime()}
+     * @param url        临时凭证地址
+     */
+    public synchronized void put(String method, String bucketName, String objectName, Duration expiry,
+                                 long signedAt, String url) {
+        entries.put(this.key(method, bucketName, objectName, expiry), new Entry(url, signedAt));
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    private String key(String method, String bucketName, String objectName, Duration expiry) {
+        return method + " " + expiry.toSeconds() + " " + bucketName + "/" + objectName;
+    }
+
+    private record Entry(String url, long signedAt) {
+    }
+
+}
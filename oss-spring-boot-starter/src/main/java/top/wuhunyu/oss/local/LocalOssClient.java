@@ -0,0 +1,1168 @@
+package top.wuhunyu.oss.local;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.file.FileNameUtil;
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.DirectorySyncResult;
+import top.wuhunyu.oss.api.model.ListObjectsQuery;
+import top.wuhunyu.oss.api.model.ObjectStat;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+import top.wuhunyu.oss.enums.ContentTypeEnum;
+import top.wuhunyu.oss.properties.LocalProperties;
+import top.wuhunyu.oss.support.Base64Content;
+import top.wuhunyu.oss.support.SyncCounter;
+import top.wuhunyu.oss.support.SyncManifest;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 基于本地文件系统的 oss 客户端
+ * 每个 bucket 对应根目录下的一个子目录，文件对象按全路径名称存放在 bucket 目录中。
+ * 上传先写入临时文件再原子重命名，读取通过 {@link FileChannel#transferTo} 和内存映射完成，
+ * 适用于开发、测试、基准测试以及单节点的小规模部署
+ **/
+
+@Slf4j
+public class LocalOssClient implements OssClient {
+
+    /**
+     * 临时文件目录，bucket 名称不能以 . 开头，因此不会与 bucket 冲突
+     */
+    private static final String TEMP_DIRECTORY = ".oss-tmp";
+
+    /**
+     * 单次 transferFrom 的字节数
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * 上传会话目录，与 minio 客户端的布局一致
+     */
+    private static final String SESSION_PREFIX = ".upload-sessions/";
+
+    private static final String SESSION_MARKER = "session";
+
+    private static final String CHUNK_PREFIX = "chunk-";
+
+    private final Path rootDirectory;
+
+    private final Duration sessionExpire;
+
+    private final Path tempDirectory;
+
+    public LocalOssClient(LocalProperties localProperties) {
+        Objects.requireNonNull(localProperties.getRootDirectory(), "local：rootDirectory 不能为空");
+
+        this.rootDirectory = Path.of(localProperties.getRootDirectory()).toAbsolutePath().normalize();
+        this.tempDirectory = rootDirectory.resolve(TEMP_DIRECTORY);
+        this.sessionExpire = localProperties.getSessionExpire();
+        try {
+            Files.createDirectories(tempDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建本地存储目录: " + rootDirectory + " 异常", e);
+        }
+        log.debug("本地存储根目录：{}", rootDirectory);
+    }
+
+    @Override
+    public Boolean isBucketExist(String bucketName) {
+        Objects.requireNonNull(bucketName);
+
+        try {
+            return Files.isDirectory(this.bucketPath(bucketName));
+        } catch (IllegalArgumentException e) {
+            log.warn("查询 bucket: {} 是否存在异常", bucketName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Boolean isObjectExist(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        try {
+            return Files.isRegularFile(this.objectPath(bucketName, objectName));
+        } catch (IllegalArgumentException e) {
+            log.warn("查询 object: {} / {} 是否存在异常", bucketName, objectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Boolean isFolderExist(String bucketName, String folderName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(folderName);
+
+        try {
+            return Files.isDirectory(this.objectPath(bucketName, folderName));
+        } catch (IllegalArgumentException e) {
+            log.warn("查询目录: {} / {} 是否存在异常", bucketName, folderName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Boolean createBucket(String bucketName) {
+        Objects.requireNonNull(bucketName);
+
+        try {
+            Files.createDirectories(this.bucketPath(bucketName));
+            return Boolean.TRUE;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("创建 bucket: {} 异常", bucketName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Boolean removeBucket(String bucketName) {
+        Objects.requireNonNull(bucketName);
+
+        // 与 minio 一致，只能移除空的 bucket
+        try {
+            Files.deleteIfExists(this.bucketPath(bucketName));
+            return Boolean.TRUE;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("移除 bucket: {} 异常", bucketName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public OutputStream getObject(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        if (Objects.isNull(this.getObject(bucketName, objectName, byteArrayOutputStream))) {
+            return null;
+        }
+        return byteArrayOutputStream;
+    }
+
+    @Override
+    public OutputStream getObject(String bucketName, String objectName, Long offset, Long length) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(offset);
+        Objects.requireNonNull(length);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        if (Objects.isNull(this.getObject(bucketName, objectName, offset, length, byteArrayOutputStream))) {
+            return null;
+        }
+        return byteArrayOutputStream;
+    }
+
+    @Override
+    public InputStream getObjectInputStream(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        if (!this.isObjectExist(bucketName, objectName)) {
+            return null;
+        }
+        try {
+            return Files.newInputStream(this.objectPath(bucketName, objectName));
+        } catch (IOException e) {
+            log.warn("获取 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public InputStream getObjectInputStream(String bucketName, String objectName, Long offset, Long length) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(offset);
+        Objects.requireNonNull(length);
+
+        if (!this.isObjectExist(bucketName, objectName)) {
+            return null;
+        }
+        // 通过内存映射读取切片
+        try (FileChannel fileChannel = FileChannel.open(this.objectPath(bucketName, objectName),
+                StandardOpenOption.READ)) {
+            long position = Math.min(offset, fileChannel.size());
+            long size = Math.min(length, fileChannel.size() - position);
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("切片长度不能超过 " + Integer.MAX_VALUE);
+            }
+            return new ByteBufferInputStream(fileChannel.map(FileChannel.MapMode.READ_ONLY, position, size));
+        } catch (Exception e) {
+            log.warn("获取切片 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Long getObject(String bucketName, String objectName, OutputStream outputStream) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(outputStream);
+
+        return this.transferTo(bucketName, objectName, 0L, Long.MAX_VALUE, Channels.newChannel(outputStream));
+    }
+
+    @Override
+    public Long getObject(String bucketName, String objectName, Long offset, Long length,
+                          OutputStream outputStream) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(offset);
+        Objects.requireNonNull(length);
+        Objects.requireNonNull(outputStream);
+
+        return this.transferTo(bucketName, objectName, offset, length, Channels.newChannel(outputStream));
+    }
+
+    @Override
+    public Long getObject(String bucketName, String objectName, Path localFile) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(localFile);
+
+        if (!this.isObjectExist(bucketName, objectName)) {
+            return null;
+        }
+        FileUtil.mkParentDirs(localFile.toFile());
+        Long length;
+        try (FileChannel target = FileChannel.open(localFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            length = this.transferTo(bucketName, objectName, 0L, Long.MAX_VALUE, target);
+        } catch (IOException e) {
+            log.warn("写入本地文件: {} 异常", localFile, e);
+            length = null;
+        }
+        if (Objects.isNull(length)) {
+            FileUtil.del(localFile);
+        }
+        return length;
+    }
+
+    @Override
+    public Long download4LocalFile(String bucketName, String objectName, Path localFile) {
+        // 文件到文件的 transferTo 已经是零拷贝，无需再切分分片
+        return this.getObject(bucketName, objectName, localFile);
+    }
+
+    @Override
+    public DirectorySyncResult upload4LocalDirectory(String bucketName, Path localDirectory, String prefix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(localDirectory);
+        Objects.requireNonNull(prefix);
+
+        if (!Files.isDirectory(localDirectory)) {
+            return null;
+        }
+        // 本地拷贝受磁盘限制，逐个文件执行即可
+        String objectPrefix = SyncManifest.objectPrefix(prefix);
+        String manifestObjectName = objectPrefix + SyncManifest.FILE_NAME;
+        SyncManifest current = new SyncManifest();
+        SyncCounter counter = new SyncCounter();
+        try (Stream<Path> paths = Files.walk(localDirectory)) {
+            SyncManifest previous = SyncManifest.read(this.objectPath(bucketName, manifestObjectName));
+            paths.filter(Files::isRegularFile).forEach(file -> {
+                String relativePath = SyncManifest.relativePath(localDirectory, file);
+                if (Objects.isNull(relativePath)) {
+                    counter.failed(file.toString());
+                    return;
+                }
+                if (SyncManifest.isManifest(relativePath)) {
+                    return;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    long lastModified = attributes.lastModifiedTime().toMillis();
+                    String objectName = objectPrefix + relativePath;
+                    SyncManifest.Entry entry = previous.get(relativePath);
+                    if (Objects.nonNull(entry) && entry.matches(attributes.size(), lastModified)
+                            && this.isObjectUnchanged(bucketName, objectName, entry)) {
+                        current.put(relativePath, entry);
+                        counter.skipped();
+                        return;
+                    }
+                    try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+                        this.write(bucketName, objectName, source);
+                    }
+                    ObjectStat objectStat = this.statObject(bucketName, objectName);
+                    current.put(relativePath, new SyncManifest.Entry(attributes.size(), lastModified,
+                            Objects.isNull(objectStat) ? null : objectStat.etag()));
+                    counter.transferred(attributes.size());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("同步上传 object: {} / {} 异常", bucketName, relativePath, e);
+                    counter.failed(relativePath);
+                }
+            });
+
+            ByteArrayOutputStream manifestOutputStream = new ByteArrayOutputStream();
+            current.write(manifestOutputStream);
+            this.write(bucketName, manifestObjectName,
+                    Channels.newChannel(new ByteArrayInputStream(manifestOutputStream.toByteArray())));
+        } catch (IOException | RuntimeException e) {
+            log.warn("同步本地目录: {} 到 {} / {} 异常", localDirectory, bucketName, objectPrefix, e);
+            return null;
+        }
+        return counter.toResult();
+    }
+
+    /**
+     * 文件对象仍存在且 etag 与清单一致，即上次同步后未被删除或覆盖
+     */
+    private boolean isObjectUnchanged(String bucketName, String objectName, SyncManifest.Entry entry) {
+        ObjectStat objectStat = this.statObject(bucketName, objectName);
+        return Objects.nonNull(objectStat) && objectStat.exists() && Objects.nonNull(objectStat.etag())
+                && entry.matches(objectStat.etag());
+    }
+
+    @Override
+    public DirectorySyncResult download4LocalDirectory(String bucketName, String prefix, Path localDirectory) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(localDirectory);
+
+        String objectPrefix = SyncManifest.objectPrefix(prefix);
+        Path rootDirectory = localDirectory.toAbsolutePath().normalize();
+        Path manifestFile = rootDirectory.resolve(SyncManifest.FILE_NAME);
+        SyncManifest current = new SyncManifest();
+        SyncCounter counter = new SyncCounter();
+        try {
+            Path prefixPath = objectPrefix.isEmpty()
+                    ? this.bucketPath(bucketName)
+                    : this.objectPath(bucketName, objectPrefix);
+            Files.createDirectories(rootDirectory);
+            SyncManifest previous = SyncManifest.read(manifestFile);
+            if (Files.isDirectory(prefixPath)) {
+                try (Stream<Path> paths = Files.walk(prefixPath)) {
+                    paths.filter(Files::isRegularFile).forEach(path -> {
+                        String relativePath = SyncManifest.relativePath(prefixPath, path);
+                        if (Objects.isNull(relativePath) || SyncManifest.isManifest(relativePath)) {
+                            return;
+                        }
+                        String objectName = objectPrefix + relativePath;
+                        Path localFile = rootDirectory.resolve(relativePath);
+                        try {
+                            ObjectStat objectStat = this.statObject(bucketName, objectName);
+                            if (Objects.isNull(objectStat) || !objectStat.exists()) {
+                                counter.failed(relativePath);
+                                return;
+                            }
+                            SyncManifest.Entry entry = previous.get(relativePath);
+                            if (Objects.nonNull(entry) && entry.matches(objectStat.etag())
+                                    && Files.isRegularFile(localFile)) {
+                                BasicFileAttributes attributes = Files.readAttributes(localFile,
+                                        BasicFileAttributes.class);
+                                if (entry.matches(attributes.size(), attributes.lastModifiedTime().toMillis())) {
+                                    current.put(relativePath, entry);
+                                    counter.skipped();
+                                    return;
+                                }
+                            }
+                            Long length = this.getObject(bucketName, objectName, localFile);
+                            if (Objects.isNull(length)) {
+                                counter.failed(relativePath);
+                                return;
+                            }
+                            BasicFileAttributes attributes = Files.readAttributes(localFile,
+                                    BasicFileAttributes.class);
+                            current.put(relativePath, new SyncManifest.Entry(attributes.size(),
+                                    attributes.lastModifiedTime().toMillis(), objectStat.etag()));
+                            counter.transferred(length);
+                        } catch (IOException | RuntimeException e) {
+                            log.warn("同步下载 object: {} / {} 异常", bucketName, objectName, e);
+                            counter.failed(relativePath);
+                        }
+                    });
+                }
+            }
+            current.write(manifestFile);
+        } catch (IOException | RuntimeException e) {
+            log.warn("同步 {} / {} 到本地目录: {} 异常", bucketName, objectPrefix, localDirectory, e);
+            return null;
+        }
+        return counter.toResult();
+    }
+
+    /**
+     * 以零拷贝的方式将文件对象的某个区间写入目标通道
+     *
+     * @return 写入的字节数，文件对象不存在或写入失败时返回 null
+     */
+    private Long transferTo(String bucketName, String objectName, long offset, long length,
+                            WritableByteChannel target) {
+        if (!this.isObjectExist(bucketName, objectName)) {
+            return null;
+        }
+        try (FileChannel source = FileChannel.open(this.objectPath(bucketName, objectName),
+                StandardOpenOption.READ)) {
+            long position = Math.min(offset, source.size());
+            long end = position + Math.min(length, source.size() - position);
+            while (position < end) {
+                position += source.transferTo(position, end - position, target);
+            }
+            return end - Math.min(offset, source.size());
+        } catch (IOException e) {
+            log.warn("获取 object 字节流: {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean removeObject(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        // 文件对象不存在
+        if (!this.isObjectExist(bucketName, objectName)) {
+            return null;
+        }
+        try {
+            this.deleteObject(bucketName, objectName);
+            return Boolean.TRUE;
+        } catch (IOException e) {
+            log.warn("移除 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Map<String, Boolean> removeObjects(String bucketName, Collection<String> objectNames) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectNames);
+
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        for (String objectName : objectNames) {
+            try {
+                this.deleteObject(bucketName, objectName);
+                results.put(objectName, Boolean.TRUE);
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("批量移除 object: {} / {} 异常", bucketName, objectName, e);
+                results.put(objectName, Boolean.FALSE);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 删除文件对象，并清理因此变空的上级目录
+     */
+    private void deleteObject(String bucketName, String objectName) throws IOException {
+        Path bucketPath = this.bucketPath(bucketName);
+        Path path = this.objectPath(bucketName, objectName);
+        Files.deleteIfExists(path);
+        for (Path parent = path.getParent(); !bucketPath.equals(parent); parent = parent.getParent()) {
+            try {
+                Files.deleteIfExists(parent);
+            } catch (DirectoryNotEmptyException e) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, ObjectStat> statObjects(String bucketName, Collection<String> objectNames) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectNames);
+
+        Map<String, ObjectStat> results = new LinkedHashMap<>();
+        for (String objectName : objectNames) {
+            results.put(objectName, this.statObject(bucketName, objectName));
+        }
+        return results;
+    }
+
+    /**
+     * 查询一个文件对象的元数据
+     * etag 由文件大小和最后修改时间生成，文件内容变化时随之变化
+     *
+     * @return 文件对象元数据，查询失败时返回 null
+     */
+    private ObjectStat statObject(String bucketName, String objectName) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(this.objectPath(bucketName, objectName),
+                    BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return ObjectStat.notExist(objectName);
+            }
+            return new ObjectStat(objectName, true,
+                    attributes.size(),
+                    this.etag(attributes),
+                    attributes.lastModifiedTime().toInstant().atZone(ZoneOffset.UTC),
+                    Optional.ofNullable(FileUtil.getMimeType(objectName))
+                            .orElse(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType()),
+                    Map.of());
+        } catch (NoSuchFileException e) {
+            return ObjectStat.notExist(objectName);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("查询 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    /**
+     * 由文件大小和最后修改时间生成 etag
+     */
+    private String etag(BasicFileAttributes attributes) {
+        return Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    }
+
+    @Override
+    public Stream<ObjectSummary> listObjects(String bucketName, String prefix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(prefix);
+
+        return this.listObjects(bucketName, ListObjectsQuery.of(prefix));
+    }
+
+    @Override
+    public Stream<ObjectSummary> listObjects(String bucketName, ListObjectsQuery query) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(query);
+
+        // 从前缀中最深的一级目录开始遍历
+        String prefix = query.prefix();
+        String directoryName = prefix.substring(0, prefix.lastIndexOf('/') + 1);
+        Path startDirectory;
+        try {
+            startDirectory = directoryName.isEmpty()
+                    ? this.bucketPath(bucketName)
+                    : this.objectPath(bucketName, directoryName);
+        } catch (IllegalArgumentException e) {
+            log.warn("列举 object: {} / {} 异常", bucketName, prefix, e);
+            return Stream.empty();
+        }
+        if (!Files.isDirectory(startDirectory)) {
+            return Stream.empty();
+        }
+
+        String delimiter = query.delimiter();
+        String[] lastPrefix = new String[1];
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ObjectPathIterator(startDirectory),
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .map(path -> Map.entry(directoryName + startDirectory.relativize(path).toString()
+                        .replace(File.separatorChar, '/'), path))
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .filter(entry -> Objects.isNull(query.startAfter()) || entry.getKey().compareTo(query.startAfter()) > 0)
+                .map(entry -> {
+                    int index = Objects.isNull(delimiter) || delimiter.isEmpty()
+                            ? -1
+                            : entry.getKey().indexOf(delimiter, prefix.length());
+                    return index < 0
+                            ? this.summary(entry.getKey(), entry.getValue())
+                            : ObjectSummary.ofPrefix(entry.getKey().substring(0, index + delimiter.length()));
+                })
+                // 名称有序，同一个公共前缀下的文件对象一定相邻
+                .filter(summary -> {
+                    if (!summary.prefix()) {
+                        return true;
+                    }
+                    if (summary.objectName().equals(lastPrefix[0])) {
+                        return false;
+                    }
+                    lastPrefix[0] = summary.objectName();
+                    return true;
+                });
+    }
+
+    private ObjectSummary summary(String objectName, Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new ObjectSummary(objectName, false,
+                    attributes.size(),
+                    this.etag(attributes),
+                    attributes.lastModifiedTime().toInstant().atZone(ZoneOffset.UTC),
+                    Map.of());
+        } catch (IOException e) {
+            throw new IllegalStateException("列举 object: " + objectName + " 异常", e);
+        }
+    }
+
+    @Override
+    public String upload4Base64(String bucketName, String base64, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(base64);
+
+        return this.upload4Base64(bucketName, new StringReader(base64), suffix);
+    }
+
+    @Override
+    public String upload4Base64(String bucketName, Reader base64Reader, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(base64Reader);
+
+        try {
+            Base64Content base64Content = Base64Content.decode(base64Reader);
+            String objectName = IdUtil.fastSimpleUUID() + "."
+                    + Optional.ofNullable(suffix).orElse(base64Content.getSuffix());
+            return this.write(bucketName, objectName, Channels.newChannel(base64Content.getInputStream()));
+        } catch (Exception e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public String upload4LocalFile(String bucketName, String localFile) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(localFile);
+
+        // 文件存在，且为文件类型
+        File file = new File(localFile);
+        if (!file.exists() || !file.isFile()) {
+            return null;
+        }
+
+        String objectName = IdUtil.fastSimpleUUID() + "." + FileNameUtil.getSuffix(file.getName());
+        try (FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return this.write(bucketName, objectName, source);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return "";
+    }
+
+    @Override
+    public String upload4InputStream(String bucketName, InputStream inputStream, String fileName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(inputStream);
+        Objects.requireNonNull(fileName);
+
+        String objectName = IdUtil.fastSimpleUUID() + "." + fileName;
+        try {
+            return this.write(bucketName, objectName, Channels.newChannel(inputStream));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return "";
+    }
+
+    @Override
+    public String upload4Bytes(String bucketName, byte[] bytes, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(bytes);
+        Objects.requireNonNull(suffix);
+
+        String objectName = IdUtil.fastSimpleUUID() + "." + suffix;
+        try {
+            return this.write(bucketName, objectName, Channels.newChannel(new ByteArrayInputStream(bytes)));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean putObject(String bucketName, String objectName, byte[] bytes) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(bytes);
+
+        try {
+            this.write(bucketName, objectName, Channels.newChannel(new ByteArrayInputStream(bytes)));
+            return Boolean.TRUE;
+        } catch (IOException | RuntimeException e) {
+            log.warn("上传 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * 将数据写入临时文件，完成后原子重命名为目标文件对象
+     *
+     * @return 文件对象全路径名称
+     */
+    private String write(String bucketName, String objectName, ReadableByteChannel source) throws IOException {
+        Path tempFile = tempDirectory.resolve(IdUtil.fastSimpleUUID());
+        try {
+            try (FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                    position += transferred;
+                }
+            }
+            this.commit(bucketName, objectName, tempFile);
+            return objectName;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 将临时文件原子重命名为目标文件对象
+     */
+    private void commit(String bucketName, String objectName, Path tempFile) throws IOException {
+        if (!this.isBucketExist(bucketName)) {
+            throw new NoSuchFileException(bucketName, null, "bucket 不存在");
+        }
+        Path path = this.objectPath(bucketName, objectName);
+        Files.createDirectories(path.getParent());
+        Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public String composeObjects(String bucketName, List<String> sourceObjectNames, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sourceObjectNames);
+        Objects.requireNonNull(suffix);
+
+        boolean noCompleteExists = sourceObjectNames.isEmpty() || sourceObjectNames.stream()
+                .anyMatch(sourceObjectName -> !this.isObjectExist(bucketName, sourceObjectName));
+        if (noCompleteExists) {
+            log.info("存在文件未上传成功");
+            return null;
+        }
+
+        String objectName = IdUtil.fastSimpleUUID() + "." + suffix;
+        Path tempFile = tempDirectory.resolve(IdUtil.fastSimpleUUID());
+        try {
+            // 文件到文件的 transferTo 由内核完成拷贝
+            try (FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                for (String sourceObjectName : sourceObjectNames) {
+                    try (FileChannel source = FileChannel.open(this.objectPath(bucketName, sourceObjectName),
+                            StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = source.size();
+                        while (position < size) {
+                            position += source.transferTo(position, size - position, target);
+                        }
+                    }
+                }
+            }
+            this.commit(bucketName, objectName, tempFile);
+            return objectName;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("合并 object: {} / {} 异常", bucketName, sourceObjectNames, e);
+        } finally {
+            FileUtil.del(tempFile);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean copyObject(String sourceBucketName, String sourceObjectName,
+                              String targetBucketName, String targetObjectName) {
+        Objects.requireNonNull(sourceBucketName);
+        Objects.requireNonNull(sourceObjectName);
+        Objects.requireNonNull(targetBucketName);
+        Objects.requireNonNull(targetObjectName);
+
+        // 文件对象不存在
+        if (!this.isObjectExist(sourceBucketName, sourceObjectName)) {
+            return null;
+        }
+        Path tempFile = tempDirectory.resolve(IdUtil.fastSimpleUUID());
+        try {
+            Path source = this.objectPath(sourceBucketName, sourceObjectName);
+            if (source.equals(this.objectPath(targetBucketName, targetObjectName))) {
+                return Boolean.TRUE;
+            }
+            Files.copy(source, tempFile);
+            this.commit(targetBucketName, targetObjectName, tempFile);
+            return Boolean.TRUE;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("复制 object: {} / {} 到 {} / {} 异常",
+                    sourceBucketName, sourceObjectName, targetBucketName, targetObjectName, e);
+        } finally {
+            FileUtil.del(tempFile);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Boolean moveObject(String sourceBucketName, String sourceObjectName,
+                              String targetBucketName, String targetObjectName) {
+        Objects.requireNonNull(sourceBucketName);
+        Objects.requireNonNull(sourceObjectName);
+        Objects.requireNonNull(targetBucketName);
+        Objects.requireNonNull(targetObjectName);
+
+        // 文件对象不存在
+        if (!this.isObjectExist(sourceBucketName, sourceObjectName)) {
+            return null;
+        }
+        try {
+            Path source = this.objectPath(sourceBucketName, sourceObjectName);
+            Path target = this.objectPath(targetBucketName, targetObjectName);
+            if (source.equals(target)) {
+                return Boolean.TRUE;
+            }
+            if (!this.isBucketExist(targetBucketName)) {
+                throw new NoSuchFileException(targetBucketName, null, "bucket 不存在");
+            }
+            // 同一文件系统内为重命名，不复制数据
+            Files.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            // 清理因此变空的上级目录
+            this.deleteObject(sourceBucketName, sourceObjectName);
+            return Boolean.TRUE;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("移动 object: {} / {} 到 {} / {} 异常",
+                    sourceBucketName, sourceObjectName, targetBucketName, targetObjectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Map<String, Boolean> copyObjects(String sourceBucketName, String sourcePrefix,
+                                            String targetBucketName, String targetPrefix) {
+        return this.copyObjects(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, false);
+    }
+
+    @Override
+    public Map<String, Boolean> moveObjects(String sourceBucketName, String sourcePrefix,
+                                            String targetBucketName, String targetPrefix) {
+        return this.copyObjects(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, true);
+    }
+
+    private Map<String, Boolean> copyObjects(String sourceBucketName, String sourcePrefix,
+                                             String targetBucketName, String targetPrefix, boolean move) {
+        Objects.requireNonNull(sourceBucketName);
+        Objects.requireNonNull(sourcePrefix);
+        Objects.requireNonNull(targetBucketName);
+        Objects.requireNonNull(targetPrefix);
+        if (sourceBucketName.equals(targetBucketName) && targetPrefix.startsWith(sourcePrefix)) {
+            log.warn("同一个 bucket 内目标前缀：{} 不能位于源前缀：{} 下", targetPrefix, sourcePrefix);
+            return new LinkedHashMap<>();
+        }
+
+        // 移动会删除遍历中的目录，先列举完再处理
+        List<String> sourceObjectNames;
+        try (Stream<ObjectSummary> objects = this.listObjects(sourceBucketName, sourcePrefix)) {
+            sourceObjectNames = objects.map(ObjectSummary::objectName).toList();
+        } catch (RuntimeException e) {
+            log.warn("列举 object: {} / {} 异常", sourceBucketName, sourcePrefix, e);
+            return new LinkedHashMap<>();
+        }
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        for (String sourceObjectName : sourceObjectNames) {
+            String targetObjectName = targetPrefix + sourceObjectName.substring(sourcePrefix.length());
+            Boolean result = move
+                    ? this.moveObject(sourceBucketName, sourceObjectName, targetBucketName, targetObjectName)
+                    : this.copyObject(sourceBucketName, sourceObjectName, targetBucketName, targetObjectName);
+            results.put(sourceObjectName, Boolean.TRUE.equals(result));
+        }
+        return results;
+    }
+
+    @Override
+    public String beginUploadSession(String bucketName, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(suffix);
+
+        // 没有后台线程，开始新的会话时顺带清理已放弃的会话
+        this.purgeExpiredUploadSessions(bucketName);
+
+        String sessionId = IdUtil.fastSimpleUUID();
+        try {
+            this.write(bucketName, this.sessionObjectName(sessionId, SESSION_MARKER),
+                    Channels.newChannel(new ByteArrayInputStream(suffix.getBytes(StandardCharsets.UTF_8))));
+            return sessionId;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("开始上传会话: {} 异常", bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean uploadChunk4InputStream(String bucketName, String sessionId, Integer chunkNumber,
+                                           InputStream inputStream) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+        Objects.requireNonNull(chunkNumber);
+        Objects.requireNonNull(inputStream);
+
+        try {
+            if (chunkNumber < 1
+                    || !this.isObjectExist(bucketName, this.sessionObjectName(sessionId, SESSION_MARKER))) {
+                return Boolean.FALSE;
+            }
+            this.write(bucketName, this.sessionObjectName(sessionId, String.format("%s%08d", CHUNK_PREFIX, chunkNumber)),
+                    Channels.newChannel(inputStream));
+            return Boolean.TRUE;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("上传分片: {} / {} / {} 异常", bucketName, sessionId, chunkNumber, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public List<Integer> getUploadedChunks(String bucketName, String sessionId) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+
+        List<Integer> chunkNumbers = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(
+                this.objectPath(bucketName, this.sessionObjectName(sessionId, SESSION_MARKER)).getParent(),
+                CHUNK_PREFIX + "*")) {
+            for (Path path : paths) {
+                chunkNumbers.add(Integer.parseInt(path.getFileName().toString().substring(CHUNK_PREFIX.length())));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("查询已上传分片: {} / {} 异常", bucketName, sessionId, e);
+            return null;
+        }
+        Collections.sort(chunkNumbers);
+        return chunkNumbers;
+    }
+
+    @Override
+    public String completeUploadSession(String bucketName, String sessionId, Integer chunkCount) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+        Objects.requireNonNull(chunkCount);
+
+        List<Integer> chunkNumbers = this.getUploadedChunks(bucketName, sessionId);
+        if (Objects.isNull(chunkNumbers) || chunkNumbers.size() != chunkCount
+                || (chunkCount > 0 && chunkNumbers.get(chunkCount - 1) != chunkCount.intValue())) {
+            log.info("上传会话: {} / {} 分片不完整", bucketName, sessionId);
+            return null;
+        }
+
+        // 本地合并没有分片数上限，一次完成
+        String suffix;
+        try {
+            suffix = Files.readString(this.objectPath(bucketName, this.sessionObjectName(sessionId, SESSION_MARKER)));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("完成上传会话: {} / {} 异常", bucketName, sessionId, e);
+            return null;
+        }
+        String objectName = this.composeObjects(bucketName, chunkNumbers.stream()
+                .map(chunkNumber -> this.sessionObjectName(sessionId, String.format("%s%08d", CHUNK_PREFIX, chunkNumber)))
+                .toList(), suffix);
+        if (Objects.nonNull(objectName)) {
+            this.abortUploadSession(bucketName, sessionId);
+        }
+        return objectName;
+    }
+
+    @Override
+    public Boolean abortUploadSession(String bucketName, String sessionId) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+
+        try {
+            return FileUtil.del(this.objectPath(bucketName, this.sessionObjectName(sessionId, SESSION_MARKER))
+                    .getParent());
+        } catch (IllegalArgumentException e) {
+            log.warn("放弃上传会话: {} / {} 异常", bucketName, sessionId, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Integer purgeExpiredUploadSessions(String bucketName) {
+        Objects.requireNonNull(bucketName);
+
+        if (!this.isFolderExist(bucketName, SESSION_PREFIX)) {
+            return 0;
+        }
+        Path sessionsPath = this.objectPath(bucketName, SESSION_PREFIX);
+        Instant expireBefore = Instant.now().minus(sessionExpire);
+        int purged = 0;
+        try (DirectoryStream<Path> sessionPaths = Files.newDirectoryStream(sessionsPath)) {
+            for (Path sessionPath : sessionPaths) {
+                // 以会话中最近一次写入的时间判断是否过期
+                Instant lastModified;
+                try (Stream<Path> paths = Files.list(sessionPath)) {
+                    lastModified = paths.map(path -> FileUtil.lastModifiedTime(path.toFile()).toInstant())
+                            .max(Comparator.naturalOrder())
+                            .orElse(Instant.MIN);
+                }
+                if (lastModified.isBefore(expireBefore) && FileUtil.del(sessionPath)) {
+                    purged++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理上传会话: {} 异常", bucketName, e);
+            return null;
+        }
+        return purged;
+    }
+
+    private String sessionObjectName(String sessionId, String name) {
+        if (!sessionId.matches("[0-9a-zA-Z]{1,64}")) {
+            throw new IllegalArgumentException("非法的上传会话 id：" + sessionId);
+        }
+        return SESSION_PREFIX + sessionId + "/" + name;
+    }
+
+    @Override
+    public String getPresignedObjectUrl4Get(String bucketName, String objectName, Integer expireMinute) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(expireMinute);
+
+        // 本地文件没有访问凭证，直接返回文件地址
+        try {
+            return this.objectPath(bucketName, objectName).toUri().toString();
+        } catch (IllegalArgumentException e) {
+            log.warn("获取临时访问凭证 {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Map<String, String> getPresignedObjectUrls4Get(String bucketName, List<String> objectNames,
+                                                          Integer expireMinute) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectNames);
+        Objects.requireNonNull(expireMinute);
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        objectNames.forEach(objectName ->
+                urls.put(objectName, this.getPresignedObjectUrl4Get(bucketName, objectName, expireMinute)));
+        return urls;
+    }
+
+    @Override
+    public String getPresignedObjectUrl4Put(String bucketName, String objectName, Integer expireMinute) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(expireMinute);
+
+        try {
+            return this.objectPath(bucketName, objectName).toUri().toString();
+        } catch (IllegalArgumentException e) {
+            log.warn("获取临时上传凭证 {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    /**
+     * 解析 bucket 对应的本地目录，名称非法时抛出 {@link IllegalArgumentException}，由对外的方法捕获
+     */
+    private Path bucketPath(String bucketName) {
+        if (bucketName.isEmpty() || bucketName.startsWith(".") || bucketName.contains("/")
+                || bucketName.contains("\\")) {
+            throw new IllegalArgumentException("非法的 bucket 名称：" + bucketName);
+        }
+        return rootDirectory.resolve(bucketName);
+    }
+
+    /**
+     * 解析文件对象对应的本地路径，不允许通过 .. 等方式跳出 bucket 目录
+     */
+    private Path objectPath(String bucketName, String objectName) {
+        Path bucketPath = this.bucketPath(bucketName);
+        Path path = bucketPath.resolve(objectName).normalize();
+        if (!path.startsWith(bucketPath) || path.equals(bucketPath)) {
+            throw new IllegalArgumentException("非法的文件对象名称：" + objectName);
+        }
+        return path;
+    }
+
+    /**
+     * 按 minio 的名称顺序深度优先遍历目录下的文件
+     * 目录按 名称 + / 参与排序，使遍历顺序与文件对象全路径名称的字典序一致；每次只读取一个目录的子项
+     */
+    private static class ObjectPathIterator implements Iterator<Path> {
+
+        private final Deque<Iterator<Path>> stack = new ArrayDeque<>();
+
+        private Path next;
+
+        private ObjectPathIterator(Path directory) {
+            stack.push(this.children(directory));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (Objects.isNull(next) && !stack.isEmpty()) {
+                Iterator<Path> children = stack.peek();
+                if (!children.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                Path child = children.next();
+                if (Files.isDirectory(child)) {
+                    stack.push(this.children(child));
+                } else if (Files.isRegularFile(child)) {
+                    next = child;
+                }
+            }
+            return Objects.nonNull(next);
+        }
+
+        @Override
+        public Path next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Path path = next;
+            next = null;
+            return path;
+        }
+
+        private Iterator<Path> children(Path directory) {
+            try (Stream<Path> paths = Files.list(directory)) {
+                return paths.map(path -> Map.entry(Files.isDirectory(path)
+                                ? path.getFileName() + "/"
+                                : path.getFileName().toString(), path))
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(Map.Entry::getValue)
+                        .toList()
+                        .iterator();
+            } catch (IOException e) {
+                throw new IllegalStateException("列举目录: " + directory + " 异常", e);
+            }
+        }
+
+    }
+
+    /**
+     * 基于内存映射缓冲区的输入流
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer byteBuffer;
+
+        private ByteBufferInputStream(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public int read() {
+            return byteBuffer.hasRemaining() ? byteBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!byteBuffer.hasRemaining()) {
+                return -1;
+            }
+            int size = Math.min(length, byteBuffer.remaining());
+            byteBuffer.get(bytes, offset, size);
+            return size;
+        }
+
+        @Override
+        public int available() {
+            return byteBuffer.remaining();
+        }
+
+    }
+
+}
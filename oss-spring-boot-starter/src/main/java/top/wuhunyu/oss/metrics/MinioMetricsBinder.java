@@ -0,0 +1,119 @@
+package top.wuhunyu.oss.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.minio.MyMinioClient;
+import top.wuhunyu.oss.minio.TrafficShaper;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * minio 客户端状态指标
+ * 包括连接池、请求调度队列、异步写入队列以及各级缓存的命中情况
+ **/
+
+public class MinioMetricsBinder implements MeterBinder {
+
+    private static final String METRIC_PREFIX = MinioMetricsInterceptor.METRIC_PREFIX;
+
+    private final ObjectProvider<OssClient> ossClient;
+
+    public MinioMetricsBinder(ObjectProvider<OssClient> ossClient) {
+        this.ossClient = ossClient;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 只有 minio 客户端才有连接池和缓存
+        if (!(ossClient.getIfAvailable() instanceof MyMinioClient myMinioClient)) {
+            return;
+        }
+
+        ConnectionPool connectionPool = myMinioClient.getHttpClient().connectionPool();
+        Gauge.builder(METRIC_PREFIX + ".connections", connectionPool, ConnectionPool::connectionCount)
+                .description("连接池中的连接数")
+                .tag("state", "total")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".connections", connectionPool, ConnectionPool::idleConnectionCount)
+                .description("连接池中的连接数")
+                .tag("state", "idle")
+                .register(registry);
+
+        Dispatcher dispatcher = myMinioClient.getHttpClient().dispatcher();
+        Gauge.builder(METRIC_PREFIX + ".dispatcher.calls", dispatcher, Dispatcher::runningCallsCount)
+                .description("异步请求数")
+                .tag("state", "running")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".dispatcher.calls", dispatcher, Dispatcher::queuedCallsCount)
+                .description("异步请求数")
+                .tag("state", "queued")
+                .register(registry);
+
+        TrafficShaper trafficShaper = myMinioClient.getTrafficShaper();
+        if (Objects.nonNull(trafficShaper)) {
+            this.bindBulkhead(registry, "global", trafficShaper,
+                    TrafficShaper::globalActiveCount, TrafficShaper::globalQueueLength);
+            trafficShaper.bulkheadBuckets().forEach(bucketName -> this.bindBulkhead(registry, bucketName,
+                    trafficShaper, shaper -> shaper.activeCount(bucketName), shaper -> shaper.queueLength(bucketName)));
+        }
+
+        if (Objects.nonNull(myMinioClient.getWriteBehindPendingCount())) {
+            Gauge.builder(METRIC_PREFIX + ".write_behind.pending", myMinioClient,
+                            client -> client.getWriteBehindPendingCount())
+                    .description("异步写入队列中等待上传的个数")
+                    .register(registry);
+        }
+
+        if (Objects.nonNull(myMinioClient.getMetadataCache())) {
+            this.bindCache(registry, "metadata", myMinioClient.getMetadataCache(),
+                    cache -> cache.hitCount(), cache -> cache.missCount());
+        }
+        if (Objects.nonNull(myMinioClient.getDiskObjectCache())) {
+            this.bindCache(registry, "disk", myMinioClient.getDiskObjectCache(),
+                    cache -> cache.hitCount(), cache -> cache.missCount());
+            Gauge.builder(METRIC_PREFIX + ".cache.size", myMinioClient.getDiskObjectCache(),
+                            cache -> cache.totalBytes())
+                    .description("本地磁盘缓存占用的字节数")
+                    .baseUnit("bytes")
+                    .tag("cache", "disk")
+                    .register(registry);
+        }
+        if (Objects.nonNull(myMinioClient.getPresignedUrlCache())) {
+            this.bindCache(registry, "presign", myMinioClient.getPresignedUrlCache(),
+                    cache -> cache.hitCount(), cache -> cache.missCount());
+        }
+    }
+
+    private void bindBulkhead(MeterRegistry registry, String scope, TrafficShaper trafficShaper,
+                              ToDoubleFunction<TrafficShaper> activeCount,
+                              ToDoubleFunction<TrafficShaper> queueLength) {
+        Gauge.builder(METRIC_PREFIX + ".bulkhead.calls", trafficShaper, activeCount)
+                .description("并发隔离舱中的请求数")
+                .tags("scope", scope, "state", "active")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".bulkhead.calls", trafficShaper, queueLength)
+                .description("并发隔离舱中的请求数")
+                .tags("scope", scope, "state", "queued")
+                .register(registry);
+    }
+
+    private <T> void bindCache(MeterRegistry registry, String name, T cache,
+                               ToDoubleFunction<T> hitCount, ToDoubleFunction<T> missCount) {
+        FunctionCounter.builder(METRIC_PREFIX + ".cache.requests", cache, hitCount)
+                .description("缓存查询次数")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".cache.requests", cache, missCount)
+                .description("缓存查询次数")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+    }
+
+}
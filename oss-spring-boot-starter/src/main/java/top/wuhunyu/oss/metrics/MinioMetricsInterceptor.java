@@ -0,0 +1,172 @@
+package top.wuhunyu.oss.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * minio 请求指标拦截器
+ * 每个 http 请求按 S3 操作和 bucket 记录耗时分布、收发字节数、异常次数以及正在执行的请求数，
+ * 所有 {@link top.wuhunyu.oss.api.OssClient} 操作最终都会落到这些请求上
+ **/
+
+public class MinioMetricsInterceptor implements Interceptor {
+
+    static final String METRIC_PREFIX = "oss.client";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> activeRequests = new ConcurrentHashMap<>();
+
+    public MinioMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String operation = operation(request);
+        String bucket = bucket(request.url());
+        Tags tags = Tags.of("operation", operation, "bucket", bucket, "host", request.url().host());
+
+        AtomicInteger active = activeRequests.computeIfAbsent(operation, key -> meterRegistry.gauge(
+                METRIC_PREFIX + ".requests.active", Tags.of("operation", key), new AtomicInteger()));
+        active.incrementAndGet();
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        try {
+            Response response = chain.proceed(request);
+            status = String.valueOf(response.code());
+
+            this.recordBytes(tags, "out", this.contentLength(request.body()));
+            this.recordBytes(tags, "in", this.contentLength(response.body()));
+            if (!response.isSuccessful()) {
+                this.recordError(tags, "HttpStatus" + response.code());
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            this.recordError(tags, e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            active.decrementAndGet();
+            Timer.builder(METRIC_PREFIX + ".requests")
+                    .description("minio 请求耗时")
+                    .tags(tags)
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordBytes(Tags tags, String direction, long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        Counter.builder(METRIC_PREFIX + ".bytes")
+                .description("minio 请求收发字节数")
+                .baseUnit("bytes")
+                .tags(tags)
+                .tag("direction", direction)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    private void recordError(Tags tags, String exception) {
+        Counter.builder(METRIC_PREFIX + ".errors")
+                .description("minio 请求异常次数")
+                .tags(tags)
+                .tag("exception", exception)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private long contentLength(RequestBody requestBody) throws IOException {
+        return requestBody == null ? -1 : requestBody.contentLength();
+    }
+
+    private long contentLength(ResponseBody responseBody) {
+        return responseBody == null ? -1 : responseBody.contentLength();
+    }
+
+    /**
+     * path-style 地址的第一段路径为 bucket
+     */
+    static String bucket(HttpUrl url) {
+        List<String> pathSegments = url.pathSegments();
+        if (pathSegments.isEmpty() || pathSegments.get(0).isEmpty()) {
+            return NONE;
+        }
+        return pathSegments.get(0);
+    }
+
+    /**
+     * 根据请求方法、路径和查询参数推断 S3 操作名称
+     */
+    static String operation(Request request) {
+        HttpUrl url = request.url();
+        List<String> pathSegments = url.pathSegments();
+        if (pathSegments.isEmpty() || pathSegments.get(0).isEmpty()) {
+            return "ListBuckets";
+        }
+        boolean hasObject = pathSegments.size() > 1 && !pathSegments.get(1).isEmpty();
+        Set<String> queries = url.queryParameterNames();
+        switch (request.method()) {
+            case "HEAD":
+                return hasObject ? "HeadObject" : "HeadBucket";
+            case "GET":
+                if (hasObject) {
+                    return "GetObject";
+                }
+                if (queries.contains("location")) {
+                    return "GetBucketLocation";
+                }
+                return "ListObjects";
+            case "PUT":
+                if (!hasObject) {
+                    return "CreateBucket";
+                }
+                boolean copy = request.header("x-amz-copy-source") != null;
+                if (queries.contains("uploadId")) {
+                    return copy ? "UploadPartCopy" : "UploadPart";
+                }
+                return copy ? "CopyObject" : "PutObject";
+            case "POST":
+                if (queries.contains("delete")) {
+                    return "DeleteObjects";
+                }
+                if (queries.contains("uploads")) {
+                    return "CreateMultipartUpload";
+                }
+                if (queries.contains("uploadId")) {
+                    return "CompleteMultipartUpload";
+                }
+                return "Post";
+            case "DELETE":
+                if (queries.contains("uploadId")) {
+                    return "AbortMultipartUpload";
+                }
+                return hasObject ? "DeleteObject" : "DeleteBucket";
+            default:
+                return request.method();
+        }
+    }
+
+}
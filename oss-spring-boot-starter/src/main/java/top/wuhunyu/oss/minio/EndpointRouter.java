@@ -0,0 +1,243 @@
+package top.wuhunyu.oss.minio;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多接入点路由拦截器
+ * 请求始终按主接入点签名，发送前只改写地址中的主机和端口并保留签名时的 Host 请求头，因此要求各接入点属于同一个集群。
+ * <ul>
+ *     <li>普通请求路由到 (在途请求数 + 1) * 平均耗时 最小的健康节点</li>
+ *     <li>分片上传的请求按文件对象做一致性哈希，同一个上传会话固定落在同一个节点上</li>
+ *     <li>连接失败时将节点标记为不健康并切换到下一个节点，读请求在其它 io 异常时也会切换</li>
+ *     <li>后台定时探测各节点的存活接口，恢复后重新参与路由</li>
+ * </ul>
+ **/
+
+@Slf4j
+class EndpointRouter implements Interceptor, AutoCloseable {
+
+    private static final String HEALTH_PATH = "/minio/health/live";
+
+    /**
+     * 平均耗时的指数加权系数
+     */
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final HttpUrl primary;
+
+    private final List<Node> nodes;
+
+    private final OkHttpClient probeClient;
+
+    private final ScheduledExecutorService probeExecutor;
+
+    EndpointRouter(String primaryEndpoint, List<String> endpoints, MinioProperties.Routing routing) {
+        this.primary = HttpUrl.get(primaryEndpoint);
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node(primary));
+        endpoints.stream()
+                .map(HttpUrl::get)
+                .filter(url -> nodes.stream().noneMatch(node -> node.sameHost(url)))
+                .forEach(url -> nodes.add(new Node(url)));
+        this.nodes = List.copyOf(nodes);
+
+        // 探测请求不能经过本拦截器
+        this.probeClient = new OkHttpClient.Builder()
+                .callTimeout(routing.getProbeTimeout())
+                .build();
+        this.probeExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("oss-endpoint-probe").factory());
+        long probeInterval = routing.getProbeInterval().toMillis();
+        probeExecutor.scheduleWithFixedDelay(this::probe, probeInterval, probeInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!this.isPrimary(request.url())) {
+            return chain.proceed(request);
+        }
+
+        String hostHeader = request.header("Host") != null
+                ? request.header("Host")
+                : this.hostHeader(request.url());
+        IOException failure = null;
+        for (Node node : this.candidates(request)) {
+            Request routed = request.newBuilder()
+                    .url(request.url().newBuilder()
+                            .scheme(node.url.scheme())
+                            .host(node.url.host())
+                            .port(node.url.port())
+                            .build())
+                    // 保留签名时的 Host
+                    .header("Host", hostHeader)
+                    .build();
+            node.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                Response response = chain.proceed(routed);
+                node.recordLatency(System.nanoTime() - start);
+                node.healthy = true;
+                return response;
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                if (!this.isConnectFailure(e) && !this.isRead(request)) {
+                    throw failure;
+                }
+                node.healthy = false;
+                log.warn("minio 节点: {} 请求失败，切换到下一个节点", node.url, e);
+            } finally {
+                node.inFlight.decrementAndGet();
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * 按路由策略排序的候选节点，不健康的节点排在最后作为兜底
+     * 节点状态会被其它线程并发修改，先取快照再排序，保证排序期间比较结果一致
+     */
+    private List<Node> candidates(Request request) {
+        HttpUrl url = request.url();
+        boolean multipart = url.queryParameterNames().contains("uploads")
+                || url.queryParameterNames().contains("uploadId");
+        String key = url.encodedPath();
+        List<Candidate> snapshot = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            snapshot.add(new Candidate(node, node.healthy, node.score(),
+                    mix(key.hashCode() * 31L + node.url.toString().hashCode())));
+        }
+        Comparator<Candidate> comparator = Comparator.comparing((Candidate candidate) -> !candidate.healthy());
+        snapshot.sort(multipart
+                // 分片上传固定节点：按文件对象做最高随机权重哈希
+                ? comparator.thenComparing(Comparator.comparingLong(Candidate::hash).reversed())
+                : comparator.thenComparingDouble(Candidate::score));
+        return snapshot.stream()
+                .map(Candidate::node)
+                .toList();
+    }
+
+    private String hostHeader(HttpUrl url) {
+        return url.port() == HttpUrl.defaultPort(url.scheme())
+                ? url.host()
+                : url.host() + ":" + url.port();
+    }
+
+    private boolean isPrimary(HttpUrl url) {
+        return url.host().equals(primary.host()) && url.port() == primary.port();
+    }
+
+    /**
+     * 连接阶段的失败，请求尚未发送，任何请求都可以安全地切换节点
+     */
+    private boolean isConnectFailure(IOException e) {
+        return e instanceof ConnectException || e instanceof NoRouteToHostException
+                || e instanceof UnknownHostException;
+    }
+
+    private boolean isRead(Request request) {
+        return "GET".equals(request.method()) || "HEAD".equals(request.method());
+    }
+
+    private void probe() {
+        for (Node node : nodes) {
+            Request request = new Request.Builder()
+                    .url(node.url.newBuilder().encodedPath(HEALTH_PATH).build())
+                    .get()
+                    .build();
+            long start = System.nanoTime();
+            try (Response response = probeClient.newCall(request).execute()) {
+                boolean healthy = response.isSuccessful();
+                if (healthy != node.healthy) {
+                    log.info("minio 节点: {} 健康状态变为 {}", node.url, healthy);
+                }
+                node.healthy = healthy;
+                if (healthy) {
+                    node.recordLatency(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                if (node.healthy) {
+                    log.info("minio 节点: {} 健康状态变为 false", node.url, e);
+                }
+                node.healthy = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        probeExecutor.shutdownNow();
+        probeClient.dispatcher().executorService().shutdown();
+        probeClient.connectionPool().evictAll();
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * 排序时的节点状态快照
+     */
+    private record Candidate(Node node, boolean healthy, double score, long hash) {
+    }
+
+    /**
+     * 一个接入点的状态
+     */
+    private static class Node {
+
+        private final HttpUrl url;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private volatile boolean healthy = true;
+
+        /**
+         * 平均耗时，单位 纳秒，尚无样本时为 0
+         */
+        private volatile double latency;
+
+        private Node(HttpUrl url) {
+            this.url = url;
+        }
+
+        private boolean sameHost(HttpUrl other) {
+            return url.host().equals(other.host()) && url.port() == other.port();
+        }
+
+        private void recordLatency(long nanos) {
+            double current = latency;
+            latency = current == 0 ? nanos : current + EWMA_ALPHA * (nanos - current);
+        }
+
+        private double score() {
+            // 没有样本的节点优先获得流量
+            return (inFlight.get() + 1) * Math.max(latency, 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,415 @@
+package top.wuhunyu.oss.minio;
+
+import com.google.common.io.ByteStreams;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import okhttp3.Headers;
+import top.wuhunyu.oss.api.model.ObjectStat;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 可随机读取的分帧 gzip 压缩
+ * 原始数据按固定大小切分为帧，每一帧压缩为一个独立的 gzip 成员，帧之后依次是记录各帧压缩长度的索引成员和定长的尾部成员，
+ * 索引与尾部的数据都放在 gzip 头部的扩展字段中、内容为空，因此整个文件对象仍是一个合法的 gzip 文件。
+ * 范围读取时先读取尾部和索引，再只下载并解压覆盖该范围的帧，每次读取都要求 etag 不变
+ * <pre>
+ * [帧 1][帧 2]...[帧 n][索引 OI ...][尾部 OT：索引偏移 8 字节 + 原始长度 8 字节]
+ * </pre>
+ **/
+
+class GzipFrameCodec {
+
+    /**
+     * 记录编码方式的用户元数据
+     */
+    static final String META_CODEC = "oss-codec";
+
+    /**
+     * 记录帧大小的用户元数据
+     */
+    static final String META_FRAME_SIZE = "oss-frame-size";
+
+    static final String CODEC = "gzip-frames";
+
+    private static final String META_PREFIX = "x-amz-meta-";
+
+    private static final byte[] INDEX_ID = {'O', 'I'};
+
+    private static final byte[] TRAILER_ID = {'O', 'T'};
+
+    private static final int TRAILER_DATA_LENGTH = 16;
+
+    /**
+     * 尾部成员的总长度：头部 10 + XLEN 2 + 子字段头 4 + 数据 16 + 空 deflate 块 2 + CRC32、ISIZE 8
+     */
+    private static final int TRAILER_LENGTH = 10 + 2 + 4 + TRAILER_DATA_LENGTH + 2 + 8;
+
+    /**
+     * 单个索引成员最多记录的帧数，受扩展字段最大 65535 字节的限制
+     */
+    private static final int MAX_INDEX_ENTRIES = (65535 - 4) / 4;
+
+    private static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    private final MinioClient minioClient;
+
+    private final MinioProperties.Compression compression;
+
+    private final int bufferSize;
+
+    GzipFrameCodec(MinioClient minioClient, MinioProperties.Compression compression, int bufferSize) {
+        if (compression.getFrameSize() < 1 || compression.getFrameSize() > MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("minio：compression.frameSize 必须位于 [1, 64MB] 区间");
+        }
+        this.minioClient = minioClient;
+        this.compression = compression;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 上传时是否需要压缩
+     *
+     * @param bucketName  bucket
+     * @param contentType 媒体类型
+     * @return true：需要；false：不需要
+     */
+    boolean shouldCompress(String bucketName, String contentType) {
+        if (!Boolean.TRUE.equals(compression.getEnabled()) || Objects.isNull(contentType)) {
+            return false;
+        }
+        if (!compression.getBuckets().isEmpty() && !compression.getBuckets().contains(bucketName)) {
+            return false;
+        }
+        return compression.getContentTypes().stream()
+                .anyMatch(contentType::startsWith);
+    }
+
+    /**
+     * bucket 中是否可能有本客户端上传的压缩文件对象
+     */
+    boolean mayCompress(String bucketName) {
+        return Boolean.TRUE.equals(compression.getEnabled())
+                && (compression.getBuckets().isEmpty() || compression.getBuckets().contains(bucketName));
+    }
+
+    /**
+     * 压缩后的文件对象需要附带的用户元数据
+     */
+    Map<String, String> metadata() {
+        return Map.of(META_CODEC, CODEC, META_FRAME_SIZE, String.valueOf(compression.getFrameSize()));
+    }
+
+    /**
+     * 包装为边读取边压缩的输入流，每次只在内存中保留一帧
+     */
+    InputStream compress(InputStream inputStream) {
+        return new FrameCompressingInputStream(inputStream, compression.getFrameSize(), compression.getLevel(),
+                bufferSize);
+    }
+
+    /**
+     * 文件对象是否经过压缩
+     *
+     * @param userMetadata 用户元数据，键不含 x-amz-meta- 前缀
+     */
+    static boolean isCompressed(Map<String, String> userMetadata) {
+        return Objects.nonNull(userMetadata) && userMetadata.entrySet().stream()
+                .anyMatch(entry -> META_CODEC.equalsIgnoreCase(entry.getKey()) && CODEC.equals(entry.getValue()));
+    }
+
+    /**
+     * 文件对象是否经过压缩
+     *
+     * @param headers 下载响应头
+     */
+    static boolean isCompressed(Headers headers) {
+        return CODEC.equals(headers.get(META_PREFIX + META_CODEC));
+    }
+
+    /**
+     * 解压完整的文件对象
+     */
+    InputStream decompress(InputStream inputStream) throws IOException {
+        return gunzip(inputStream);
+    }
+
+    /**
+     * 从下载响应头中解析文件对象的元数据，省去一次查询
+     *
+     * @param headers 范围下载的响应头
+     * @return 文件对象元数据，响应头中缺少总长度或 etag 时返回 null
+     */
+    static ObjectStat stat(String objectName, Headers headers) {
+        String contentRange = headers.get("Content-Range");
+        String etag = headers.get("ETag");
+        if (Objects.isNull(contentRange) || Objects.isNull(etag)) {
+            return null;
+        }
+        long size;
+        try {
+            size = Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        Map<String, String> userMetadata = new HashMap<>();
+        for (String name : headers.names()) {
+            if (name.regionMatches(true, 0, META_PREFIX, 0, META_PREFIX.length())) {
+                userMetadata.put(name.substring(META_PREFIX.length()), headers.get(name));
+            }
+        }
+        return new ObjectStat(objectName, true, size, etag.replace("\"", ""), null,
+                headers.get("Content-Type"), userMetadata);
+    }
+
+    /**
+     * 读取压缩文件对象的原始数据中的一段
+     * 尾部、索引和帧的读取都带上元数据中的 etag，文件对象在读取期间被覆盖时失败，不会混用两个版本的数据
+     *
+     * @param objectStat 文件对象元数据，需要包含大小、etag 和帧大小
+     * @param offset     原始数据中的起始位置
+     * @param length     长度
+     * @return 原始数据的输入流
+     */
+    InputStream getRange(String bucketName, ObjectStat objectStat, long offset, long length) throws Exception {
+        String objectName = objectStat.objectName();
+        String etag = objectStat.etag();
+        long size = objectStat.size();
+        long frameSize = objectStat.userMetadata().entrySet().stream()
+                .filter(entry -> META_FRAME_SIZE.equalsIgnoreCase(entry.getKey()))
+                .map(entry -> Long.parseLong(entry.getValue()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("缺少帧大小元数据"));
+
+        // 尾部记录索引的位置
+        ByteBuffer trailer = this.trailer(bucketName, objectStat);
+        long indexOffset = trailer.getLong();
+        long uncompressedLength = trailer.getLong();
+        if (offset >= uncompressedLength || length <= 0) {
+            return InputStream.nullInputStream();
+        }
+
+        // 索引可能由多个成员组成
+        List<Integer> frameLengths = new ArrayList<>();
+        byte[] index = this.read(bucketName, objectName, etag, indexOffset, size - TRAILER_LENGTH - indexOffset);
+        for (int position = 0; position < index.length; ) {
+            ByteBuffer extra = extra(index, position, INDEX_ID);
+            int extraLength = extra.remaining();
+            while (extra.hasRemaining()) {
+                frameLengths.add(extra.getInt());
+            }
+            position += 10 + 2 + 4 + extraLength + 2 + 8;
+        }
+
+        // 覆盖请求范围的帧
+        long end = Math.min(offset + length, uncompressedLength);
+        int firstFrame = (int) (offset / frameSize);
+        int lastFrame = (int) ((end - 1) / frameSize);
+        long compressedOffset = 0;
+        for (int i = 0; i < firstFrame; i++) {
+            compressedOffset += frameLengths.get(i);
+        }
+        long compressedLength = 0;
+        for (int i = firstFrame; i <= lastFrame; i++) {
+            compressedLength += frameLengths.get(i);
+        }
+
+        GetObjectResponse getObjectResponse = minioClient.getObject(this.rangeArgs(bucketName, objectName, etag,
+                compressedOffset, compressedLength));
+        try {
+            InputStream inputStream = gunzip(getObjectResponse);
+            inputStream.skipNBytes(offset - firstFrame * frameSize);
+            return ByteStreams.limit(inputStream, end - offset);
+        } catch (Exception e) {
+            getObjectResponse.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取尾部记录的原始数据长度
+     *
+     * @param objectStat 文件对象元数据，需要包含大小和 etag
+     * @return 解压后的长度
+     */
+    long uncompressedLength(String bucketName, ObjectStat objectStat) throws Exception {
+        ByteBuffer trailer = this.trailer(bucketName, objectStat);
+        trailer.getLong();
+        return trailer.getLong();
+    }
+
+    private ByteBuffer trailer(String bucketName, ObjectStat objectStat) throws Exception {
+        return extra(this.read(bucketName, objectStat.objectName(), objectStat.etag(),
+                objectStat.size() - TRAILER_LENGTH, TRAILER_LENGTH), 0, TRAILER_ID);
+    }
+
+    private byte[] read(String bucketName, String objectName, String etag, long offset,
+                        long length) throws Exception {
+        try (GetObjectResponse getObjectResponse = minioClient.getObject(this.rangeArgs(bucketName, objectName, etag,
+                offset, length))) {
+            return getObjectResponse.readAllBytes();
+        }
+    }
+
+    private GetObjectArgs rangeArgs(String bucketName, String objectName, String etag, long offset, long length) {
+        GetObjectArgs.Builder builder = GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(offset)
+                .length(length);
+        if (Objects.nonNull(etag)) {
+            builder.matchETag(etag);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 解析 gzip 成员头部扩展字段中指定子字段的数据
+     */
+    private static ByteBuffer extra(byte[] member, int position, byte[] id) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(member).order(ByteOrder.LITTLE_ENDIAN);
+        if ((member[position] & 0xFF) != 0x1F || (member[position + 1] & 0xFF) != 0x8B
+                || member[position + 12] != id[0] || member[position + 13] != id[1]) {
+            throw new IllegalStateException("压缩文件对象格式错误");
+        }
+        int length = byteBuffer.getShort(position + 14) & 0xFFFF;
+        return byteBuffer.slice(position + 16, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 写入一个内容为空、只携带扩展字段的 gzip 成员
+     */
+    private static void writeExtraMember(ByteArrayOutputStream outputStream, byte[] id, byte[] data) {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(10 + 2 + 4 + data.length + 2 + 8).order(ByteOrder.LITTLE_ENDIAN);
+        // 魔数、deflate、FEXTRA、修改时间、XFL、未知操作系统
+        byteBuffer.put(new byte[]{0x1F, (byte) 0x8B, 8, 4, 0, 0, 0, 0, 0, (byte) 0xFF});
+        byteBuffer.putShort((short) (4 + data.length));
+        byteBuffer.put(id);
+        byteBuffer.putShort((short) data.length);
+        byteBuffer.put(data);
+        // 空的 deflate 数据块，CRC32 与 ISIZE 均为 0
+        byteBuffer.put(new byte[]{3, 0});
+        byteBuffer.putLong(0);
+        outputStream.write(byteBuffer.array(), 0, byteBuffer.capacity());
+    }
+
+    /**
+     * 解压由多个 gzip 成员拼接而成的输入流
+     * {@link GZIPInputStream} 在一个成员结束时依据 available() 判断是否还有后续成员，
+     * 网络流在成员边界上可能暂时返回 0，这里保证其至少返回 1，真正到达末尾时读取头部失败即视为结束
+     */
+    private InputStream gunzip(InputStream inputStream) throws IOException {
+        return new GZIPInputStream(new FilterInputStream(inputStream) {
+            @Override
+            public int available() throws IOException {
+                return Math.max(super.available(), 1);
+            }
+        }, bufferSize);
+    }
+
+    /**
+     * 边读取边压缩的输入流
+     */
+    private static class FrameCompressingInputStream extends InputStream {
+
+        private final InputStream source;
+
+        private final byte[] frame;
+
+        private final int level;
+
+        private final int bufferSize;
+
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        private final List<Integer> frameLengths = new ArrayList<>();
+
+        private long compressedOffset;
+
+        private long uncompressedLength;
+
+        private byte[] current = new byte[0];
+
+        private int position;
+
+        private boolean finished;
+
+        private FrameCompressingInputStream(InputStream source, int frameSize, int level, int bufferSize) {
+            this.source = source;
+            this.frame = new byte[frameSize];
+            this.level = level;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] bytes = new byte[1];
+            return this.read(bytes, 0, 1) == -1 ? -1 : bytes[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == current.length && !this.fill()) {
+                return -1;
+            }
+            int size = Math.min(length, current.length - position);
+            System.arraycopy(current, position, bytes, offset, size);
+            position += size;
+            return size;
+        }
+
+        /**
+         * 压缩下一帧，数据读完后依次输出索引和尾部
+         *
+         * @return 是否还有数据
+         */
+        private boolean fill() throws IOException {
+            if (finished) {
+                return false;
+            }
+            compressed.reset();
+            int length = source.readNBytes(frame, 0, frame.length);
+            if (length > 0) {
+                try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed, bufferSize) {
+                    {
+                        def.setLevel(level);
+                    }
+                }) {
+                    gzipOutputStream.write(frame, 0, length);
+                }
+                frameLengths.add(compressed.size());
+                uncompressedLength += length;
+            } else {
+                long indexOffset = compressedOffset;
+                for (int from = 0; from < frameLengths.size() || from == 0; from += MAX_INDEX_ENTRIES) {
+                    List<Integer> entries = frameLengths.subList(from,
+                            Math.min(from + MAX_INDEX_ENTRIES, frameLengths.size()));
+                    ByteBuffer data = ByteBuffer.allocate(entries.size() * 4).order(ByteOrder.LITTLE_ENDIAN);
+                    entries.forEach(data::putInt);
+                    writeExtraMember(compressed, INDEX_ID, data.array());
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(TRAILER_DATA_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putLong(indexOffset);
+                trailer.putLong(uncompressedLength);
+                writeExtraMember(compressed, TRAILER_ID, trailer.array());
+                finished = true;
+            }
+            current = compressed.toByteArray();
+            compressedOffset += current.length;
+            position = 0;
+            return true;
+        }
+
+    }
+
+}
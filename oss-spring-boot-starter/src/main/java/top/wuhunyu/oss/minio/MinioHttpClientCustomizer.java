@@ -0,0 +1,20 @@
+package top.wuhunyu.oss.minio;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * minio http 客户端定制器
+ * 在 {@link MyMinioClient} 构建 http 客户端时回调，可用于添加拦截器、事件监听器等
+ **/
+
+@FunctionalInterface
+public interface MinioHttpClientCustomizer {
+
+    /**
+     * 定制 http 客户端
+     *
+     * @param builder http 客户端构建器
+     */
+    void customize(OkHttpClient.Builder builder);
+
+}
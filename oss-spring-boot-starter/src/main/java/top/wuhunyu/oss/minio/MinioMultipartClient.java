@@ -0,0 +1,94 @@
+package top.wuhunyu.oss.minio;
+
+import com.google.common.collect.Multimap;
+import io.minio.ListObjectsV2Response;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.messages.ListBucketResultV2;
+import io.minio.messages.Part;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 暴露 minio 分片上传等底层接口的客户端
+ * minio 将 CreateMultipartUpload、UploadPart、UploadPartCopy、ListObjectsV2 等接口声明为 protected，
+ * 这里通过继承的方式开放给上传引擎、分片复制和分页列举使用
+ **/
+
+class MinioMultipartClient extends MinioAsyncClient {
+
+    MinioMultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * 初始化一个分片上传
+     *
+     * @return uploadId
+     */
+    String createMultipartUpload(String bucketName, String region, String objectName,
+                                 Multimap<String, String> headers) throws Exception {
+        return this.createMultipartUploadAsync(bucketName, region, objectName, headers, null)
+                .get()
+                .result()
+                .uploadId();
+    }
+
+    /**
+     * 异步上传一个分片
+     *
+     * @return 分片的 etag
+     */
+    CompletableFuture<String> uploadPart(String bucketName, String region, String objectName,
+                                         byte[] data, int length, String uploadId, int partNumber) throws Exception {
+        return this.uploadPartAsync(bucketName, region, objectName, data, length, uploadId, partNumber, null, null)
+                .thenApply(uploadPartResponse -> uploadPartResponse.etag());
+    }
+
+    /**
+     * 异步由服务端复制一个分片
+     *
+     * @param headers 复制源 x-amz-copy-source 及其范围、条件等请求头
+     * @return 分片的 etag
+     */
+    CompletableFuture<String> uploadPartCopy(String bucketName, String region, String objectName,
+                                             String uploadId, int partNumber,
+                                             Multimap<String, String> headers) throws Exception {
+        return this.uploadPartCopyAsync(bucketName, region, objectName, uploadId, partNumber, headers, null)
+                .thenApply(uploadPartCopyResponse -> uploadPartCopyResponse.result().etag());
+    }
+
+    /**
+     * 完成一个分片上传
+     */
+    ObjectWriteResponse completeMultipartUpload(String bucketName, String region, String objectName,
+                                                String uploadId, Part[] parts) throws Exception {
+        return this.completeMultipartUploadAsync(bucketName, region, objectName, uploadId, parts, null, null)
+                .get();
+    }
+
+    /**
+     * 终止一个分片上传，释放已上传的分片
+     */
+    void abortMultipartUpload(String bucketName, String region, String objectName,
+                              String uploadId) throws Exception {
+        this.abortMultipartUploadAsync(bucketName, region, objectName, uploadId, null, null)
+                .get();
+    }
+
+    /**
+     * 异步列举一页文件对象
+     *
+     * @param continuationToken 上一页返回的续传标记，第一页为 null
+     * @return 一页列举结果
+     */
+    CompletableFuture<ListBucketResultV2> listObjectsV2(String bucketName, String region, String prefix,
+                                                        String delimiter, String startAfter, int maxKeys,
+                                                        String continuationToken,
+                                                        boolean includeUserMetadata) throws Exception {
+        return this.listObjectsV2Async(bucketName, region, delimiter, null, startAfter, maxKeys, prefix,
+                        continuationToken, false, includeUserMetadata, null, null)
+                .thenApply(ListObjectsV2Response::result);
+    }
+
+}
@@ -0,0 +1,146 @@
+package top.wuhunyu.oss.minio;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.ObjectWriteResponse;
+import io.minio.S3Escaper;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.api.model.ObjectStat;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 并发分片复制引擎
+ * 将源文件对象按范围拆分为多个分片，由服务端通过 UploadPartCopy 并发复制，数据不经过客户端；
+ * 每个分片都要求源文件对象的 etag 不变，全部分片成功后完成上传，任意分片失败则终止上传
+ **/
+
+@Slf4j
+class MultipartCopier {
+
+    /**
+     * 一次 CopyObject 能复制的最大文件对象
+     */
+    static final long MAX_COPY_OBJECT_SIZE = 5L * 1024 * 1024 * 1024;
+
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private static final int MAX_PARTS = 10000;
+
+    private final MinioMultipartClient multipartClient;
+
+    private final String region;
+
+    private final MinioProperties.Copy copy;
+
+    MultipartCopier(MinioMultipartClient multipartClient, String region, MinioProperties.Copy copy) {
+        this.multipartClient = multipartClient;
+        this.region = region;
+        this.copy = copy;
+    }
+
+    /**
+     * 复制一个文件对象，媒体类型和用户元数据一并复制
+     *
+     * @param sourceBucketName 源 bucket
+     * @param source           源文件对象元数据
+     * @param targetBucketName 目标 bucket
+     * @param targetObjectName 目标文件对象全路径名称
+     * @return 复制结果
+     */
+    ObjectWriteResponse copy(String sourceBucketName, ObjectStat source,
+                             String targetBucketName, String targetObjectName) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (Objects.nonNull(source.contentType())) {
+            headers.put("Content-Type", source.contentType());
+        }
+        source.userMetadata().forEach((key, value) -> headers.put("x-amz-meta-" + key, value));
+        String uploadId = multipartClient.createMultipartUpload(targetBucketName, region, targetObjectName, headers);
+
+        try {
+            Part[] parts = this.copyParts(sourceBucketName, source, targetBucketName, targetObjectName, uploadId);
+            return multipartClient.completeMultipartUpload(targetBucketName, region, targetObjectName,
+                    uploadId, parts);
+        } catch (Exception e) {
+            try {
+                multipartClient.abortMultipartUpload(targetBucketName, region, targetObjectName, uploadId);
+            } catch (Exception abortException) {
+                log.warn("终止分片复制 object: {} / {}，uploadId：{} 异常",
+                        targetBucketName, targetObjectName, uploadId, abortException);
+            }
+            throw e;
+        }
+    }
+
+    private Part[] copyParts(String sourceBucketName, ObjectStat source,
+                             String targetBucketName, String targetObjectName, String uploadId) throws Exception {
+        long size = source.size();
+        // 分片数不能超过 10000
+        long partSize = Math.max(Math.max(copy.getPartSize(), MIN_PART_SIZE), (size + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) ((size + partSize - 1) / partSize);
+        String copySource = S3Escaper.encodePath(sourceBucketName + "/" + source.objectName());
+
+        Semaphore permits = new Semaphore(copy.getParallelism());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Part>> futures = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            // 限制同时复制的分片数
+            permits.acquire();
+            if (failure.get() != null) {
+                permits.release();
+                break;
+            }
+
+            long start = i * partSize;
+            long end = Math.min(size, start + partSize) - 1;
+            Multimap<String, String> headers = HashMultimap.create();
+            headers.put("x-amz-copy-source", copySource);
+            headers.put("x-amz-copy-source-range", "bytes=" + start + "-" + end);
+            if (Objects.nonNull(source.etag())) {
+                headers.put("x-amz-copy-source-if-match", source.etag());
+            }
+            futures.add(this.copyPart(targetBucketName, targetObjectName, uploadId, i + 1, headers,
+                    permits, failure));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toArray(Part[]::new);
+    }
+
+    private CompletableFuture<Part> copyPart(String bucketName, String objectName, String uploadId, int partNumber,
+                                             Multimap<String, String> headers, Semaphore permits,
+                                             AtomicReference<Throwable> failure) {
+        CompletableFuture<String> future;
+        try {
+            future = multipartClient.uploadPartCopy(bucketName, region, objectName, uploadId, partNumber, headers);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future
+                .whenComplete((etag, throwable) -> {
+                    if (throwable != null) {
+                        failure.compareAndSet(null, throwable);
+                    }
+                    permits.release();
+                })
+                .thenApply(etag -> new Part(partNumber, etag));
+    }
+
+}
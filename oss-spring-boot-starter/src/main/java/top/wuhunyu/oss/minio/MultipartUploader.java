@@ -0,0 +1,206 @@
+package top.wuhunyu.oss.minio;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 并发分片上传引擎
+ * 将长度未知的输入流按固定大小切分为分片，分片数据来自可复用的缓冲池，
+ * 同一个文件对象同时上传的分片数受配置限制，全部分片成功后完成上传，任意分片失败则终止上传
+ **/
+
+@Slf4j
+class MultipartUploader {
+
+    private final MinioClient minioClient;
+
+    private final MinioMultipartClient multipartClient;
+
+    private final String region;
+
+    private final MinioProperties.Upload upload;
+
+    private final BufferPool bufferPool;
+
+    MultipartUploader(MinioClient minioClient, MinioMultipartClient multipartClient,
+                      String region, MinioProperties.Upload upload) {
+        this.minioClient = minioClient;
+        this.multipartClient = multipartClient;
+        this.region = region;
+        this.upload = upload;
+        this.bufferPool = new BufferPool(upload.getPartSize(), upload.getMaxPooledBuffers());
+    }
+
+    /**
+     * 上传一个长度未知的输入流，不会关闭输入流
+     * 输入流不足一个分片时使用单次上传
+     *
+     * @param bucketName  bucket
+     * @param objectName  文件对象全路径名称
+     * @param inputStream 输入流
+     * @param contentType 媒体类型
+     * @return 上传结果
+     */
+    ObjectWriteResponse upload(String bucketName, String objectName,
+                               InputStream inputStream, String contentType) throws Exception {
+        return this.upload(bucketName, objectName, inputStream, contentType, Map.of());
+    }
+
+    /**
+     * 上传一个长度未知的输入流，并附带用户元数据，不会关闭输入流
+     *
+     * @param bucketName   bucket
+     * @param objectName   文件对象全路径名称
+     * @param inputStream  输入流
+     * @param contentType  媒体类型
+     * @param userMetadata 用户元数据，键不含 x-amz-meta- 前缀
+     * @return 上传结果
+     */
+    ObjectWriteResponse upload(String bucketName, String objectName, InputStream inputStream,
+                               String contentType, Map<String, String> userMetadata) throws Exception {
+        byte[] buffer = bufferPool.acquire();
+        int length;
+        try {
+            length = inputStream.readNBytes(buffer, 0, buffer.length);
+        } catch (Exception e) {
+            bufferPool.release(buffer);
+            throw e;
+        }
+
+        // 不足一个分片，单次上传
+        if (length < buffer.length) {
+            try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(buffer, 0, length)) {
+                return minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .stream(byteArrayInputStream, length, -1)
+                        .contentType(contentType)
+                        .userMetadata(userMetadata)
+                        .build());
+            } finally {
+                bufferPool.release(buffer);
+            }
+        }
+
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("Content-Type", contentType);
+        userMetadata.forEach((key, value) -> headers.put("x-amz-meta-" + key, value));
+        String uploadId;
+        try {
+            uploadId = multipartClient.createMultipartUpload(bucketName, region, objectName, headers);
+        } catch (Exception e) {
+            bufferPool.release(buffer);
+            throw e;
+        }
+
+        try {
+            Part[] parts = this.uploadParts(bucketName, objectName, uploadId, inputStream, buffer, length);
+            return multipartClient.completeMultipartUpload(bucketName, region, objectName, uploadId, parts);
+        } catch (Exception e) {
+            try {
+                multipartClient.abortMultipartUpload(bucketName, region, objectName, uploadId);
+            } catch (Exception abortException) {
+                log.warn("终止分片上传 object: {} / {}，uploadId：{} 异常",
+                        bucketName, objectName, uploadId, abortException);
+            }
+            throw e;
+        }
+    }
+
+    private Part[] uploadParts(String bucketName, String objectName, String uploadId,
+                               InputStream inputStream, byte[] firstBuffer, int firstLength) throws Exception {
+        Semaphore permits = new Semaphore(upload.getParallelism());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Part>> futures = new ArrayList<>();
+
+        // 尚未交给分片上传任务的缓冲区，由当前方法负责归还
+        byte[] buffer = firstBuffer;
+        int length = firstLength;
+        int partNumber = 1;
+        try {
+            while (length > 0) {
+                // 限制同时上传的分片数
+                permits.acquire();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+
+                futures.add(this.uploadPart(bucketName, objectName, uploadId, buffer, length, partNumber,
+                        permits, failure));
+                buffer = null;
+                partNumber++;
+
+                // 已读到流的末尾
+                if (length < firstBuffer.length) {
+                    break;
+                }
+                buffer = bufferPool.acquire();
+                length = inputStream.readNBytes(buffer, 0, buffer.length);
+            }
+        } catch (Exception e) {
+            if (buffer != null) {
+                bufferPool.release(buffer);
+            }
+            // 等待已提交的分片结束，避免缓冲区在使用中被复用
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .exceptionally(throwable -> null)
+                    .join();
+            throw e;
+        }
+        // 其它分片已失败或读到的数据为空
+        if (buffer != null) {
+            bufferPool.release(buffer);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toArray(Part[]::new);
+    }
+
+    private CompletableFuture<Part> uploadPart(String bucketName, String objectName, String uploadId,
+                                               byte[] buffer, int length, int partNumber,
+                                               Semaphore permits, AtomicReference<Throwable> failure) {
+        CompletableFuture<String> future;
+        try {
+            future = multipartClient.uploadPart(bucketName, region, objectName,
+                    buffer, length, uploadId, partNumber);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future
+                .whenComplete((etag, throwable) -> {
+                    if (throwable != null) {
+                        failure.compareAndSet(null, throwable);
+                    }
+                    bufferPool.release(buffer);
+                    permits.release();
+                })
+                .thenApply(etag -> new Part(partNumber, etag));
+    }
+
+}
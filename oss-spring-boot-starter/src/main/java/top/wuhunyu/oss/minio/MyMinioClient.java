@@ -1,23 +1,50 @@
 package top.wuhunyu.oss.minio;
 
 import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.io.file.FileNameUtil;
 import cn.hutool.core.util.IdUtil;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.io.CountingOutputStream;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.DirectorySyncResult;
+import top.wuhunyu.oss.api.model.ListObjectsQuery;
+import top.wuhunyu.oss.api.model.ObjectStat;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+import top.wuhunyu.oss.cache.DiskObjectCache;
+import top.wuhunyu.oss.cache.MetadataCache;
+import top.wuhunyu.oss.cache.PresignedUrlCache;
 import top.wuhunyu.oss.enums.ContentTypeEnum;
 import top.wuhunyu.oss.properties.MinioProperties;
+import top.wuhunyu.oss.support.Base64Content;
+import top.wuhunyu.oss.support.SyncCounter;
+import top.wuhunyu.oss.support.SyncManifest;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 自定义minio客户端
@@ -27,13 +54,99 @@ import java.util.stream.Collectors;
  **/
 
 @Slf4j
-public class MyMinioClient implements OssClient {
+public class MyMinioClient implements OssClient, AutoCloseable {
+
+    /**
+     * 分片上传允许的最小分片大小
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * 单次批量删除请求允许的最大文件对象个数
+     */
+    private static final int MAX_DELETE_BATCH_SIZE = 1000;
 
     private final MinioProperties minioProperties;
 
+    private final OkHttpClient httpClient;
+
+    /**
+     * 并发与带宽限制，未配置任何限制时为 null
+     */
+    private final TrafficShaper trafficShaper;
+
+    /**
+     * 多接入点路由，只配置了一个接入点时为 null
+     */
+    private final EndpointRouter endpointRouter;
+
     private final MinioClient minioClient;
 
+    /**
+     * 执行并发子任务的虚拟线程池，并发度由各个调用方自行限制
+     */
+    private final ExecutorService executorService;
+
+    private final ParallelDownloader parallelDownloader;
+
+    private final RequestHedger requestHedger;
+
+    /**
+     * 暴露 minio 底层接口的异步客户端，用于分片上传和分页列举
+     */
+    private final MinioMultipartClient multipartClient;
+
+    private final MultipartUploader multipartUploader;
+
+    private final MultipartCopier multipartCopier;
+
+    private final UploadSessionManager uploadSessionManager;
+
+    /**
+     * 分帧压缩编解码，读取已压缩的文件对象时总是需要
+     */
+    private final GzipFrameCodec frameCodec;
+
+    /**
+     * 开始过上传会话的 bucket，后台清理只扫描这些 bucket
+     */
+    private final Set<String> sessionBuckets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 清理已放弃上传会话的调度线程，未启用时为 null
+     */
+    private final ScheduledExecutorService sessionPurgeExecutor;
+
+    /**
+     * 异步写入队列，未启用时为 null
+     */
+    private final WriteBehindQueue writeBehindQueue;
+
+    /**
+     * 元数据缓存，未启用时为 null
+     */
+    private final MetadataCache metadataCache;
+
+    /**
+     * 本地磁盘文件对象缓存，未启用时为 null
+     */
+    private final DiskObjectCache diskObjectCache;
+
+    /**
+     * 临时凭证地址缓存，未启用时为 null
+     */
+    private final PresignedUrlCache presignedUrlCache;
+
+    /**
+     * 批量 GET 临时凭证签名器，接入点不支持时为 null
+     */
+    private final PresignedUrlSigner presignedUrlSigner;
+
     public MyMinioClient(MinioProperties minioProperties) {
+        this(minioProperties, List.of());
+    }
+
+    public MyMinioClient(MinioProperties minioProperties, List<MinioHttpClientCustomizer> httpClientCustomizers) {
         this.minioProperties = minioProperties;
 
         log.debug("minio 配置明细，endpoint：{}，accessKey：{}，secretKey：{}，region：{}",
@@ -46,25 +159,234 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(minioProperties.getEndpoint(), "minio：endpoint 不能为空");
         Objects.requireNonNull(minioProperties.getAccessKey(), "minio：accessKey 不能为空");
         Objects.requireNonNull(minioProperties.getSecretKey(), "minio：secretKey 不能为空");
+        if (minioProperties.getUpload().getPartSize() < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("minio：upload.partSize 不能小于 5MB");
+        }
+        if (Boolean.TRUE.equals(minioProperties.getDedup().getEnabled())) {
+            try {
+                MessageDigest.getInstance(minioProperties.getDedup().getAlgorithm());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException("minio：dedup.algorithm 不支持", e);
+            }
+        }
+
+        this.trafficShaper = TrafficShaper.isEnabled(minioProperties.getThrottle())
+                ? new TrafficShaper(minioProperties.getThrottle())
+                : null;
+        this.endpointRouter = minioProperties.getEndpoints().isEmpty()
+                ? null
+                : new EndpointRouter(minioProperties.getEndpoint(), minioProperties.getEndpoints(),
+                minioProperties.getRouting());
+
+        // 同步、异步客户端共用同一个连接池
+        this.httpClient = this.buildHttpClient(minioProperties.getHttp(), httpClientCustomizers);
 
         // 构建 minio 客户端
         this.minioClient = MinioClient.builder()
                 .endpoint(minioProperties.getEndpoint())
                 .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
                 .region(minioProperties.getRegion())
+                .httpClient(httpClient)
                 .build();
+
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.requestHedger = new RequestHedger(executorService, minioProperties.getResilience());
+        this.parallelDownloader = new ParallelDownloader(minioClient, executorService,
+                minioProperties.getDownload(), minioProperties.getBufferSize());
+
+        // 分片上传、分页列举需要用到 minio 未公开的接口
+        this.multipartClient = new MinioMultipartClient(MinioAsyncClient.builder()
+                .endpoint(minioProperties.getEndpoint())
+                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
+                .region(minioProperties.getRegion())
+                .httpClient(httpClient)
+                .build());
+        this.multipartUploader = new MultipartUploader(minioClient, multipartClient,
+                minioProperties.getRegion(), minioProperties.getUpload());
+        this.multipartCopier = new MultipartCopier(multipartClient, minioProperties.getRegion(),
+                minioProperties.getCopy());
+        this.frameCodec = new GzipFrameCodec(minioClient, minioProperties.getCompression(),
+                minioProperties.getBufferSize());
+        this.uploadSessionManager = new UploadSessionManager(minioClient, multipartUploader,
+                minioProperties.getSession());
+        this.sessionPurgeExecutor = this.scheduleSessionPurge(minioProperties.getSession());
+
+        MinioProperties.Cache cache = minioProperties.getCache();
+        this.metadataCache = Boolean.TRUE.equals(cache.getEnabled())
+                ? new MetadataCache(cache.getMaximumSize(), cache.getTtl(), cache.getNegativeTtl())
+                : null;
+
+        MinioProperties.DiskCache diskCache = minioProperties.getDiskCache();
+        this.diskObjectCache = Boolean.TRUE.equals(diskCache.getEnabled())
+                ? new DiskObjectCache(Path.of(diskCache.getDirectory()), diskCache.getMaxBytes())
+                : null;
+
+        MinioProperties.Presign presign = minioProperties.getPresign();
+        this.presignedUrlCache = Boolean.TRUE.equals(presign.getCacheEnabled())
+                ? new PresignedUrlCache(presign.getMaximumSize(), presign.getReuseFraction())
+                : null;
+        this.presignedUrlSigner = PresignedUrlSigner.supports(minioProperties.getEndpoint(),
+                minioProperties.getRegion())
+                ? new PresignedUrlSigner(minioProperties.getEndpoint(), minioProperties.getAccessKey(),
+                minioProperties.getSecretKey(), minioProperties.getRegion())
+                : null;
+
+        // 启动后立即开始上传上次未完成的数据，需要放在最后
+        this.writeBehindQueue = Boolean.TRUE.equals(minioProperties.getWriteBehind().getEnabled())
+                ? new WriteBehindQueue(minioProperties.getWriteBehind(), this::uploadSpooled)
+                : null;
+    }
+
+    private ScheduledExecutorService scheduleSessionPurge(MinioProperties.Session session) {
+        Duration purgeInterval = session.getPurgeInterval();
+        if (Objects.isNull(purgeInterval) || purgeInterval.isZero() || purgeInterval.isNegative()) {
+            return null;
+        }
+        Optional.ofNullable(minioProperties.getDefaultBucket())
+                .ifPresent(sessionBuckets::add);
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("oss-session-purge").factory());
+        scheduledExecutorService.scheduleWithFixedDelay(() -> sessionBuckets.forEach(this::purgeExpiredUploadSessions),
+                purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduledExecutorService;
+    }
+
+    private OkHttpClient buildHttpClient(MinioProperties.Http http,
+                                         List<MinioHttpClientCustomizer> httpClientCustomizers) {
+        log.debug("minio http 配置明细，maxIdleConnections：{}，keepAlive：{}，maxRequests：{}，"
+                        + "maxRequestsPerHost：{}，connectTimeout：{}，readTimeout：{}，writeTimeout：{}，http2：{}",
+                http.getMaxIdleConnections(),
+                http.getKeepAlive(),
+                http.getMaxRequests(),
+                http.getMaxRequestsPerHost(),
+                http.getConnectTimeout(),
+                http.getReadTimeout(),
+                http.getWriteTimeout(),
+                http.getHttp2());
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(http.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+
+        // http2 需要服务端通过 tls alpn 协商，不支持时自动回退到 http1.1
+        List<Protocol> protocols = Boolean.TRUE.equals(http.getHttp2())
+                ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : List.of(Protocol.HTTP_1_1);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(http.getMaxIdleConnections(),
+                        http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getReadTimeout())
+                .writeTimeout(http.getWriteTimeout())
+                .protocols(protocols);
+        // 限流在最外层，一个请求的所有重试共用同一个并发许可；每次重试都重新路由，其它拦截器看到的是实际请求的节点
+        if (Objects.nonNull(trafficShaper)) {
+            builder.addInterceptor(trafficShaper);
+        }
+        if (minioProperties.getResilience().getMaxAttempts() > 1
+                || !minioProperties.getResilience().getDeadline().isZero()) {
+            builder.addInterceptor(new RetryInterceptor(minioProperties.getResilience()));
+        }
+        if (Objects.nonNull(endpointRouter)) {
+            builder.addInterceptor(endpointRouter);
+        }
+        httpClientCustomizers.forEach(httpClientCustomizer -> httpClientCustomizer.customize(builder));
+        return builder.build();
     }
 
+    /**
+     * 获取底层的 http 客户端，可用于查看连接池状态
+     *
+     * @return http 客户端
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * 获取并发与带宽限制，可用于查看排队中的请求数
+     *
+     * @return 并发与带宽限制，未配置任何限制时返回 null
+     */
+    public TrafficShaper getTrafficShaper() {
+        return trafficShaper;
+    }
+
+    /**
+     * 获取异步写入队列中等待上传的个数
+     *
+     * @return 等待上传的个数，未启用异步写入时返回 null
+     */
+    public Integer getWriteBehindPendingCount() {
+        return Objects.isNull(writeBehindQueue) ? null : writeBehindQueue.size();
+    }
+
+    /**
+     * 获取元数据缓存，可用于查看命中、未命中次数
+     *
+     * @return 元数据缓存，未启用时返回 null
+     */
+    public MetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    /**
+     * 获取本地磁盘文件对象缓存，可用于查看命中、未命中次数
+     *
+     * @return 本地磁盘文件对象缓存，未启用时返回 null
+     */
+    public DiskObjectCache getDiskObjectCache() {
+        return diskObjectCache;
+    }
+
+    /**
+     * 获取临时凭证地址缓存，可用于查看命中、未命中次数
+     *
+     * @return 临时凭证地址缓存，未启用时返回 null
+     */
+    public PresignedUrlCache getPresignedUrlCache() {
+        return presignedUrlCache;
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(writeBehindQueue)) {
+            writeBehindQueue.close();
+        }
+        if (Objects.nonNull(sessionPurgeExecutor)) {
+            sessionPurgeExecutor.shutdownNow();
+        }
+        executorService.shutdownNow();
+        if (Objects.nonNull(endpointRouter)) {
+            endpointRouter.close();
+        }
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
 
     @Override
     public Boolean isBucketExist(String bucketName) {
         Objects.requireNonNull(bucketName);
 
+        // 优先读取缓存
+        if (Objects.nonNull(metadataCache)) {
+            Boolean exists = metadataCache.getBucketExist(bucketName);
+            if (Objects.nonNull(exists)) {
+                return exists;
+            }
+        }
+
         BucketExistsArgs bucketExistsArgs = BucketExistsArgs.builder()
                 .bucket(bucketName)
                 .build();
         try {
-            return minioClient.bucketExists(bucketExistsArgs);
+            boolean exists = minioClient.bucketExists(bucketExistsArgs);
+            if (Objects.nonNull(metadataCache)) {
+                metadataCache.putBucketExist(bucketName, exists);
+            }
+            return exists;
         } catch (Exception e) {
             log.warn("查询 bucket: {} 是否存在异常", bucketName, e);
         }
@@ -76,16 +398,12 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(bucketName);
         Objects.requireNonNull(objectName);
 
-        StatObjectArgs statObjectArgs = StatObjectArgs.builder()
-                .bucket(bucketName)
-                .object(objectName)
-                .build();
-        try {
-            minioClient.statObject(statObjectArgs);
+        if (Objects.nonNull(writeBehindQueue) && writeBehindQueue.contains(bucketName, objectName)) {
             return Boolean.TRUE;
-        } catch (Exception ignored) {
         }
-        return Boolean.FALSE;
+        return Optional.ofNullable(this.statObjectCached(bucketName, objectName))
+                .map(ObjectStat::exists)
+                .orElse(Boolean.FALSE);
     }
 
     @Override
@@ -93,25 +411,35 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(bucketName);
         Objects.requireNonNull(folderName);
 
-        ListObjectsArgs listObjectsArgs = ListObjectsArgs.builder()
-                .bucket(bucketName)
-                .prefix(folderName)
-                .recursive(Boolean.FALSE)
-                .build();
-        Iterable<Result<Item>> results = minioClient.listObjects(listObjectsArgs);
-        try {
-            for (Result<Item> result : results) {
-                if (Optional.ofNullable(result.get())
-                        .map(Item::isDir)
-                        .orElse(Boolean.FALSE)) {
-                    return Boolean.TRUE;
-                }
-            }
+        // 找到第一个公共前缀即可停止，不必列举完整个目录
+        ListObjectsQuery query = new ListObjectsQuery(folderName, "/", null, ListObjectsQuery.MAX_PAGE_SIZE, false);
+        try (Stream<ObjectSummary> summaries = this.listObjects(bucketName, query)) {
+            return summaries.anyMatch(ObjectSummary::prefix);
         } catch (Exception ignored) {
         }
         return Boolean.FALSE;
     }
 
+    @Override
+    public Stream<ObjectSummary> listObjects(String bucketName, String prefix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(prefix);
+
+        return this.listObjects(bucketName, ListObjectsQuery.of(prefix));
+    }
+
+    @Override
+    public Stream<ObjectSummary> listObjects(String bucketName, ListObjectsQuery query) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(query);
+
+        ObjectListingIterator iterator = new ObjectListingIterator(multipartClient, minioProperties.getRegion(),
+                bucketName, query);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
     @Override
     public Boolean createBucket(String bucketName) {
         Objects.requireNonNull(bucketName);
@@ -125,6 +453,9 @@ public class MyMinioClient implements OssClient {
                 .build();
         try {
             minioClient.makeBucket(makeBucketArgs);
+            if (Objects.nonNull(metadataCache)) {
+                metadataCache.putBucketExist(bucketName, true);
+            }
             return Boolean.TRUE;
         } catch (Exception e) {
             log.warn("创建 bucket: {} 异常", bucketName, e);
@@ -145,6 +476,10 @@ public class MyMinioClient implements OssClient {
                 .build();
         try {
             minioClient.removeBucket(removeBucketArgs);
+            if (Objects.nonNull(metadataCache)) {
+                metadataCache.invalidateBucket(bucketName);
+                metadataCache.putBucketExist(bucketName, false);
+            }
             return Boolean.TRUE;
         } catch (Exception e) {
             log.warn("移除 bucket: {} 异常", bucketName, e);
@@ -157,30 +492,9 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(bucketName);
         Objects.requireNonNull(objectName);
 
-        // 文件对象不存在
-        if (!this.isObjectExist(bucketName, objectName)) {
-            return null;
-        }
-
-        // 获取文件对象
-        GetObjectArgs getObjectArgs = GetObjectArgs.builder()
-                .bucket(bucketName)
-                .object(objectName)
-                .build();
-        GetObjectResponse getObjectResponse = null;
-        try {
-            getObjectResponse = minioClient.getObject(getObjectArgs);
-        } catch (Exception e) {
-            log.warn("获取 object: {} / {} 异常", bucketName, objectName, e);
-            return null;
-        }
-
         // 字节输出流
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        try {
-            getObjectResponse.transferTo(byteArrayOutputStream);
-        } catch (IOException e) {
-            log.warn("获取 object 字节流: {} / {} 异常", bucketName, objectName, e);
+        if (Objects.isNull(this.getObject(bucketName, objectName, byteArrayOutputStream))) {
             return null;
         }
         return byteArrayOutputStream;
@@ -193,148 +507,1092 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(offset);
         Objects.requireNonNull(length);
 
-        // 文件对象不存在
-        if (!this.isObjectExist(bucketName, objectName)) {
+        // 字节输出流
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        if (Objects.isNull(this.getObject(bucketName, objectName, offset, length, byteArrayOutputStream))) {
             return null;
         }
+        return byteArrayOutputStream;
+    }
+
+    @Override
+    public InputStream getObjectInputStream(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        // 尚未上传的文件对象直接读取暂存数据
+        if (Objects.nonNull(writeBehindQueue)) {
+            InputStream spooled = writeBehindQueue.open(bucketName, objectName);
+            if (Objects.nonNull(spooled)) {
+                return spooled;
+            }
+        }
+
+        // 优先读取本地缓存
+        Path cachedFile = this.getCachedObject(bucketName, objectName);
+        if (Objects.nonNull(cachedFile)) {
+            try {
+                return Files.newInputStream(cachedFile);
+            } catch (IOException e) {
+                log.debug("读取本地缓存: {} / {} 异常", bucketName, objectName, e);
+            }
+        }
 
-        // 获取文件对象
         GetObjectArgs getObjectArgs = GetObjectArgs.builder()
                 .bucket(bucketName)
                 .object(objectName)
-                .offset(offset)
-                .length(length)
                 .build();
-        GetObjectResponse getObjectResponse = null;
-        try {
-            getObjectResponse = minioClient.getObject(getObjectArgs);
-        } catch (Exception e) {
-            log.warn("获取切片 object: {} / {} 异常", bucketName, objectName, e);
-            return null;
+        GetObjectResponse getObjectResponse = this.getObjectInputStream(getObjectArgs);
+        if (Objects.isNull(getObjectResponse) || !GzipFrameCodec.isCompressed(getObjectResponse.headers())) {
+            return getObjectResponse;
         }
-
-        // 字节输出流
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         try {
-            getObjectResponse.transferTo(byteArrayOutputStream);
+            return frameCodec.decompress(getObjectResponse);
         } catch (IOException e) {
-            log.warn("获取切片 object 字节流: {} / {} 异常", bucketName, objectName, e);
-            return null;
+            log.warn("解压 object: {} / {} 异常", bucketName, objectName, e);
+            IoUtil.close(getObjectResponse);
         }
-        return byteArrayOutputStream;
+        return null;
     }
 
     @Override
-    public Boolean removeObject(String bucketName, String objectName) {
+    public InputStream getObjectInputStream(String bucketName, String objectName, Long offset, Long length) {
         Objects.requireNonNull(bucketName);
         Objects.requireNonNull(objectName);
+        Objects.requireNonNull(offset);
+        Objects.requireNonNull(length);
 
-        // 文件对象不存在
-        if (!this.isObjectExist(bucketName, objectName)) {
-            return null;
+        // 尚未上传的文件对象直接读取暂存数据
+        if (Objects.nonNull(writeBehindQueue)) {
+            InputStream spooled = writeBehindQueue.open(bucketName, objectName, offset, length);
+            if (Objects.nonNull(spooled)) {
+                return spooled;
+            }
         }
 
-        RemoveObjectArgs removeObjectArgs = RemoveObjectArgs.builder()
+        // 缓存的元数据表明已压缩时，直接换算为压缩帧的范围，不再发起一次无用的范围请求
+        ObjectStat cachedStat = Objects.isNull(metadataCache) ? null : this.statObjectCached(bucketName, objectName);
+        if (Objects.nonNull(cachedStat) && cachedStat.exists()
+                && GzipFrameCodec.isCompressed(cachedStat.userMetadata())) {
+            return this.getCompressedRange(bucketName, cachedStat, offset, length, true);
+        }
+
+        GetObjectArgs getObjectArgs = GetObjectArgs.builder()
                 .bucket(bucketName)
                 .object(objectName)
+                .offset(offset)
+                .length(length)
                 .build();
+        GetObjectResponse getObjectResponse = this.getObjectInputStream(getObjectArgs);
+        if (Objects.isNull(getObjectResponse) || !GzipFrameCodec.isCompressed(getObjectResponse.headers())) {
+            return getObjectResponse;
+        }
+
+        // 元数据未缓存：压缩帧的范围按响应头中的大小和 etag 换算，无需再查询一次
+        ObjectStat objectStat = GzipFrameCodec.stat(objectName, getObjectResponse.headers());
+        IoUtil.close(getObjectResponse);
+        if (Objects.isNull(objectStat)) {
+            objectStat = this.statObject(bucketName, objectName);
+            if (Objects.isNull(objectStat) || !objectStat.exists()) {
+                return null;
+            }
+        }
+        return this.getCompressedRange(bucketName, objectStat, offset, length, true);
+    }
+
+    /**
+     * 读取压缩文件对象的原始数据中的一段
+     *
+     * @param retry 文件对象在读取期间被覆盖时，是否重新查询元数据后再读一次
+     * @return 原始数据的输入流，失败时返回 null
+     */
+    private InputStream getCompressedRange(String bucketName, ObjectStat objectStat, long offset, long length,
+                                           boolean retry) {
+        String objectName = objectStat.objectName();
         try {
-            minioClient.removeObject(removeObjectArgs);
-            return Boolean.TRUE;
+            return frameCodec.getRange(bucketName, objectStat, offset, length);
         } catch (Exception e) {
-            log.warn("移除 object: {} / {} 异常", bucketName, objectName, e);
+            if (!retry || !this.isPreconditionFailed(e)) {
+                log.warn("获取切片 object: {} / {} 异常", bucketName, objectName, e);
+                return null;
+            }
         }
-        return Boolean.FALSE;
+
+        // 元数据已过期，重新查询
+        this.evictObject(bucketName, objectName);
+        ObjectStat latest = this.statObjectCached(bucketName, objectName);
+        if (Objects.isNull(latest) || !latest.exists()) {
+            return null;
+        }
+        if (GzipFrameCodec.isCompressed(latest.userMetadata())) {
+            return this.getCompressedRange(bucketName, latest, offset, length, false);
+        }
+        return this.getObjectInputStream(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(offset)
+                .length(length)
+                .matchETag(latest.etag())
+                .build());
     }
 
     @Override
-    public String upload4Base64(String bucketName, String base64, String suffix) {
+    public Long getObject(String bucketName, String objectName, OutputStream outputStream) {
+        Objects.requireNonNull(outputStream);
+
+        // 优先读取本地缓存
+        Path cachedFile = this.getCachedObject(bucketName, objectName);
+        if (Objects.nonNull(cachedFile)) {
+            CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+            try {
+                return diskObjectCache.transferTo(cachedFile, countingOutputStream);
+            } catch (IOException e) {
+                // 已写出部分数据时无法重来
+                if (countingOutputStream.getCount() > 0) {
+                    log.warn("读取本地缓存: {} / {} 异常", bucketName, objectName, e);
+                    return null;
+                }
+                // 缓存文件可能恰好被淘汰，改为从服务端读取
+                log.debug("读取本地缓存: {} / {} 异常", bucketName, objectName, e);
+                diskObjectCache.invalidate(bucketName, objectName);
+            }
+        }
+
+        return this.transferTo(this.getObjectInputStream(bucketName, objectName), outputStream,
+                bucketName, objectName);
+    }
+
+    @Override
+    public Long getObject(String bucketName, String objectName, Long offset, Long length,
+                          OutputStream outputStream) {
+        Objects.requireNonNull(outputStream);
+
+        return this.transferTo(this.getObjectInputStream(bucketName, objectName, offset, length), outputStream,
+                bucketName, objectName);
+    }
+
+    @Override
+    public Long getObject(String bucketName, String objectName, Path localFile) {
         Objects.requireNonNull(bucketName);
-        Objects.requireNonNull(base64);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(localFile);
+
+        // 优先读取本地缓存
+        Path cachedFile = this.getCachedObject(bucketName, objectName);
+        if (Objects.nonNull(cachedFile)) {
+            FileUtil.mkParentDirs(localFile.toFile());
+            try {
+                return diskObjectCache.transferTo(cachedFile, localFile);
+            } catch (IOException e) {
+                log.debug("读取本地缓存: {} / {} 异常", bucketName, objectName, e);
+            }
+        }
 
-        return this.upload4Bytes(bucketName, base64.getBytes(StandardCharsets.UTF_8), suffix);
+        InputStream inputStream = this.getObjectInputStream(bucketName, objectName);
+        if (Objects.isNull(inputStream)) {
+            return null;
+        }
+        Long length;
+        // 创建父目录
+        FileUtil.mkParentDirs(localFile.toFile());
+        try (OutputStream outputStream = Files.newOutputStream(localFile)) {
+            length = this.transferTo(inputStream, outputStream, bucketName, objectName);
+        } catch (IOException e) {
+            log.warn("写入本地文件: {} 异常", localFile, e);
+            IoUtil.close(inputStream);
+            length = null;
+        }
+        // 下载失败时不保留残缺的本地文件
+        if (Objects.isNull(length)) {
+            FileUtil.del(localFile);
+        }
+        return length;
     }
 
     @Override
-    public String upload4LocalFile(String bucketName, String localFile) {
+    public Long download4LocalFile(String bucketName, String objectName, Path localFile) {
         Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
         Objects.requireNonNull(localFile);
 
-        // 文件存在，且为文件类型
-        File file = new File(localFile);
-        if (!file.exists() || !file.isFile()) {
+        ObjectStat objectStat = this.statObject(bucketName, objectName);
+        if (Objects.isNull(objectStat) || !objectStat.exists()) {
             return null;
         }
 
-        String fileName = file.getName();
-        // 生成随机的名称
-        String objectName = IdUtil.fastSimpleUUID() + "." + FileNameUtil.getSuffix(fileName);
-        // 获取文件类型
-        String mimeType = FileUtil.getMimeType(fileName);
+        // 小文件、压缩的文件直接单连接下载
+        long size = objectStat.size();
+        if (size <= minioProperties.getDownload().getPartSize()
+                || GzipFrameCodec.isCompressed(objectStat.userMetadata())) {
+            return this.getObject(bucketName, objectName, localFile);
+        }
 
+        FileUtil.mkParentDirs(localFile.toFile());
         try {
-            UploadObjectArgs uploadObjectArgs = UploadObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .filename(localFile)
-                    .contentType(mimeType)
-                    .build();
-            ObjectWriteResponse objectWriteResponse = minioClient.uploadObject(uploadObjectArgs);
-            return objectWriteResponse.object();
+            parallelDownloader.download(bucketName, objectName, objectStat.etag(), size, localFile);
+            return size;
         } catch (Exception e) {
-            log.warn("上传 object: {} 异常", bucketName, e);
+            log.warn("分片下载 object: {} / {} 异常", bucketName, objectName, e);
         }
-        return "";
+        // 下载失败时不保留残缺的本地文件
+        FileUtil.del(localFile);
+        return null;
     }
 
     @Override
-    public String upload4InputStream(String bucketName, InputStream inputStream, String fileName) {
+    public DirectorySyncResult upload4LocalDirectory(String bucketName, Path localDirectory, String prefix) {
         Objects.requireNonNull(bucketName);
-        Objects.requireNonNull(inputStream);
-        Objects.requireNonNull(fileName);
+        Objects.requireNonNull(localDirectory);
+        Objects.requireNonNull(prefix);
 
-        // 生成随机的名称
-        String objectName = IdUtil.fastSimpleUUID() + "." + fileName;
-        String mimeType = FileUtil.getMimeType(objectName);
+        if (!Files.isDirectory(localDirectory)) {
+            return null;
+        }
+        String objectPrefix = SyncManifest.objectPrefix(prefix);
+        String manifestObjectName = objectPrefix + SyncManifest.FILE_NAME;
+        List<Path> files;
+        SyncManifest previous;
+        // 文件对象可能在上次同步后被删除或覆盖，跳过文件前还需要核对服务端当前的 etag
+        Map<String, String> objectEtags = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(localDirectory)) {
+            files = paths.filter(Files::isRegularFile).toList();
+            previous = this.readManifest(bucketName, manifestObjectName);
+            if (!previous.isEmpty()) {
+                try (Stream<ObjectSummary> objects = this.listObjects(bucketName, objectPrefix)) {
+                    objects.forEach(summary -> objectEtags.put(summary.objectName(), summary.etag()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("同步本地目录: {} 到 {} / {} 异常", localDirectory, bucketName, objectPrefix, e);
+            return null;
+        }
+
+        // 清单只保留本次仍存在且同步成功的文件，失败的文件下次重新上传
+        SyncManifest current = new SyncManifest();
+        SyncCounter counter = new SyncCounter();
+        List<Supplier<Void>> tasks = files.stream()
+                .<Supplier<Void>>map(file -> () -> {
+                    this.uploadSyncFile(bucketName, objectPrefix, localDirectory, file, previous, objectEtags,
+                            current, counter);
+                    return null;
+                })
+                .toList();
+        this.runConcurrently(tasks, minioProperties.getBatch().getParallelism());
+
+        ByteArrayOutputStream manifestOutputStream = new ByteArrayOutputStream();
         try {
+            current.write(manifestOutputStream);
             PutObjectArgs putObjectArgs = PutObjectArgs.builder()
                     .bucket(bucketName)
-                    .object(objectName)
-                    .stream(inputStream, inputStream.available(), -1)
-                    .contentType(mimeType)
+                    .object(manifestObjectName)
+                    .stream(new ByteArrayInputStream(manifestOutputStream.toByteArray()),
+                            manifestOutputStream.size(), -1)
+                    .contentType(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType())
                     .build();
-            ObjectWriteResponse objectWriteResponse = minioClient.putObject(putObjectArgs);
-            return objectWriteResponse.object();
+            minioClient.putObject(putObjectArgs);
+            this.evictObject(bucketName, manifestObjectName);
         } catch (Exception e) {
-            log.warn("上传 object: {} 异常", bucketName, e);
+            // 清单保存失败不影响已上传的文件，下次同步时全部重新上传
+            log.warn("保存同步清单: {} / {} 异常", bucketName, manifestObjectName, e);
         }
-        return "";
+        return counter.toResult();
     }
 
-    @Override
-    public String upload4Bytes(String bucketName, byte[] bytes, String suffix) {
-        Objects.requireNonNull(bucketName);
-        Objects.requireNonNull(bytes);
-        Objects.requireNonNull(suffix);
+    /**
+     * 上传一个待同步的本地文件，大小和修改时间与清单一致、且文件对象的 etag 仍与清单一致时跳过
+     *
+     * @param objectEtags 前缀下现有文件对象的 etag
+     */
+    private void uploadSyncFile(String bucketName, String objectPrefix, Path localDirectory, Path file,
+                                SyncManifest previous, Map<String, String> objectEtags,
+                                SyncManifest current, SyncCounter counter) {
+        String relativePath = SyncManifest.relativePath(localDirectory, file);
+        if (Objects.isNull(relativePath)) {
+            log.warn("本地文件: {} 名称包含换行符，无法同步", file);
+            counter.failed(file.toString());
+            return;
+        }
+        if (SyncManifest.isManifest(relativePath)) {
+            return;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String objectName = objectPrefix + relativePath;
+            String objectEtag = objectEtags.get(objectName);
+            SyncManifest.Entry entry = previous.get(relativePath);
+            if (Objects.nonNull(entry) && entry.matches(attributes.size(), lastModified)
+                    && Objects.nonNull(objectEtag) && entry.matches(objectEtag)) {
+                current.put(relativePath, entry);
+                counter.skipped();
+                return;
+            }
 
-        // 生成随机的文件名称
-        String objectName = IdUtil.fastSimpleUUID() + "." + suffix;
-        try (ByteArrayInputStream byteArrayInputStream =
-                     new ByteArrayInputStream(bytes)) {
-            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+            UploadObjectArgs uploadObjectArgs = UploadObjectArgs.builder()
                     .bucket(bucketName)
                     .object(objectName)
-                    .stream(byteArrayInputStream, byteArrayInputStream.available(), -1)
-                    .contentType(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType())
+                    .filename(file.toString())
+                    .contentType(Optional.ofNullable(FileUtil.getMimeType(relativePath))
+                            .orElse(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType()))
                     .build();
-            ObjectWriteResponse objectWriteResponse = minioClient.putObject(putObjectArgs);
-            return objectWriteResponse.object();
+            ObjectWriteResponse objectWriteResponse = minioClient.uploadObject(uploadObjectArgs);
+            this.evictObject(bucketName, objectName);
+            current.put(relativePath, new SyncManifest.Entry(attributes.size(), lastModified,
+                    objectWriteResponse.etag()));
+            counter.transferred(attributes.size());
         } catch (Exception e) {
-            log.warn("上传 object: {} 异常", bucketName, e);
+            log.warn("同步上传 object: {} / {} 异常", bucketName, relativePath, e);
+            counter.failed(relativePath);
+        }
+    }
+
+    /**
+     * 读取保存在 bucket 中的同步清单
+     *
+     * @return 同步清单，不存在时返回空清单
+     */
+    private SyncManifest readManifest(String bucketName, String manifestObjectName) throws Exception {
+        GetObjectArgs getObjectArgs = GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(manifestObjectName)
+                .build();
+        try (GetObjectResponse getObjectResponse = minioClient.getObject(getObjectArgs)) {
+            return SyncManifest.read(getObjectResponse);
+        } catch (Exception e) {
+            if (this.isNoSuchKey(e)) {
+                return new SyncManifest();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public DirectorySyncResult download4LocalDirectory(String bucketName, String prefix, Path localDirectory) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(localDirectory);
+
+        String objectPrefix = SyncManifest.objectPrefix(prefix);
+        Path rootDirectory = localDirectory.toAbsolutePath().normalize();
+        Path manifestFile = rootDirectory.resolve(SyncManifest.FILE_NAME);
+        List<Item> items = new ArrayList<>();
+        SyncManifest previous;
+        try {
+            Files.createDirectories(rootDirectory);
+            previous = SyncManifest.read(manifestFile);
+            ListObjectsArgs listObjectsArgs = ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .prefix(objectPrefix)
+                    .recursive(Boolean.TRUE)
+                    .build();
+            for (Result<Item> result : minioClient.listObjects(listObjectsArgs)) {
+                Item item = result.get();
+                if (!item.isDir() && !SyncManifest.isManifest(item.objectName().substring(objectPrefix.length()))) {
+                    items.add(item);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("同步 {} / {} 到本地目录: {} 异常", bucketName, objectPrefix, localDirectory, e);
+            return null;
+        }
+
+        SyncManifest current = new SyncManifest();
+        SyncCounter counter = new SyncCounter();
+        List<Supplier<Void>> tasks = items.stream()
+                .<Supplier<Void>>map(item -> () -> {
+                    this.downloadSyncObject(bucketName, objectPrefix, rootDirectory, item, previous, current, counter);
+                    return null;
+                })
+                .toList();
+        this.runConcurrently(tasks, minioProperties.getBatch().getParallelism());
+
+        try {
+            current.write(manifestFile);
+        } catch (IOException e) {
+            log.warn("保存同步清单: {} 异常", manifestFile, e);
+        }
+        return counter.toResult();
+    }
+
+    /**
+     * 下载一个待同步的文件对象，etag 与清单一致且本地文件未被修改时跳过
+     */
+    private void downloadSyncObject(String bucketName, String objectPrefix, Path rootDirectory, Item item,
+                                    SyncManifest previous, SyncManifest current, SyncCounter counter) {
+        String relativePath = item.objectName().substring(objectPrefix.length());
+        Path localFile = rootDirectory.resolve(relativePath).normalize();
+        if (!localFile.startsWith(rootDirectory) || localFile.equals(rootDirectory)
+                || relativePath.indexOf('\n') >= 0 || relativePath.indexOf('\r') >= 0) {
+            log.warn("object: {} / {} 无法映射到本地目录: {}，跳过", bucketName, item.objectName(), rootDirectory);
+            counter.failed(relativePath);
+            return;
+        }
+        try {
+            SyncManifest.Entry entry = previous.get(relativePath);
+            if (Objects.nonNull(entry) && entry.matches(item.etag()) && Files.isRegularFile(localFile)) {
+                BasicFileAttributes attributes = Files.readAttributes(localFile, BasicFileAttributes.class);
+                if (entry.matches(attributes.size(), attributes.lastModifiedTime().toMillis())) {
+                    current.put(relativePath, entry);
+                    counter.skipped();
+                    return;
+                }
+            }
+
+            // 小文件直接单连接下载，省去一次元数据查询
+            Long length = item.size() <= minioProperties.getDownload().getPartSize()
+                    ? this.getObject(bucketName, item.objectName(), localFile)
+                    : this.download4LocalFile(bucketName, item.objectName(), localFile);
+            if (Objects.isNull(length)) {
+                counter.failed(relativePath);
+                return;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(localFile, BasicFileAttributes.class);
+            current.put(relativePath, new SyncManifest.Entry(attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), item.etag()));
+            counter.transferred(length);
+        } catch (Exception e) {
+            log.warn("同步下载 object: {} / {} 异常", bucketName, item.objectName(), e);
+            counter.failed(relativePath);
+        }
+    }
+
+    /**
+     * 获取文件对象的本地缓存文件，未命中时下载到本地缓存
+     * 通过比对服务端的 etag 判断缓存是否有效
+     *
+     * @return 本地缓存文件，未启用缓存、文件对象不存在、超过可缓存大小、已压缩或下载失败时返回 null
+     */
+    private Path getCachedObject(String bucketName, String objectName) {
+        if (Objects.isNull(diskObjectCache)) {
+            return null;
+        }
+        ObjectStat objectStat = this.statObjectCached(bucketName, objectName);
+        if (Objects.isNull(objectStat) || !objectStat.exists()
+                || objectStat.size() > minioProperties.getDiskCache().getMaxObjectSize()
+                || GzipFrameCodec.isCompressed(objectStat.userMetadata())) {
+            return null;
+        }
+        Path cachedFile = diskObjectCache.get(bucketName, objectName, objectStat.etag());
+        if (Objects.nonNull(cachedFile)) {
+            return cachedFile;
+        }
+
+        // 未命中，下载与 etag 一致的版本到本地缓存
+        Path tempFile = diskObjectCache.createTempFile();
+        GetObjectArgs getObjectArgs = GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .matchETag(objectStat.etag())
+                .build();
+        try (GetObjectResponse getObjectResponse = minioClient.getObject(getObjectArgs);
+             OutputStream outputStream = Files.newOutputStream(tempFile)) {
+            IoUtil.copy(getObjectResponse, outputStream, minioProperties.getBufferSize());
+        } catch (Exception e) {
+            // etag 已变化时缓存的元数据也已过时
+            this.evictObject(bucketName, objectName);
+            FileUtil.del(tempFile);
+            log.debug("写入本地缓存: {} / {} 异常", bucketName, objectName, e);
+            return null;
+        }
+        return diskObjectCache.put(bucketName, objectName, objectStat.etag(), tempFile);
+    }
+
+    private GetObjectResponse getObjectInputStream(GetObjectArgs getObjectArgs) {
+        try {
+            return requestHedger.call("GetObject", () -> minioClient.getObject(getObjectArgs), IoUtil::close);
+        } catch (Exception e) {
+            // 文件对象不存在
+            if (this.isNoSuchKey(e)) {
+                return null;
+            }
+            log.warn("获取 object: {} / {} 异常", getObjectArgs.bucket(), getObjectArgs.object(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 使用固定大小的缓冲区将输入流写入到输出流中，完成后关闭输入流
+     *
+     * @return 写入的字节数，输入流为 null 或写入失败时返回 null
+     */
+    private Long transferTo(InputStream inputStream, OutputStream outputStream,
+                            String bucketName, String objectName) {
+        if (Objects.isNull(inputStream)) {
+            return null;
+        }
+        try (inputStream) {
+            return IoUtil.copy(inputStream, outputStream, minioProperties.getBufferSize());
+        } catch (Exception e) {
+            log.warn("获取 object 字节流: {} / {} 异常", bucketName, objectName, e);
         }
         return null;
     }
 
+    private boolean isNoSuchKey(Exception e) {
+        return e instanceof ErrorResponseException errorResponseException
+                && "NoSuchKey".equals(errorResponseException.errorResponse().code());
+    }
+
+    private boolean isPreconditionFailed(Exception e) {
+        return e instanceof ErrorResponseException errorResponseException
+                && "PreconditionFailed".equals(errorResponseException.errorResponse().code());
+    }
+
+    @Override
+    public Boolean removeObject(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        // 内容相同的上传共享同一个文件对象，删除会影响其他持有者
+        if (this.isSharedDedupObject(objectName)) {
+            log.warn("已启用内容寻址，拒绝删除可能被共享的 object: {} / {}", bucketName, objectName);
+            return Boolean.FALSE;
+        }
+
+        // 先取消尚未上传的写入，否则删除后又会被上传
+        boolean cancelled;
+        try {
+            cancelled = this.cancelWriteBehind(bucketName, objectName);
+        } catch (IOException e) {
+            log.warn("取消异步上传 object: {} / {} 异常", bucketName, objectName, e);
+            return Boolean.FALSE;
+        }
+
+        // 文件对象不存在
+        if (!this.isObjectExist(bucketName, objectName)) {
+            return cancelled ? Boolean.TRUE : null;
+        }
+
+        RemoveObjectArgs removeObjectArgs = RemoveObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build();
+        try {
+            minioClient.removeObject(removeObjectArgs);
+            this.evictObject(bucketName, objectName);
+            return Boolean.TRUE;
+        } catch (Exception e) {
+            log.warn("移除 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Map<String, Boolean> removeObjects(String bucketName, Collection<String> objectNames) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectNames);
+
+        // 默认全部成功，再根据服务端返回的错误逐个修正
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        objectNames.forEach(objectName -> results.put(objectName, Boolean.TRUE));
+
+        // 先取消尚未上传的写入，取消失败的文件对象不再删除
+        List<String> removableObjectNames = new ArrayList<>(results.size());
+        for (String objectName : results.keySet()) {
+            if (this.isSharedDedupObject(objectName)) {
+                log.warn("已启用内容寻址，拒绝删除可能被共享的 object: {} / {}", bucketName, objectName);
+                results.put(objectName, Boolean.FALSE);
+                continue;
+            }
+            try {
+                this.cancelWriteBehind(bucketName, objectName);
+                removableObjectNames.add(objectName);
+            } catch (IOException e) {
+                log.warn("取消异步上传 object: {} / {} 异常", bucketName, objectName, e);
+                results.put(objectName, Boolean.FALSE);
+            }
+        }
+
+        List<Supplier<List<String>>> tasks = Lists.partition(removableObjectNames, MAX_DELETE_BATCH_SIZE)
+                .stream()
+                .<Supplier<List<String>>>map(batch -> () -> this.removeBatch(bucketName, batch))
+                .toList();
+        this.runConcurrently(tasks, minioProperties.getBatch().getParallelism())
+                .forEach(failedObjectNames -> failedObjectNames
+                        .forEach(failedObjectName -> results.put(failedObjectName, Boolean.FALSE)));
+        results.keySet().forEach(objectName -> this.evictObject(bucketName, objectName));
+        return results;
+    }
+
+    /**
+     * 取消异步写入队列中尚未上传的文件对象
+     *
+     * @return 是否取消了排队中的上传
+     */
+    private boolean cancelWriteBehind(String bucketName, String objectName) throws IOException {
+        return Objects.nonNull(writeBehindQueue) && writeBehindQueue.cancel(bucketName, objectName);
+    }
+
+    /**
+     * 执行一次批量删除请求
+     *
+     * @return 删除失败的文件对象
+     */
+    private List<String> removeBatch(String bucketName, List<String> objectNames) {
+        RemoveObjectsArgs removeObjectsArgs = RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(objectNames.stream()
+                        .map(DeleteObject::new)
+                        .toList())
+                .build();
+        List<String> failedObjectNames = new ArrayList<>();
+        try {
+            for (Result<DeleteError> result : minioClient.removeObjects(removeObjectsArgs)) {
+                DeleteError deleteError = result.get();
+                log.warn("批量移除 object: {} / {} 失败，{}",
+                        bucketName, deleteError.objectName(), deleteError.message());
+                failedObjectNames.add(deleteError.objectName());
+            }
+        } catch (Exception e) {
+            log.warn("批量移除 object: {} 异常", bucketName, e);
+            return objectNames;
+        }
+        return failedObjectNames;
+    }
+
+    @Override
+    public Map<String, ObjectStat> statObjects(String bucketName, Collection<String> objectNames) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectNames);
+
+        List<String> distinctObjectNames = objectNames.stream()
+                .distinct()
+                .toList();
+        List<Supplier<ObjectStat>> tasks = distinctObjectNames.stream()
+                .<Supplier<ObjectStat>>map(objectName -> () -> this.withUncompressedSize(bucketName,
+                        this.statObjectCached(bucketName, objectName)))
+                .toList();
+        List<ObjectStat> objectStats = this.runConcurrently(tasks, minioProperties.getBatch().getParallelism());
+
+        Map<String, ObjectStat> results = new LinkedHashMap<>();
+        for (int i = 0; i < distinctObjectNames.size(); i++) {
+            results.put(distinctObjectNames.get(i), objectStats.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * 压缩的文件对象以尾部记录的原始长度作为大小，与 getObject* 读取到的数据一致
+     *
+     * @return 文件对象元数据，读取尾部失败时返回 null
+     */
+    private ObjectStat withUncompressedSize(String bucketName, ObjectStat objectStat) {
+        if (Objects.isNull(objectStat) || !objectStat.exists()
+                || !GzipFrameCodec.isCompressed(objectStat.userMetadata())) {
+            return objectStat;
+        }
+        try {
+            return new ObjectStat(objectStat.objectName(), true,
+                    frameCodec.uncompressedLength(bucketName, objectStat), objectStat.etag(),
+                    objectStat.lastModified(), objectStat.contentType(), objectStat.userMetadata());
+        } catch (Exception e) {
+            log.warn("查询压缩 object: {} / {} 原始长度异常", bucketName, objectStat.objectName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 查询一个文件对象的元数据，启用缓存时优先读取缓存
+     *
+     * @return 文件对象元数据，查询失败时返回 null
+     */
+    private ObjectStat statObjectCached(String bucketName, String objectName) {
+        if (Objects.isNull(metadataCache)) {
+            return this.statObject(bucketName, objectName);
+        }
+        ObjectStat objectStat = metadataCache.getObjectStat(bucketName, objectName);
+        if (Objects.nonNull(objectStat)) {
+            return objectStat;
+        }
+        objectStat = this.statObject(bucketName, objectName);
+        if (Objects.nonNull(objectStat)) {
+            metadataCache.putObjectStat(bucketName, objectStat);
+        }
+        return objectStat;
+    }
+
+    /**
+     * 文件对象被本客户端写入或删除后，移除其缓存的元数据
+     */
+    private void evictObject(String bucketName, String objectName) {
+        if (Objects.nonNull(metadataCache)) {
+            metadataCache.invalidateObject(bucketName, objectName);
+        }
+        if (Objects.nonNull(diskObjectCache)) {
+            diskObjectCache.invalidate(bucketName, objectName);
+        }
+    }
+
+    /**
+     * 查询一个文件对象的元数据
+     *
+     * @return 文件对象元数据，查询失败时返回 null
+     */
+    private ObjectStat statObject(String bucketName, String objectName) {
+        StatObjectArgs statObjectArgs = StatObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build();
+        try {
+            StatObjectResponse statObjectResponse = requestHedger.call("HeadObject",
+                    () -> minioClient.statObject(statObjectArgs), ignored -> {
+                    });
+            return new ObjectStat(objectName, true,
+                    statObjectResponse.size(),
+                    statObjectResponse.etag(),
+                    statObjectResponse.lastModified(),
+                    statObjectResponse.contentType(),
+                    statObjectResponse.userMetadata());
+        } catch (Exception e) {
+            if (this.isNoSuchKey(e)) {
+                return ObjectStat.notExist(objectName);
+            }
+            log.warn("查询 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return null;
+    }
+
+    /**
+     * 在虚拟线程池中并发执行任务，同时执行的任务数不超过 parallelism
+     * 任务需要自行处理异常
+     *
+     * @return 与任务顺序一致的执行结果
+     */
+    private <T> List<T> runConcurrently(List<Supplier<T>> tasks, int parallelism) {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Supplier<T> task : tasks) {
+                permits.acquire();
+                futures.add(executorService.submit(() -> {
+                    try {
+                        return task.get();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("并发任务被中断", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("并发任务执行异常", e.getCause());
+        }
+    }
+
+    @Override
+    public String upload4Base64(String bucketName, String base64, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(base64);
+
+        return this.upload4Base64(bucketName, new StringReader(base64), suffix);
+    }
+
+    @Override
+    public String upload4Base64(String bucketName, Reader base64Reader, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(base64Reader);
+
+        // 边解码边上传，不保留完整的解码数据
+        Base64Content base64Content;
+        try {
+            base64Content = Base64Content.decode(base64Reader);
+        } catch (Exception e) {
+            log.warn("解码 base64: {} 异常", bucketName, e);
+            return null;
+        }
+        // 与解码失败一致，上传失败时同样返回 null
+        String objectName = this.upload4InputStream(bucketName, base64Content.getInputStream(),
+                Optional.ofNullable(suffix).orElse(base64Content.getSuffix()), base64Content.getContentType());
+        return Objects.isNull(objectName) || objectName.isEmpty() ? null : objectName;
+    }
+
+    @Override
+    public String upload4LocalFile(String bucketName, String localFile) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(localFile);
+
+        // 文件存在，且为文件类型
+        File file = new File(localFile);
+        if (!file.exists() || !file.isFile()) {
+            return null;
+        }
+
+        String fileName = file.getName();
+        // 获取文件类型
+        String mimeType = FileUtil.getMimeType(fileName);
+
+        try {
+            String objectName;
+            if (this.isDedupEnabled()) {
+                // 内容寻址，已存在时跳过上传
+                try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+                    objectName = this.digestObjectName(this.digest(inputStream, OutputStream.nullOutputStream()),
+                            FileNameUtil.getSuffix(fileName));
+                }
+                if (this.isObjectExist(bucketName, objectName)) {
+                    return objectName;
+                }
+            } else {
+                // 生成随机的名称
+                objectName = IdUtil.fastSimpleUUID() + "." + FileNameUtil.getSuffix(fileName);
+            }
+            UploadObjectArgs uploadObjectArgs = UploadObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .filename(localFile)
+                    .contentType(mimeType)
+                    .build();
+            ObjectWriteResponse objectWriteResponse = minioClient.uploadObject(uploadObjectArgs);
+            this.evictObject(bucketName, objectWriteResponse.object());
+            return objectWriteResponse.object();
+        } catch (Exception e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return "";
+    }
+
+    @Override
+    public String upload4InputStream(String bucketName, InputStream inputStream, String fileName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(inputStream);
+        Objects.requireNonNull(fileName);
+
+        return this.upload4InputStream(bucketName, inputStream, fileName, null);
+    }
+
+    /**
+     * 上传一个长度未知的输入流
+     *
+     * @param contentType 媒体类型，为 null 时根据文件名称推断
+     * @return 上传完毕后文件在文件服务器的路径，失败时返回 ""
+     */
+    private String upload4InputStream(String bucketName, InputStream inputStream, String fileName,
+                                      String contentType) {
+        if (this.isDedupEnabled()) {
+            return this.upload4InputStreamDedup(bucketName, inputStream, fileName, contentType);
+        }
+
+        // 生成随机的名称
+        String objectName = IdUtil.fastSimpleUUID() + "." + fileName;
+        String mimeType = Optional.ofNullable(contentType).orElse(FileUtil.getMimeType(objectName));
+        try {
+            // 输入流长度未知，按分片并发上传
+            ObjectWriteResponse objectWriteResponse = this.uploadStream(bucketName, objectName,
+                    inputStream, Optional.ofNullable(mimeType)
+                            .orElse(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType()));
+            this.evictObject(bucketName, objectWriteResponse.object());
+            return objectWriteResponse.object();
+        } catch (Exception e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return "";
+    }
+
+    @Override
+    public String upload4Bytes(String bucketName, byte[] bytes, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(bytes);
+        Objects.requireNonNull(suffix);
+
+        String objectName = this.isDedupEnabled()
+                // 内容寻址
+                ? this.digestObjectName(this.newMessageDigest().digest(bytes), suffix)
+                // 生成随机的文件名称
+                : IdUtil.fastSimpleUUID() + "." + suffix;
+        if (Objects.nonNull(writeBehindQueue)) {
+            // 暂存到本地后立即返回，由后台上传
+            try {
+                writeBehindQueue.submit(bucketName, objectName, bytes);
+                return objectName;
+            } catch (Exception e) {
+                log.warn("暂存 object: {} / {} 异常", bucketName, objectName, e);
+            }
+            return null;
+        }
+        // 内容寻址时已存在则跳过上传
+        if (this.isDedupEnabled() && this.isObjectExist(bucketName, objectName)) {
+            return objectName;
+        }
+        try (ByteArrayInputStream byteArrayInputStream =
+                     new ByteArrayInputStream(bytes)) {
+            // 需要压缩时长度未知，按流上传
+            if (frameCodec.shouldCompress(bucketName, FileUtil.getMimeType(objectName))) {
+                ObjectWriteResponse objectWriteResponse = this.uploadStream(bucketName, objectName,
+                        byteArrayInputStream, ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType());
+                this.evictObject(bucketName, objectWriteResponse.object());
+                return objectWriteResponse.object();
+            }
+            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(byteArrayInputStream, byteArrayInputStream.available(), -1)
+                    .contentType(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType())
+                    .build();
+            ObjectWriteResponse objectWriteResponse = minioClient.putObject(putObjectArgs);
+            this.evictObject(bucketName, objectWriteResponse.object());
+            return objectWriteResponse.object();
+        } catch (Exception e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean putObject(String bucketName, String objectName, byte[] bytes) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(bytes);
+
+        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(bytes)) {
+            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(byteArrayInputStream, bytes.length, -1)
+                    .contentType(Optional.ofNullable(FileUtil.getMimeType(objectName))
+                            .orElse(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType()))
+                    .build();
+            minioClient.putObject(putObjectArgs);
+            this.evictObject(bucketName, objectName);
+            return Boolean.TRUE;
+        } catch (Exception e) {
+            log.warn("上传 object: {} / {} 异常", bucketName, objectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * 以内容寻址的方式上传未知长度的输入流
+     * 输入流先写入本地临时文件并同时计算摘要，服务端已存在相同内容时不再上传
+     *
+     * @return 上传完毕后文件在文件服务器的路径，失败时返回 ""
+     */
+    private String upload4InputStreamDedup(String bucketName, InputStream inputStream, String fileName,
+                                           String contentType) {
+        Path spoolFile = null;
+        try {
+            spoolFile = Files.createTempFile(Path.of(minioProperties.getDedup().getSpoolDirectory()),
+                    "oss-dedup-", ".tmp");
+            byte[] digest;
+            try (OutputStream outputStream = Files.newOutputStream(spoolFile)) {
+                digest = this.digest(inputStream, outputStream);
+            }
+            String objectName = this.digestObjectName(digest, fileName);
+            if (this.isObjectExist(bucketName, objectName)) {
+                return objectName;
+            }
+
+            String mimeType = Optional.ofNullable(contentType).orElse(FileUtil.getMimeType(objectName));
+            try (InputStream spoolInputStream = Files.newInputStream(spoolFile)) {
+                ObjectWriteResponse objectWriteResponse = this.uploadStream(bucketName, objectName,
+                        spoolInputStream, Optional.ofNullable(mimeType)
+                                .orElse(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType()));
+                this.evictObject(bucketName, objectWriteResponse.object());
+                return objectWriteResponse.object();
+            }
+        } catch (Exception e) {
+            log.warn("上传 object: {} 异常", bucketName, e);
+        } finally {
+            if (Objects.nonNull(spoolFile)) {
+                FileUtil.del(spoolFile);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 上传异步写入队列中暂存的数据，内容寻址时服务端已存在则跳过
+     */
+    private void uploadSpooled(String bucketName, String objectName, Path dataFile) throws Exception {
+        // 队列中的文件对象总是被视为存在，这里需要直接查询服务端
+        if (this.isDedupEnabled()) {
+            ObjectStat objectStat = this.statObject(bucketName, objectName);
+            if (Objects.nonNull(objectStat) && objectStat.exists()) {
+                return;
+            }
+        }
+        try (InputStream inputStream = Files.newInputStream(dataFile)) {
+            if (frameCodec.shouldCompress(bucketName, FileUtil.getMimeType(objectName))) {
+                this.uploadStream(bucketName, objectName, inputStream,
+                        ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType());
+            } else {
+                PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .stream(inputStream, Files.size(dataFile), -1)
+                        .contentType(ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType())
+                        .build();
+                minioClient.putObject(putObjectArgs);
+            }
+        }
+        this.evictObject(bucketName, objectName);
+    }
+
+    /**
+     * 按分片并发上传长度未知的输入流，命中压缩配置时边读取边压缩
+     */
+    private ObjectWriteResponse uploadStream(String bucketName, String objectName,
+                                             InputStream inputStream, String contentType) throws Exception {
+        String mimeType = Optional.ofNullable(FileUtil.getMimeType(objectName)).orElse(contentType);
+        if (frameCodec.shouldCompress(bucketName, mimeType)) {
+            return multipartUploader.upload(bucketName, objectName, frameCodec.compress(inputStream),
+                    contentType, frameCodec.metadata());
+        }
+        return multipartUploader.upload(bucketName, objectName, inputStream, contentType);
+    }
+
+    private boolean isDedupEnabled() {
+        return Boolean.TRUE.equals(minioProperties.getDedup().getEnabled());
+    }
+
+    private MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(minioProperties.getDedup().getAlgorithm());
+        } catch (NoSuchAlgorithmException e) {
+            // 构造时已校验
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 边读取输入流边计算摘要，同时将数据写入输出流
+     *
+     * @return 摘要
+     */
+    private byte[] digest(InputStream inputStream, OutputStream outputStream) throws IOException {
+        MessageDigest messageDigest = this.newMessageDigest();
+        byte[] buffer = new byte[minioProperties.getBufferSize()];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            messageDigest.update(buffer, 0, read);
+            outputStream.write(buffer, 0, read);
+        }
+        return messageDigest.digest();
+    }
+
+    private String digestObjectName(byte[] digest, String suffix) {
+        return HexFormat.of().formatHex(digest) + "." + suffix;
+    }
+
+    /**
+     * 启用内容寻址时，以摘要命名的文件对象可能被多个上传方共享
+     */
+    private boolean isSharedDedupObject(String objectName) {
+        if (!this.isDedupEnabled() || objectName.indexOf('/') >= 0) {
+            return false;
+        }
+        int digestLength = this.newMessageDigest().getDigestLength() * 2;
+        return objectName.indexOf('.') == digestLength
+                && objectName.chars().limit(digestLength).allMatch(HexFormat::isHexDigit);
+    }
+
     @Override
     public String composeObjects(String bucketName, List<String> sourceObjectNames, String suffix) {
         Objects.requireNonNull(bucketName);
@@ -342,14 +1600,21 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(suffix);
 
         // 获取已存在的文件
-        Boolean noCompleteExists = sourceObjectNames.stream()
-                .map(sourceObjectName -> !this.isObjectExist(bucketName, sourceObjectName))
-                .findAny()
-                .orElse(Boolean.TRUE);
+        boolean noCompleteExists = sourceObjectNames.isEmpty() || sourceObjectNames.stream()
+                .anyMatch(sourceObjectName -> !this.isObjectExist(bucketName, sourceObjectName));
         if (noCompleteExists) {
             log.info("存在文件未上传成功");
             return null;
         }
+        // 服务端只会拼接字节，压缩文件对象的帧、索引和尾部拼接后无法再解压
+        boolean anyCompressed = sourceObjectNames.stream()
+                .map(sourceObjectName -> this.statObjectCached(bucketName, sourceObjectName))
+                .anyMatch(objectStat -> Objects.isNull(objectStat)
+                        || GzipFrameCodec.isCompressed(objectStat.userMetadata()));
+        if (anyCompressed) {
+            log.warn("bucket: {} 中存在压缩或无法查询元数据的文件对象，不能合并", bucketName);
+            return null;
+        }
 
         // 生成随机的文件名称
         String objectName = IdUtil.fastSimpleUUID() + "." + suffix;
@@ -365,6 +1630,7 @@ public class MyMinioClient implements OssClient {
                 .build();
         try {
             ObjectWriteResponse objectWriteResponse = minioClient.composeObject(composeObjectArgs);
+            this.evictObject(bucketName, objectWriteResponse.object());
             return objectWriteResponse.object();
         } catch (Exception e) {
             log.warn("合并 object: {} / {} 异常", bucketName, sourceObjectNames, e);
@@ -372,6 +1638,252 @@ public class MyMinioClient implements OssClient {
         return null;
     }
 
+    @Override
+    public Boolean copyObject(String sourceBucketName, String sourceObjectName,
+                              String targetBucketName, String targetObjectName) {
+        Objects.requireNonNull(sourceBucketName);
+        Objects.requireNonNull(sourceObjectName);
+        Objects.requireNonNull(targetBucketName);
+        Objects.requireNonNull(targetObjectName);
+
+        // 复制需要最新的大小和 etag，不读取缓存
+        ObjectStat source = this.statObject(sourceBucketName, sourceObjectName);
+        if (Objects.isNull(source)) {
+            return Boolean.FALSE;
+        }
+        // 文件对象不存在
+        if (!source.exists()) {
+            return null;
+        }
+        return this.copyObject(sourceBucketName, source, targetBucketName, targetObjectName);
+    }
+
+    @Override
+    public Boolean moveObject(String sourceBucketName, String sourceObjectName,
+                              String targetBucketName, String targetObjectName) {
+        Boolean copied = this.copyObject(sourceBucketName, sourceObjectName, targetBucketName, targetObjectName);
+        if (!Boolean.TRUE.equals(copied)
+                || (sourceBucketName.equals(targetBucketName) && sourceObjectName.equals(targetObjectName))) {
+            return copied;
+        }
+        // 源文件对象已被其它客户端删除时同样视为成功
+        return !Boolean.FALSE.equals(this.removeObject(sourceBucketName, sourceObjectName));
+    }
+
+    /**
+     * 由服务端复制一个文件对象，不超过分片复制阈值时使用一次 CopyObject，否则并发复制各个范围
+     * 两种方式都要求源文件对象的 etag 不变，避免复制到修改中途的数据
+     *
+     * @return true：成功；false：失败
+     */
+    private Boolean copyObject(String sourceBucketName, ObjectStat source,
+                               String targetBucketName, String targetObjectName) {
+        if (sourceBucketName.equals(targetBucketName) && source.objectName().equals(targetObjectName)) {
+            return Boolean.TRUE;
+        }
+        long multipartThreshold = Math.min(minioProperties.getCopy().getMultipartThreshold(),
+                MultipartCopier.MAX_COPY_OBJECT_SIZE);
+        try {
+            if (source.size() > multipartThreshold) {
+                // 列举结果不含媒体类型，分片复制前补充查询
+                ObjectStat stat = Objects.isNull(source.contentType())
+                        ? this.statObject(sourceBucketName, source.objectName())
+                        : source;
+                if (Objects.isNull(stat) || !stat.exists()) {
+                    return Boolean.FALSE;
+                }
+                multipartCopier.copy(sourceBucketName, stat, targetBucketName, targetObjectName);
+            } else {
+                CopySource.Builder copySource = CopySource.builder()
+                        .bucket(sourceBucketName)
+                        .object(source.objectName());
+                if (Objects.nonNull(source.etag())) {
+                    copySource.matchETag(source.etag());
+                }
+                minioClient.copyObject(CopyObjectArgs.builder()
+                        .bucket(targetBucketName)
+                        .object(targetObjectName)
+                        .source(copySource.build())
+                        .build());
+            }
+            this.evictObject(targetBucketName, targetObjectName);
+            return Boolean.TRUE;
+        } catch (Exception e) {
+            log.warn("复制 object: {} / {} 到 {} / {} 异常",
+                    sourceBucketName, source.objectName(), targetBucketName, targetObjectName, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Map<String, Boolean> copyObjects(String sourceBucketName, String sourcePrefix,
+                                            String targetBucketName, String targetPrefix) {
+        return this.copyObjects(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, false);
+    }
+
+    @Override
+    public Map<String, Boolean> moveObjects(String sourceBucketName, String sourcePrefix,
+                                            String targetBucketName, String targetPrefix) {
+        return this.copyObjects(sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, true);
+    }
+
+    /**
+     * 边列举边复制前缀下的文件对象，每次取一批并发复制，列举结果中的大小和 etag 直接用于复制；
+     * 移动时一批中复制成功的源文件对象合并为批量删除
+     *
+     * @return 每个源文件对象的结果，列举中途异常时只包含已处理的文件对象
+     */
+    private Map<String, Boolean> copyObjects(String sourceBucketName, String sourcePrefix,
+                                             String targetBucketName, String targetPrefix, boolean move) {
+        Objects.requireNonNull(sourceBucketName);
+        Objects.requireNonNull(sourcePrefix);
+        Objects.requireNonNull(targetBucketName);
+        Objects.requireNonNull(targetPrefix);
+        // 列举是惰性的，目标前缀落在源前缀下时新复制的文件对象会被再次列举，并且永远列举不完
+        if (sourceBucketName.equals(targetBucketName) && targetPrefix.startsWith(sourcePrefix)) {
+            log.warn("同一个 bucket 内目标前缀：{} 不能位于源前缀：{} 下", targetPrefix, sourcePrefix);
+            return new LinkedHashMap<>();
+        }
+
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        // 源前缀位于目标前缀下时，个别目标文件对象仍可能落在源前缀下，列举到时跳过
+        Set<String> writtenObjectNames = ConcurrentHashMap.newKeySet();
+        try (Stream<ObjectSummary> objects = this.listObjects(sourceBucketName, sourcePrefix)) {
+            Iterator<List<ObjectSummary>> batches = Iterators.partition(objects
+                    .filter(summary -> !writtenObjectNames.contains(summary.objectName()))
+                    .iterator(), MAX_DELETE_BATCH_SIZE);
+            while (batches.hasNext()) {
+                List<ObjectSummary> batch = batches.next();
+                List<Supplier<Boolean>> tasks = batch.stream()
+                        .<Supplier<Boolean>>map(summary -> () -> {
+                            String targetObjectName = targetPrefix + summary.objectName().substring(sourcePrefix.length());
+                            if (sourceBucketName.equals(targetBucketName) && targetObjectName.startsWith(sourcePrefix)) {
+                                writtenObjectNames.add(targetObjectName);
+                            }
+                            try {
+                                return this.copyObject(sourceBucketName,
+                                        new ObjectStat(summary.objectName(), true, summary.size(), summary.etag(),
+                                                summary.lastModified(), null, summary.userMetadata()),
+                                        targetBucketName, targetObjectName);
+                            } catch (RuntimeException e) {
+                                log.warn("复制 object: {} / {} 异常", sourceBucketName, summary.objectName(), e);
+                                return Boolean.FALSE;
+                            }
+                        })
+                        .toList();
+                List<Boolean> copied = this.runConcurrently(tasks, minioProperties.getBatch().getParallelism());
+
+                List<String> copiedObjectNames = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    results.put(batch.get(i).objectName(), copied.get(i));
+                    if (Boolean.TRUE.equals(copied.get(i))) {
+                        copiedObjectNames.add(batch.get(i).objectName());
+                    }
+                }
+                if (move && !copiedObjectNames.isEmpty()) {
+                    this.removeObjects(sourceBucketName, copiedObjectNames)
+                            .forEach((objectName, removed) -> results.put(objectName, removed));
+                }
+            }
+        } catch (RuntimeException e) {
+            // 列举或批量删除中途失败，只返回已处理的文件对象
+            log.warn("{} object: {} / {} 到 {} / {} 异常", move ? "移动" : "复制",
+                    sourceBucketName, sourcePrefix, targetBucketName, targetPrefix, e);
+        }
+        return results;
+    }
+
+    @Override
+    public String beginUploadSession(String bucketName, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(suffix);
+
+        try {
+            String sessionId = uploadSessionManager.begin(bucketName, suffix);
+            sessionBuckets.add(bucketName);
+            return sessionId;
+        } catch (Exception e) {
+            log.warn("开始上传会话: {} 异常", bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean uploadChunk4InputStream(String bucketName, String sessionId, Integer chunkNumber,
+                                           InputStream inputStream) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+        Objects.requireNonNull(chunkNumber);
+        Objects.requireNonNull(inputStream);
+
+        try {
+            uploadSessionManager.uploadChunk(bucketName, sessionId, chunkNumber, inputStream);
+            return Boolean.TRUE;
+        } catch (Exception e) {
+            log.warn("上传分片: {} / {} / {} 异常", bucketName, sessionId, chunkNumber, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public List<Integer> getUploadedChunks(String bucketName, String sessionId) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+
+        try {
+            return uploadSessionManager.getUploadedChunks(bucketName, sessionId);
+        } catch (Exception e) {
+            log.warn("查询已上传分片: {} / {} 异常", bucketName, sessionId, e);
+        }
+        return null;
+    }
+
+    @Override
+    public String completeUploadSession(String bucketName, String sessionId, Integer chunkCount) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+        Objects.requireNonNull(chunkCount);
+
+        try {
+            String objectName = uploadSessionManager.complete(bucketName, sessionId, chunkCount);
+            this.evictObject(bucketName, objectName);
+            return objectName;
+        } catch (Exception e) {
+            log.warn("完成上传会话: {} / {} 异常", bucketName, sessionId, e);
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean abortUploadSession(String bucketName, String sessionId) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(sessionId);
+
+        try {
+            uploadSessionManager.remove(bucketName, sessionId);
+            return Boolean.TRUE;
+        } catch (Exception e) {
+            log.warn("放弃上传会话: {} / {} 异常", bucketName, sessionId, e);
+        }
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Integer purgeExpiredUploadSessions(String bucketName) {
+        Objects.requireNonNull(bucketName);
+
+        try {
+            int purged = uploadSessionManager.purgeExpired(bucketName);
+            if (purged > 0) {
+                log.info("清理 bucket: {} 中已放弃的上传会话 {} 个", bucketName, purged);
+            }
+            return purged;
+        } catch (Exception e) {
+            log.warn("清理上传会话: {} 异常", bucketName, e);
+        }
+        return null;
+    }
+
     @Override
     public String getPresignedObjectUrl4Get(String bucketName, String objectName, Integer expireMinute) {
         Objects.requireNonNull(bucketName);
@@ -386,6 +1898,52 @@ public class MyMinioClient implements OssClient {
         return null;
     }
 
+    @Override
+    public Map<String, String> getPresignedObjectUrls4Get(String bucketName, List<String> objectNames,
+                                                          Integer expireMinute) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectNames);
+        Objects.requireNonNull(expireMinute);
+
+        // 先从缓存中取仍可复用的地址
+        Duration expiry = Duration.ofMinutes(expireMinute);
+        Map<String, String> urls = new LinkedHashMap<>();
+        List<String> unsignedObjectNames = new ArrayList<>();
+        for (String objectName : objectNames) {
+            String url = Objects.isNull(presignedUrlCache)
+                    ? null
+                    : presignedUrlCache.get(Method.GET.name(), bucketName, objectName, expiry);
+            urls.put(objectName, url);
+            if (Objects.isNull(url)) {
+                unsignedObjectNames.add(objectName);
+            }
+        }
+        if (unsignedObjectNames.isEmpty()) {
+            return urls;
+        }
+
+        // 接入点不支持批量签名或者可能有压缩文件对象时逐个签名
+        if (Objects.isNull(presignedUrlSigner) || frameCodec.mayCompress(bucketName)) {
+            unsignedObjectNames.forEach(objectName ->
+                    urls.put(objectName, this.getPresignedObjectUrl4Get(bucketName, objectName, expireMinute)));
+            return urls;
+        }
+
+        try {
+            long signedAt = System.nanoTime();
+            presignedUrlSigner.presignGet(bucketName, unsignedObjectNames, expiry.toSeconds())
+                    .forEach((objectName, url) -> {
+                        urls.put(objectName, url);
+                        if (Objects.nonNull(presignedUrlCache)) {
+                            presignedUrlCache.put(Method.GET.name(), bucketName, objectName, expiry, signedAt, url);
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("批量获取临时访问凭证 {} 异常", bucketName, e);
+        }
+        return urls;
+    }
+
     @Override
     public String getPresignedObjectUrl4Put(String bucketName, String objectName, Integer expireMinute) {
         Objects.requireNonNull(bucketName);
@@ -400,6 +1958,17 @@ public class MyMinioClient implements OssClient {
         return null;
     }
 
+    /**
+     * 文件对象是否是本客户端上传的压缩文件对象，只在 bucket 可能有压缩文件对象时查询元数据
+     */
+    private boolean isCompressedObject(String bucketName, String objectName) {
+        if (!frameCodec.mayCompress(bucketName)) {
+            return false;
+        }
+        ObjectStat objectStat = this.statObjectCached(bucketName, objectName);
+        return Objects.nonNull(objectStat) && GzipFrameCodec.isCompressed(objectStat.userMetadata());
+    }
+
     private String getPresignedObjectUrl(String bucketName, String objectName,
                                          Method method, Integer expireMinute) throws Exception {
         Objects.requireNonNull(bucketName);
@@ -407,13 +1976,31 @@ public class MyMinioClient implements OssClient {
         Objects.requireNonNull(method);
         Objects.requireNonNull(expireMinute);
 
+        // 优先复用仍在有效期内的地址
+        Duration expiry = Duration.ofMinutes(expireMinute);
+        if (Objects.nonNull(presignedUrlCache)) {
+            String url = presignedUrlCache.get(method.name(), bucketName, objectName, expiry);
+            if (Objects.nonNull(url)) {
+                return url;
+            }
+        }
+
+        long signedAt = System.nanoTime();
         GetPresignedObjectUrlArgs getPresignedObjectUrlArgs = GetPresignedObjectUrlArgs.builder()
                 .bucket(bucketName)
                 .object(objectName)
                 .method(method)
                 .expiry(expireMinute, TimeUnit.MINUTES)
+                // 压缩的文件对象本身是合法的 gzip 文件，响应时声明编码由浏览器解压
+                .extraQueryParams(method == Method.GET && this.isCompressedObject(bucketName, objectName)
+                        ? Map.of("response-content-encoding", "gzip")
+                        : Map.of())
                 .build();
-        return minioClient.getPresignedObjectUrl(getPresignedObjectUrlArgs);
+        String url = minioClient.getPresignedObjectUrl(getPresignedObjectUrlArgs);
+        if (Objects.nonNull(presignedUrlCache)) {
+            presignedUrlCache.put(method.name(), bucketName, objectName, expiry, signedAt, url);
+        }
+        return url;
     }
 
 }
@@ -0,0 +1,125 @@
+package top.wuhunyu.oss.minio;
+
+import io.minio.messages.Item;
+import io.minio.messages.ListBucketResultV2;
+import top.wuhunyu.oss.api.model.ListObjectsQuery;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 分页列举文件对象的迭代器
+ * 第一次调用 {@link #hasNext()} 时才请求第一页；每取到一页立即按续传标记异步请求下一页，
+ * 调用方处理当前页的同时下一页已在传输，内存中最多保留两页
+ **/
+
+class ObjectListingIterator implements Iterator<ObjectSummary>, AutoCloseable {
+
+    private final MinioMultipartClient client;
+
+    private final String region;
+
+    private final String bucketName;
+
+    private final ListObjectsQuery query;
+
+    /**
+     * 预取中的下一页，没有下一页时为 null
+     */
+    private CompletableFuture<ListBucketResultV2> pending;
+
+    private boolean started;
+
+    private Iterator<ObjectSummary> current = Collections.emptyIterator();
+
+    ObjectListingIterator(MinioMultipartClient client, String region, String bucketName, ListObjectsQuery query) {
+        this.client = client;
+        this.region = region;
+        this.bucketName = bucketName;
+        this.query = query;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            started = true;
+            pending = this.fetch(null);
+        }
+        while (!current.hasNext()) {
+            if (Objects.isNull(pending)) {
+                return false;
+            }
+            ListBucketResultV2 page = this.join(pending);
+            pending = page.isTruncated() && Objects.nonNull(page.nextContinuationToken())
+                    ? this.fetch(page.nextContinuationToken())
+                    : null;
+            current = this.toSummaries(page).iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public ObjectSummary next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * 放弃预取中的下一页
+     */
+    @Override
+    public void close() {
+        if (Objects.nonNull(pending)) {
+            pending.cancel(true);
+            pending = null;
+        }
+        started = true;
+        current = Collections.emptyIterator();
+    }
+
+    private CompletableFuture<ListBucketResultV2> fetch(String continuationToken) {
+        try {
+            // 续传标记已包含起始位置，startAfter 只对第一页有意义
+            return client.listObjectsV2(bucketName, region, query.prefix(), query.delimiter(),
+                    Objects.isNull(continuationToken) ? query.startAfter() : null,
+                    query.pageSize(), continuationToken, query.includeMetadata());
+        } catch (Exception e) {
+            throw new IllegalStateException("列举 object: " + bucketName + " / " + query.prefix() + " 异常", e);
+        }
+    }
+
+    private ListBucketResultV2 join(CompletableFuture<ListBucketResultV2> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("列举 object: " + bucketName + " / " + query.prefix() + " 被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("列举 object: " + bucketName + " / " + query.prefix() + " 异常",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * 服务端分别返回文件对象和公共前缀，合并后按名称排序
+     */
+    private List<ObjectSummary> toSummaries(ListBucketResultV2 page) {
+        List<ObjectSummary> summaries = new ArrayList<>(page.contents().size() + page.commonPrefixes().size());
+        for (Item item : page.contents()) {
+            summaries.add(new ObjectSummary(item.objectName(), false,
+                    item.size(),
+                    Objects.isNull(item.etag()) ? null : item.etag().replace("\"", ""),
+                    item.lastModified(),
+                    Optional.ofNullable(item.userMetadata()).orElse(Map.of())));
+        }
+        page.commonPrefixes()
+                .forEach(prefix -> summaries.add(ObjectSummary.ofPrefix(prefix.toItem().objectName())));
+        summaries.sort(Comparator.comparing(ObjectSummary::objectName));
+        return summaries;
+    }
+
+}
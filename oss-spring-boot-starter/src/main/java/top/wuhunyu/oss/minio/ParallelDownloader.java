@@ -0,0 +1,149 @@
+package top.wuhunyu.oss.minio;
+
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 并发分片下载器
+ * 将文件对象按分片切分，由有限个工作线程领取分片，通过位置写入的方式直接写入预分配大小的本地文件
+ **/
+
+@Slf4j
+class ParallelDownloader {
+
+    private final MinioClient minioClient;
+
+    private final ExecutorService executorService;
+
+    private final MinioProperties.Download download;
+
+    private final int bufferSize;
+
+    ParallelDownloader(MinioClient minioClient, ExecutorService executorService,
+                       MinioProperties.Download download, int bufferSize) {
+        this.minioClient = minioClient;
+        this.executorService = executorService;
+        this.download = download;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 下载文件对象到本地文件
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param etag       文件对象的 etag，用于保证各个分片来自同一个版本的文件对象
+     * @param size       文件对象大小
+     * @param localFile  本地文件路径
+     */
+    void download(String bucketName, String objectName, String etag, long size, Path localFile) throws Exception {
+        // 切分分片
+        long partSize = download.getPartSize();
+        Queue<Range> ranges = new ConcurrentLinkedQueue<>();
+        for (long offset = 0; offset < size; offset += partSize) {
+            ranges.add(new Range(offset, Math.min(partSize, size - offset)));
+        }
+
+        try (FileChannel fileChannel = FileChannel.open(localFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // 预分配文件大小，最后一个分片写入时会覆盖这个字节
+            fileChannel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+
+            int workerCount = Math.min(download.getParallelism(), ranges.size());
+            List<Future<Void>> futures = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(executorService.submit(() -> {
+                    byte[] buffer = new byte[bufferSize];
+                    Range range;
+                    while ((range = ranges.poll()) != null) {
+                        this.downloadRange(bucketName, objectName, etag, fileChannel, range, buffer);
+                    }
+                    return null;
+                }));
+            }
+            this.await(futures, ranges);
+        }
+    }
+
+    private void await(List<Future<Void>> futures, Queue<Range> ranges) throws Exception {
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            // 任意分片失败时，丢弃剩余分片并取消其他工作线程
+            ranges.clear();
+            futures.forEach(future -> future.cancel(true));
+            if (e instanceof ExecutionException executionException
+                    && executionException.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 下载一个分片，失败时从已写入的位置继续重试，文件对象已被覆盖时立即失败
+     */
+    private void downloadRange(String bucketName, String objectName, String etag,
+                               FileChannel fileChannel, Range range, byte[] buffer) throws Exception {
+        long position = range.offset();
+        long end = range.offset() + range.length();
+        int attempt = 0;
+        while (true) {
+            try (GetObjectResponse getObjectResponse = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .matchETag(etag)
+                    .offset(position)
+                    .length(end - position)
+                    .build())) {
+                int read;
+                while ((read = getObjectResponse.read(buffer)) != -1) {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        position += fileChannel.write(byteBuffer, position);
+                    }
+                }
+                if (position >= end) {
+                    return;
+                }
+                throw new IOException("分片数据不完整，期望位置：" + end + "，实际位置：" + position);
+            } catch (Exception e) {
+                // 文件对象已被覆盖，重试也无法读到同一版本的数据
+                if (this.isPreconditionFailed(e) || ++attempt > download.getMaxRetries()) {
+                    throw e;
+                }
+                log.debug("下载分片 object: {} / {} [{}, {}) 第 {} 次重试",
+                        bucketName, objectName, position, end, attempt, e);
+                Thread.sleep(100L * attempt);
+            }
+        }
+    }
+
+    private boolean isPreconditionFailed(Exception e) {
+        return e instanceof ErrorResponseException errorResponseException
+                && "PreconditionFailed".equals(errorResponseException.errorResponse().code());
+    }
+
+    private record Range(long offset, long length) {
+    }
+
+}
@@ -0,0 +1,182 @@
+package top.wuhunyu.oss.minio;
+
+import okhttp3.HttpUrl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 批量 GET 临时凭证签名器
+ * 按 AWS Signature V4 的查询参数形式签名，派生签名密钥的四次 HMAC 每个日期、区域只计算一次，
+ * 同一批文件对象共用一个签名时间，在循环中只需为每个文件对象计算一次摘要和一次 HMAC。
+ * 只支持 path-style 地址，即 minio 的访问方式
+ **/
+
+class PresignedUrlSigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private static final String SERVICE = "s3";
+
+    /**
+     * 临时凭证允许的最长有效时间，7 天
+     */
+    private static final long MAX_EXPIRY_SECONDS = 7L * 24 * 60 * 60;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter AMZ_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final HttpUrl baseUrl;
+
+    private final String host;
+
+    private final String accessKey;
+
+    private final String secretKey;
+
+    private final String region;
+
+    /**
+     * 当前日期对应的签名密钥
+     */
+    private volatile SigningKey signingKey;
+
+    PresignedUrlSigner(String endpoint, String accessKey, String secretKey, String region) {
+        this.baseUrl = HttpUrl.get(endpoint);
+        this.host = baseUrl.port() == HttpUrl.defaultPort(baseUrl.scheme())
+                ? baseUrl.host()
+                : baseUrl.host() + ":" + baseUrl.port();
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * 是否可以使用本签名器
+     * aws 的接入点需要 virtual-host 形式的地址，交由 minio 客户端签名；
+     * 未配置区域时需要由 minio 客户端查询 bucket 所在的区域，同样交由 minio 客户端签名
+     *
+     * @param endpoint minio服务接入点
+     * @param region   区域
+     * @return true：可以；false：不可以
+     */
+    static boolean supports(String endpoint, String region) {
+        HttpUrl url = HttpUrl.parse(endpoint);
+        return url != null && !url.host().endsWith("amazonaws.com") && region != null && !region.isBlank();
+    }
+
+    /**
+     * 批量签名 GET 临时凭证
+     *
+     * @param bucketName    bucket
+     * @param objectNames   文件对象的绝对访问路径
+     * @param expirySeconds 有效时间，单位 秒
+     * @return 文件对象与临时凭证地址的映射，顺序与入参一致
+     */
+    Map<String, String> presignGet(String bucketName, List<String> objectNames, long expirySeconds) throws Exception {
+        if (expirySeconds < 1 || expirySeconds > MAX_EXPIRY_SECONDS) {
+            throw new IllegalArgumentException("有效时间必须位于 [1, " + MAX_EXPIRY_SECONDS + "] 秒区间");
+        }
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String date = now.format(DATE_FORMATTER);
+        String amzDate = now.format(AMZ_DATE_FORMATTER);
+        String scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+
+        // 除签名外的查询参数对同一批文件对象都相同
+        Map<String, String> queries = new TreeMap<>();
+        queries.put("X-Amz-Algorithm", ALGORITHM);
+        queries.put("X-Amz-Credential", accessKey + "/" + scope);
+        queries.put("X-Amz-Date", amzDate);
+        queries.put("X-Amz-Expires", String.valueOf(expirySeconds));
+        queries.put("X-Amz-SignedHeaders", "host");
+        StringBuilder canonicalQuery = new StringBuilder();
+        queries.forEach((key, value) -> {
+            if (!canonicalQuery.isEmpty()) {
+                canonicalQuery.append('&');
+            }
+            canonicalQuery.append(encode(key, true)).append('=').append(encode(value, true));
+        });
+        String canonicalQueryString = canonicalQuery.toString();
+        String canonicalRequestSuffix = "\n" + canonicalQueryString + "\nhost:" + host + "\n\nhost\nUNSIGNED-PAYLOAD";
+        String stringToSignPrefix = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n";
+
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(this.signingKey(date), HMAC_SHA256));
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        String urlPrefix = baseUrl.scheme() + "://" + host;
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String objectName : objectNames) {
+            String canonicalUri = "/" + encode(bucketName, true) + "/" + encode(objectName, false);
+            String canonicalRequest = "GET\n" + canonicalUri + canonicalRequestSuffix;
+            String stringToSign = stringToSignPrefix
+                    + HEX.formatHex(messageDigest.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+            String signature = HEX.formatHex(mac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8)));
+            urls.put(objectName, urlPrefix + canonicalUri + "?" + canonicalQueryString
+                    + "&X-Amz-Signature=" + signature);
+        }
+        return urls;
+    }
+
+    /**
+     * 获取指定日期的签名密钥，日期变化时重新派生
+     */
+    private byte[] signingKey(String date) throws Exception {
+        SigningKey current = this.signingKey;
+        if (current != null && current.date().equals(date)) {
+            return current.key();
+        }
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, "aws4_request");
+        this.signingKey = new SigningKey(date, key);
+        return key;
+    }
+
+    private static byte[] hmac(byte[] key, String data) throws Exception {
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(key, HMAC_SHA256));
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 按 S3 的规则进行 URI 编码，只保留非保留字符
+     *
+     * @param value       待编码的值
+     * @param encodeSlash 是否编码 /
+     */
+    private static String encode(String value, boolean encodeSlash) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(HEX.withUpperCase().toHexDigits(b));
+            }
+        }
+        return builder.toString();
+    }
+
+    private record SigningKey(String date, byte[] key) {
+    }
+
+}
@@ -0,0 +1,153 @@
+package top.wuhunyu.oss.minio;
+
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 对冲请求执行器
+ * 按操作统计近期的耗时，第一个请求超过配置分位的耗时仍未返回时再发送一个相同的请求，取先成功的结果，
+ * 后返回的结果交给调用方释放。样本不足时不发送对冲请求
+ **/
+
+class RequestHedger {
+
+    /**
+     * 每个操作保留的耗时样本数
+     */
+    private static final int WINDOW_SIZE = 256;
+
+    /**
+     * 开始对冲前至少需要的样本数
+     */
+    private static final int MIN_SAMPLES = 32;
+
+    /**
+     * 每记录多少个样本重新计算一次分位值
+     */
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final ExecutorService executorService;
+
+    private final MinioProperties.Resilience resilience;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    RequestHedger(ExecutorService executorService, MinioProperties.Resilience resilience) {
+        this.executorService = executorService;
+        this.resilience = resilience;
+    }
+
+    /**
+     * 执行一个可对冲的请求
+     *
+     * @param operation 操作名称，用于区分耗时统计
+     * @param task      请求
+     * @param discard   释放未被采用的结果
+     * @return 先成功的结果
+     */
+    <T> T call(String operation, Callable<T> task, Consumer<T> discard) throws Exception {
+        if (!Boolean.TRUE.equals(resilience.getHedgeEnabled())) {
+            return task.call();
+        }
+        LatencyWindow window = windows.computeIfAbsent(operation, key -> new LatencyWindow());
+        long delay = window.delay();
+
+        CompletableFuture<T> primary = this.submit(task, window);
+        if (delay < 0) {
+            return this.join(primary);
+        }
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ignored) {
+            // 超过分位耗时，发送对冲请求
+        } catch (ExecutionException e) {
+            throw this.unwrap(e);
+        }
+
+        CompletableFuture<T> hedge = this.submit(task, window);
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> future : Arrays.asList(primary, hedge)) {
+            future.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    if (!winner.complete(result)) {
+                        discard.accept(result);
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(throwable);
+                }
+            });
+        }
+        return this.join(winner);
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task, LatencyWindow window) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executorService.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = task.call();
+                window.record(System.nanoTime() - start);
+                future.complete(result);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    private <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw this.unwrap(e);
+        }
+    }
+
+    private Exception unwrap(ExecutionException e) {
+        return e.getCause() instanceof Exception cause ? cause : e;
+    }
+
+    /**
+     * 一个操作近期的耗时样本
+     */
+    private class LatencyWindow {
+
+        private final long[] samples = new long[WINDOW_SIZE];
+
+        private int count;
+
+        private int index;
+
+        private long recorded;
+
+        private volatile long quantile = -1;
+
+        private synchronized void record(long nanos) {
+            samples[index] = nanos;
+            index = (index + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+            if (++recorded % RECOMPUTE_INTERVAL == 0 && count >= MIN_SAMPLES) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int position = (int) Math.ceil(resilience.getHedgeQuantile() * count) - 1;
+                quantile = sorted[Math.max(0, Math.min(position, count - 1))];
+            }
+        }
+
+        /**
+         * @return 触发对冲的延迟，单位 纳秒，样本不足时返回 -1
+         */
+        private long delay() {
+            long current = quantile;
+            return current < 0 ? -1 : Math.max(current, resilience.getHedgeMinDelay().toNanos());
+        }
+
+    }
+
+}
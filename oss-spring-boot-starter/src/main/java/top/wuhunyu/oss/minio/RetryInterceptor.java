@@ -0,0 +1,126 @@
+package top.wuhunyu.oss.minio;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重试拦截器
+ * 只重试幂等且请求体可以重放的请求，重试前按指数退避并加入随机抖动，
+ * 配置了截止时间时每次尝试的超时时间不超过剩余时间，剩余时间不足以退避时不再重试
+ **/
+
+@Slf4j
+class RetryInterceptor implements Interceptor {
+
+    /**
+     * 可以重试的响应状态码，S3 的 SlowDown 为 503
+     */
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(429, 500, 502, 503, 504);
+
+    private final MinioProperties.Resilience resilience;
+
+    RetryInterceptor(MinioProperties.Resilience resilience) {
+        this.resilience = resilience;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean retryable = this.isRetryable(request);
+        long deadline = resilience.getDeadline().isZero()
+                ? Long.MAX_VALUE
+                : System.nanoTime() + resilience.getDeadline().toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            Chain attemptChain = this.limitTimeout(chain, deadline);
+            long backoff = this.backoff(attempt);
+            boolean canRetry = retryable && attempt < resilience.getMaxAttempts()
+                    && System.nanoTime() + backoff < deadline;
+            Response response;
+            try {
+                response = attemptChain.proceed(request);
+            } catch (IOException e) {
+                if (!canRetry) {
+                    throw e;
+                }
+                log.debug("minio 请求: {} {} 第 {} 次尝试异常，{} 毫秒后重试",
+                        request.method(), request.url(), attempt, TimeUnit.NANOSECONDS.toMillis(backoff), e);
+                this.sleep(backoff);
+                continue;
+            }
+            if (!canRetry || !RETRYABLE_STATUS.contains(response.code())) {
+                return response;
+            }
+            log.debug("minio 请求: {} {} 第 {} 次尝试响应 {}，{} 毫秒后重试",
+                    request.method(), request.url(), attempt, response.code(), TimeUnit.NANOSECONDS.toMillis(backoff));
+            response.close();
+            this.sleep(backoff);
+        }
+    }
+
+    /**
+     * 幂等且请求体可以重放
+     * S3 中 PUT、DELETE 都是幂等的，POST 只有批量删除是幂等的
+     */
+    private boolean isRetryable(Request request) {
+        RequestBody body = request.body();
+        if (body != null && body.isOneShot()) {
+            return false;
+        }
+        return switch (request.method()) {
+            case "GET", "HEAD", "PUT", "DELETE" -> true;
+            case "POST" -> request.url().queryParameterNames().contains("delete");
+            default -> false;
+        };
+    }
+
+    /**
+     * 全抖动的指数退避
+     *
+     * @return 退避时间，单位 纳秒
+     */
+    private long backoff(int attempt) {
+        long cap = Math.min(resilience.getMaxBackoff().toNanos(),
+                resilience.getInitialBackoff().toNanos() << Math.min(attempt - 1, 30));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private Chain limitTimeout(Chain chain, long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            return chain;
+        }
+        int remaining = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        return chain
+                .withConnectTimeout(this.min(chain.connectTimeoutMillis(), remaining), TimeUnit.MILLISECONDS)
+                .withReadTimeout(this.min(chain.readTimeoutMillis(), remaining), TimeUnit.MILLISECONDS)
+                .withWriteTimeout(this.min(chain.writeTimeoutMillis(), remaining), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 超时时间为 0 表示不限制
+     */
+    private int min(int timeout, int remaining) {
+        return timeout == 0 ? remaining : Math.min(timeout, remaining);
+    }
+
+    private void sleep(long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("重试等待被中断");
+        }
+    }
+
+}
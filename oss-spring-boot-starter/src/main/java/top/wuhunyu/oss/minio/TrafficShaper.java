@@ -0,0 +1,382 @@
+package top.wuhunyu.oss.minio;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSink;
+import okio.ForwardingSource;
+import okio.Okio;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 并发与带宽限制拦截器
+ * 每个请求先后占用所属 bucket 和全局的并发许可，许可按先来先得的顺序分配，排队超过最长等待时间时拒绝请求；
+ * 许可一直占用到响应体读取完毕或关闭。请求体和响应体的读写都经过令牌桶限速，令牌不足时等待
+ **/
+
+public class TrafficShaper implements Interceptor {
+
+    /**
+     * 单次限速写入的最大字节数，避免一次写入占用过多令牌
+     */
+    private static final long MAX_WRITE_CHUNK = 64 * 1024;
+
+    private final MinioProperties.Throttle throttle;
+
+    private final Bulkhead globalBulkhead;
+
+    private final TokenBucket globalTokenBucket;
+
+    private final Map<String, Bulkhead> bucketBulkheads = new ConcurrentHashMap<>();
+
+    private final Map<String, TokenBucket> bucketTokenBuckets = new ConcurrentHashMap<>();
+
+    TrafficShaper(MinioProperties.Throttle throttle) {
+        this.throttle = throttle;
+        this.globalBulkhead = Bulkhead.of(throttle.getGlobal());
+        this.globalTokenBucket = TokenBucket.of(throttle.getGlobal());
+        throttle.getBuckets().forEach((bucketName, limit) -> {
+            Bulkhead bulkhead = Bulkhead.of(limit);
+            if (Objects.nonNull(bulkhead)) {
+                bucketBulkheads.put(bucketName, bulkhead);
+            }
+            TokenBucket tokenBucket = TokenBucket.of(limit);
+            if (Objects.nonNull(tokenBucket)) {
+                bucketTokenBuckets.put(bucketName, tokenBucket);
+            }
+        });
+    }
+
+    /**
+     * 是否配置了任何限制
+     */
+    static boolean isEnabled(MinioProperties.Throttle throttle) {
+        return Objects.nonNull(Bulkhead.of(throttle.getGlobal())) || Objects.nonNull(TokenBucket.of(throttle.getGlobal()))
+                || throttle.getBuckets().values().stream()
+                .anyMatch(limit -> Objects.nonNull(Bulkhead.of(limit)) || Objects.nonNull(TokenBucket.of(limit)));
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        List<String> pathSegments = request.url().pathSegments();
+        String bucketName = pathSegments.isEmpty() ? "" : pathSegments.get(0);
+
+        // 固定先 bucket 后全局的顺序占用许可
+        List<Bulkhead> bulkheads = Stream.of(bucketBulkheads.get(bucketName), globalBulkhead)
+                .filter(Objects::nonNull)
+                .toList();
+        List<TokenBucket> tokenBuckets = Stream.of(bucketTokenBuckets.get(bucketName),
+                        globalTokenBucket)
+                .filter(Objects::nonNull)
+                .toList();
+        Permits permits = new Permits();
+        try {
+            for (Bulkhead bulkhead : bulkheads) {
+                bulkhead.acquire(bucketName, throttle.getMaxWait());
+                permits.add(bulkhead);
+            }
+
+            Request shaped = request;
+            if (!tokenBuckets.isEmpty() && Objects.nonNull(request.body())) {
+                shaped = request.newBuilder()
+                        .method(request.method(), new ThrottledRequestBody(request.body(), tokenBuckets))
+                        .build();
+            }
+            Response response = chain.proceed(shaped);
+            ResponseBody body = response.body();
+            if (Objects.isNull(body)) {
+                permits.release();
+                return response;
+            }
+            return response.newBuilder()
+                    .body(new ThrottledResponseBody(body, tokenBuckets, permits))
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 全局排队中的请求数
+     */
+    public int globalQueueLength() {
+        return Objects.isNull(globalBulkhead) ? 0 : globalBulkhead.semaphore.getQueueLength();
+    }
+
+    /**
+     * 全局执行中的请求数
+     */
+    public int globalActiveCount() {
+        return Objects.isNull(globalBulkhead) ? 0 : globalBulkhead.active();
+    }
+
+    /**
+     * 配置了并发限制的 bucket
+     */
+    public Set<String> bulkheadBuckets() {
+        return bucketBulkheads.keySet();
+    }
+
+    /**
+     * bucket 排队中的请求数
+     */
+    public int queueLength(String bucketName) {
+        Bulkhead bulkhead = bucketBulkheads.get(bucketName);
+        return Objects.isNull(bulkhead) ? 0 : bulkhead.semaphore.getQueueLength();
+    }
+
+    /**
+     * bucket 执行中的请求数
+     */
+    public int activeCount(String bucketName) {
+        Bulkhead bulkhead = bucketBulkheads.get(bucketName);
+        return Objects.isNull(bulkhead) ? 0 : bulkhead.active();
+    }
+
+    /**
+     * 并发数已满且排队超时时抛出
+     */
+    public static class BulkheadFullException extends IOException {
+
+        public BulkheadFullException(String message) {
+            super(message);
+        }
+
+    }
+
+    /**
+     * 并发隔离舱，使用公平信号量保证先来先得
+     */
+    private static class Bulkhead {
+
+        private final int maxConcurrent;
+
+        private final Semaphore semaphore;
+
+        private Bulkhead(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+            this.semaphore = new Semaphore(maxConcurrent, true);
+        }
+
+        private static Bulkhead of(MinioProperties.Limit limit) {
+            return Objects.isNull(limit.getMaxConcurrent()) || limit.getMaxConcurrent() <= 0
+                    ? null
+                    : new Bulkhead(limit.getMaxConcurrent());
+        }
+
+        private void acquire(String bucketName, Duration maxWait) throws IOException {
+            boolean acquired;
+            try {
+                acquired = maxWait.isZero()
+                        ? semaphore.tryAcquire()
+                        : semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待并发许可被中断");
+            }
+            if (!acquired) {
+                throw new BulkheadFullException("bucket: " + bucketName + " 并发请求数已达上限 " + maxConcurrent);
+            }
+        }
+
+        private int active() {
+            return maxConcurrent - semaphore.availablePermits();
+        }
+
+    }
+
+    /**
+     * 一个请求占用的并发许可，只释放一次
+     */
+    private static class Permits {
+
+        private final List<Bulkhead> bulkheads = new ArrayList<>(2);
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void add(Bulkhead bulkhead) {
+            bulkheads.add(bulkhead);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkheads.forEach(bulkhead -> bulkhead.semaphore.release());
+            }
+        }
+
+    }
+
+    /**
+     * 令牌桶，允许最多一秒的突发流量，令牌不足时先透支再等待
+     */
+    private static class TokenBucket {
+
+        private final long bytesPerSecond;
+
+        private double tokens;
+
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.tokens = bytesPerSecond;
+        }
+
+        private static TokenBucket of(MinioProperties.Limit limit) {
+            return Objects.isNull(limit.getBytesPerSecond()) || limit.getBytesPerSecond() <= 0
+                    ? null
+                    : new TokenBucket(limit.getBytesPerSecond());
+        }
+
+        private void acquire(long bytes) throws InterruptedIOException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                tokens = Math.min(bytesPerSecond, tokens + (now - refilledAt) * bytesPerSecond / 1e9);
+                refilledAt = now;
+                tokens -= bytes;
+                waitNanos = tokens >= 0 ? 0 : (long) (-tokens * 1e9 / bytesPerSecond);
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待带宽令牌被中断");
+                }
+            }
+        }
+
+    }
+
+    private static void acquireAll(List<TokenBucket> tokenBuckets, long bytes) throws InterruptedIOException {
+        for (TokenBucket tokenBucket : tokenBuckets) {
+            tokenBucket.acquire(bytes);
+        }
+    }
+
+    /**
+     * 限速的请求体
+     */
+    private static class ThrottledRequestBody extends RequestBody {
+
+        private final RequestBody delegate;
+
+        private final List<TokenBucket> tokenBuckets;
+
+        private ThrottledRequestBody(RequestBody delegate, List<TokenBucket> tokenBuckets) {
+            this.delegate = delegate;
+            this.tokenBuckets = tokenBuckets;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return delegate.isOneShot();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            BufferedSink throttledSink = Okio.buffer(new ForwardingSink(sink) {
+                @Override
+                public void write(Buffer source, long byteCount) throws IOException {
+                    while (byteCount > 0) {
+                        long chunk = Math.min(byteCount, MAX_WRITE_CHUNK);
+                        acquireAll(tokenBuckets, chunk);
+                        super.write(source, chunk);
+                        byteCount -= chunk;
+                    }
+                }
+            });
+            delegate.writeTo(throttledSink);
+            throttledSink.emit();
+        }
+
+    }
+
+    /**
+     * 限速的响应体，关闭或读取完毕时释放并发许可
+     */
+    private static class ThrottledResponseBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+
+        private final BufferedSource source;
+
+        private final Permits permits;
+
+        private ThrottledResponseBody(ResponseBody delegate, List<TokenBucket> tokenBuckets, Permits permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        permits.release();
+                    } else {
+                        acquireAll(tokenBuckets, read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+
+    }
+
+}
@@ -0,0 +1,306 @@
+package top.wuhunyu.oss.minio;
+
+import cn.hutool.core.util.IdUtil;
+import io.minio.*;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.enums.ContentTypeEnum;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * 断点续传上传会话管理
+ * 会话状态与分片都以文件对象的形式保存在 bucket 的 {@value #SESSION_PREFIX} 目录下，进程重启后仍可继续上传：
+ * <pre>
+ * .upload-sessions/{sessionId}/session          会话标记，内容为最终文件的后缀
+ * .upload-sessions/{sessionId}/chunk-00000001   第 1 个分片
+ * </pre>
+ * 分片之间互不依赖，可以乱序、并发上传；完成时通过服务端合并生成最终文件，
+ * 分片数超过单次合并的上限时先分组合并为中间文件，再逐级合并
+ **/
+
+@Slf4j
+class UploadSessionManager {
+
+    static final String SESSION_PREFIX = ".upload-sessions/";
+
+    private static final String SESSION_MARKER = "session";
+
+    private static final String CHUNK_PREFIX = "chunk-";
+
+    private static final String LEVEL_PREFIX = "level-";
+
+    /**
+     * 除最后一个分片外，参与合并的分片不能小于 5MB
+     */
+    private static final long MIN_CHUNK_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * 服务端单个 part 的最大大小，超过该大小的源文件在合并时会被拆分为多个 part
+     */
+    private static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * 服务端单次合并允许的最大 part 数
+     */
+    private static final int MAX_COMPOSE_PARTS = 10000;
+
+    private final MinioClient minioClient;
+
+    private final MultipartUploader multipartUploader;
+
+    private final MinioProperties.Session session;
+
+    UploadSessionManager(MinioClient minioClient, MultipartUploader multipartUploader,
+                         MinioProperties.Session session) {
+        this.minioClient = minioClient;
+        this.multipartUploader = multipartUploader;
+        this.session = session;
+    }
+
+    /**
+     * 开始一个上传会话
+     *
+     * @return 会话 id
+     */
+    String begin(String bucketName, String suffix) throws Exception {
+        String sessionId = IdUtil.fastSimpleUUID();
+        byte[] marker = suffix.getBytes(StandardCharsets.UTF_8);
+        minioClient.putObject(PutObjectArgs.builder()
+                .bucket(bucketName)
+                .object(this.sessionObjectName(sessionId, SESSION_MARKER))
+                .stream(new ByteArrayInputStream(marker), marker.length, -1)
+                .contentType(ContentTypeEnum.TEXT_PLAIN.getMimeType())
+                .build());
+        return sessionId;
+    }
+
+    /**
+     * 上传一个分片，同一个分片重复上传时覆盖之前的数据
+     */
+    void uploadChunk(String bucketName, String sessionId, int chunkNumber, InputStream inputStream) throws Exception {
+        if (chunkNumber < 1) {
+            throw new IllegalArgumentException("分片序号从 1 开始");
+        }
+        // 会话不存在时 stat 抛出 NoSuchKey
+        minioClient.statObject(StatObjectArgs.builder()
+                .bucket(bucketName)
+                .object(this.sessionObjectName(sessionId, SESSION_MARKER))
+                .build());
+        multipartUploader.upload(bucketName, this.chunkObjectName(sessionId, chunkNumber), inputStream,
+                ContentTypeEnum.APPLICATION_OCTET_STREAM.getMimeType());
+    }
+
+    /**
+     * 查询已上传的分片序号
+     */
+    List<Integer> getUploadedChunks(String bucketName, String sessionId) throws Exception {
+        return this.listChunks(bucketName, sessionId).stream()
+                .map(Chunk::number)
+                .toList();
+    }
+
+    /**
+     * 完成上传会话，合并全部分片为最终文件并删除会话数据
+     *
+     * @return 最终文件的全路径名称
+     */
+    String complete(String bucketName, String sessionId, int chunkCount) throws Exception {
+        String suffix;
+        try (GetObjectResponse getObjectResponse = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(this.sessionObjectName(sessionId, SESSION_MARKER))
+                .build())) {
+            suffix = new String(getObjectResponse.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // 校验分片完整且大小满足合并要求
+        List<Chunk> chunks = this.listChunks(bucketName, sessionId);
+        if (chunks.size() != chunkCount) {
+            throw new IllegalStateException("分片不完整，期望 " + chunkCount + " 个，实际 " + chunks.size() + " 个");
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            if (chunk.number() != i + 1) {
+                throw new IllegalStateException("缺少第 " + (i + 1) + " 个分片");
+            }
+            if (i < chunks.size() - 1 && chunk.size() < MIN_CHUNK_SIZE) {
+                throw new IllegalStateException("第 " + chunk.number() + " 个分片小于 5MB");
+            }
+        }
+
+        // 超过单次合并上限时逐级合并
+        List<Chunk> sources = chunks;
+        int level = 0;
+        while (this.partCount(sources) > MAX_COMPOSE_PARTS) {
+            level++;
+            sources = this.composeLevel(bucketName, sessionId, level, sources);
+        }
+
+        String objectName = IdUtil.fastSimpleUUID() + "." + suffix;
+        this.compose(bucketName, objectName, sources);
+        // 最终文件已生成，清理失败不影响结果，残留的会话数据由过期清理任务回收
+        try {
+            this.remove(bucketName, sessionId);
+        } catch (Exception e) {
+            log.warn("清理上传会话: {} / {} 异常", bucketName, sessionId, e);
+        }
+        return objectName;
+    }
+
+    /**
+     * 将一层源文件按 part 数分组，每组合并为一个中间文件
+     *
+     * @return 下一层的源文件
+     */
+    private List<Chunk> composeLevel(String bucketName, String sessionId, int level,
+                                     List<Chunk> sources) throws Exception {
+        List<Chunk> nextSources = new ArrayList<>();
+        List<Chunk> group = new ArrayList<>();
+        int groupParts = 0;
+        for (Chunk source : sources) {
+            int parts = this.partCount(source.size());
+            if (!group.isEmpty() && groupParts + parts > MAX_COMPOSE_PARTS) {
+                nextSources.add(this.composeGroup(bucketName, sessionId, level, nextSources.size() + 1, group));
+                group = new ArrayList<>();
+                groupParts = 0;
+            }
+            group.add(source);
+            groupParts += parts;
+        }
+        if (!group.isEmpty()) {
+            nextSources.add(this.composeGroup(bucketName, sessionId, level, nextSources.size() + 1, group));
+        }
+        log.debug("上传会话 {} / {} 第 {} 级合并，{} 个源文件合并为 {} 个中间文件",
+                bucketName, sessionId, level, sources.size(), nextSources.size());
+        return nextSources;
+    }
+
+    private Chunk composeGroup(String bucketName, String sessionId, int level, int number,
+                               List<Chunk> group) throws Exception {
+        String objectName = this.sessionObjectName(sessionId,
+                String.format("%s%02d-%08d", LEVEL_PREFIX, level, number));
+        this.compose(bucketName, objectName, group);
+        return new Chunk(objectName, number, group.stream().mapToLong(Chunk::size).sum(), null);
+    }
+
+    private void compose(String bucketName, String objectName, List<Chunk> sources) throws Exception {
+        minioClient.composeObject(ComposeObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .sources(sources.stream()
+                        .map(source -> ComposeSource.builder()
+                                .bucket(bucketName)
+                                .object(source.objectName())
+                                .build())
+                        .toList())
+                .build());
+    }
+
+    private int partCount(List<Chunk> sources) {
+        return sources.stream()
+                .mapToInt(source -> this.partCount(source.size()))
+                .sum();
+    }
+
+    private int partCount(long size) {
+        return (int) Math.max(1, (size + MAX_PART_SIZE - 1) / MAX_PART_SIZE);
+    }
+
+    /**
+     * 删除上传会话的全部数据
+     */
+    void remove(String bucketName, String sessionId) throws Exception {
+        List<DeleteObject> deleteObjects = this.list(bucketName, this.sessionObjectName(sessionId, "")).stream()
+                .map(item -> new DeleteObject(item.objectName()))
+                .toList();
+        this.removeAll(bucketName, deleteObjects);
+    }
+
+    /**
+     * 清理超过有效期未更新的上传会话
+     *
+     * @return 被清理的会话数
+     */
+    int purgeExpired(String bucketName) throws Exception {
+        // 以会话中最近一次写入的时间判断是否过期
+        Map<String, ZonedDateTime> lastModified = new HashMap<>();
+        Map<String, List<DeleteObject>> sessionObjects = new HashMap<>();
+        for (Item item : this.list(bucketName, SESSION_PREFIX)) {
+            String sessionId = item.objectName().substring(SESSION_PREFIX.length()).split("/", 2)[0];
+            lastModified.merge(sessionId, item.lastModified(),
+                    (left, right) -> left.isAfter(right) ? left : right);
+            sessionObjects.computeIfAbsent(sessionId, key -> new ArrayList<>())
+                    .add(new DeleteObject(item.objectName()));
+        }
+
+        ZonedDateTime expireBefore = ZonedDateTime.now().minus(session.getExpire());
+        int purged = 0;
+        for (Map.Entry<String, ZonedDateTime> entry : lastModified.entrySet()) {
+            if (entry.getValue().isBefore(expireBefore)) {
+                this.removeAll(bucketName, sessionObjects.get(entry.getKey()));
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private void removeAll(String bucketName, List<DeleteObject> deleteObjects) throws Exception {
+        if (deleteObjects.isEmpty()) {
+            return;
+        }
+        for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(deleteObjects)
+                .build())) {
+            DeleteError deleteError = result.get();
+            log.warn("删除上传会话数据: {} / {} 失败，{}",
+                    bucketName, deleteError.objectName(), deleteError.message());
+        }
+    }
+
+    private List<Chunk> listChunks(String bucketName, String sessionId) throws Exception {
+        String chunkPrefix = this.sessionObjectName(sessionId, CHUNK_PREFIX);
+        return this.list(bucketName, chunkPrefix).stream()
+                .map(item -> new Chunk(item.objectName(),
+                        Integer.parseInt(item.objectName().substring(chunkPrefix.length())),
+                        item.size(),
+                        item.lastModified()))
+                .sorted(Comparator.comparingInt(Chunk::number))
+                .toList();
+    }
+
+    private List<Item> list(String bucketName, String prefix) throws Exception {
+        List<Item> items = new ArrayList<>();
+        for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .recursive(true)
+                .build())) {
+            items.add(result.get());
+        }
+        return items;
+    }
+
+    private String chunkObjectName(String sessionId, int chunkNumber) {
+        return this.sessionObjectName(sessionId, String.format("%s%08d", CHUNK_PREFIX, chunkNumber));
+    }
+
+    private String sessionObjectName(String sessionId, String name) {
+        if (!sessionId.matches("[0-9a-zA-Z]{1,64}")) {
+            throw new IllegalArgumentException("非法的上传会话 id：" + sessionId);
+        }
+        return SESSION_PREFIX + sessionId + "/" + name;
+    }
+
+    private record Chunk(String objectName, int number, long size, ZonedDateTime lastModified) {
+    }
+
+}
@@ -0,0 +1,425 @@
+package top.wuhunyu.oss.minio;
+
+import cn.hutool.core.util.IdUtil;
+import com.google.common.io.ByteStreams;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * 异步写入队列
+ * 数据先写入暂存目录并强制刷盘，再向追加写的日志记录一条 PUT，之后即可向调用方返回文件对象名称；
+ * 后台线程按批取出记录并发上传，一批中上传成功的记录合并写入一条 DONE 日志后删除暂存数据，失败的记录稍后重新入队。
+ * 启动时重放日志，没有对应 DONE 的记录重新入队，并压缩日志
+ **/
+
+@Slf4j
+class WriteBehindQueue implements AutoCloseable {
+
+    private static final String JOURNAL_FILE = "journal";
+
+    private static final String DATA_SUFFIX = ".data";
+
+    private static final String PUT = "PUT";
+
+    private static final String DONE = "DONE";
+
+    /**
+     * 日志超过该大小时压缩，只保留未完成的记录
+     */
+    private static final long COMPACT_THRESHOLD = 16L * 1024 * 1024;
+
+    /**
+     * 上传一个暂存的文件对象
+     */
+    @FunctionalInterface
+    interface Uploader {
+
+        void upload(String bucketName, String objectName, Path dataFile) throws Exception;
+
+    }
+
+    private final MinioProperties.WriteBehind writeBehind;
+
+    private final Uploader uploader;
+
+    private final Path spoolDirectory;
+
+    private final Path journalFile;
+
+    /**
+     * 未完成的记录，key 为记录 id
+     */
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 未完成的记录，key 为 bucket / 文件对象名称，用于读取尚未上传的文件对象
+     */
+    private final Map<String, Entry> pendingObjects = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("oss-write-behind-retry").factory());
+
+    private final Thread drainThread;
+
+    /**
+     * 日志通道，读写都需要持有当前对象的锁
+     */
+    private FileChannel journal;
+
+    private volatile boolean closed;
+
+    WriteBehindQueue(MinioProperties.WriteBehind writeBehind, Uploader uploader) {
+        this.writeBehind = writeBehind;
+        this.uploader = uploader;
+        this.spoolDirectory = Path.of(writeBehind.getSpoolDirectory()).toAbsolutePath().normalize();
+        this.journalFile = spoolDirectory.resolve(JOURNAL_FILE);
+        try {
+            Files.createDirectories(spoolDirectory);
+            this.replay();
+            this.compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("初始化异步写入目录: " + spoolDirectory + " 异常", e);
+        }
+        if (!pending.isEmpty()) {
+            log.info("异步写入队列恢复未完成的上传 {} 个", pending.size());
+        }
+        queue.addAll(pending.values());
+        this.drainThread = Thread.ofVirtual().name("oss-write-behind").start(this::drain);
+    }
+
+    /**
+     * 暂存一个文件对象，返回时数据和日志均已刷盘
+     */
+    void submit(String bucketName, String objectName, byte[] bytes) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("异步写入队列已关闭");
+        }
+        if (objectName.indexOf('\n') >= 0 || objectName.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("文件对象名称不能包含换行符：" + objectName);
+        }
+        String id = IdUtil.fastSimpleUUID();
+        Path dataFile = spoolDirectory.resolve(id + DATA_SUFFIX);
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            channel.force(false);
+        }
+
+        Entry entry = new Entry(id, bucketName, objectName, dataFile);
+        try {
+            synchronized (this) {
+                this.append(entry.toJournalLine());
+                pending.put(id, entry);
+                pendingObjects.put(entry.objectKey(), entry);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(dataFile);
+            throw e;
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * 读取尚未上传的文件对象
+     *
+     * @return 暂存数据的输入流，不在队列中时返回 null
+     */
+    InputStream open(String bucketName, String objectName) {
+        Entry entry = pendingObjects.get(bucketName + "/" + objectName);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+        try {
+            return Files.newInputStream(entry.dataFile());
+        } catch (IOException e) {
+            // 恰好上传完毕并删除了暂存数据
+            return null;
+        }
+    }
+
+    /**
+     * 读取尚未上传的文件对象的部分数据
+     *
+     * @param offset 开始读取的位置，单位 字节
+     * @param length 最多读取的字节数
+     * @return 暂存数据的输入流，不在队列中时返回 null
+     */
+    InputStream open(String bucketName, String objectName, long offset, long length) {
+        Entry entry = pendingObjects.get(bucketName + "/" + objectName);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(entry.dataFile(), StandardOpenOption.READ);
+            channel.position(offset);
+            return ByteStreams.limit(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            // 恰好上传完毕并删除了暂存数据
+            if (Objects.nonNull(channel)) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 文件对象是否还在队列中等待上传
+     */
+    boolean contains(String bucketName, String objectName) {
+        return pendingObjects.containsKey(bucketName + "/" + objectName);
+    }
+
+    /**
+     * 取消文件对象尚未完成的上传，记录 DONE 后删除暂存数据
+     * 正在上传时等待其结束，返回后不会再上传，调用方随后删除服务端的文件对象即可
+     *
+     * @return 是否取消了排队中的上传
+     */
+    boolean cancel(String bucketName, String objectName) throws IOException {
+        String objectKey = bucketName + "/" + objectName;
+        // 同名的文件对象可能被提交多次
+        List<Entry> entries = pending.values().stream()
+                .filter(entry -> entry.objectKey().equals(objectKey))
+                .toList();
+        boolean cancelled = false;
+        for (Entry entry : entries) {
+            synchronized (entry) {
+                synchronized (this) {
+                    if (!pending.containsKey(entry.id())) {
+                        continue;
+                    }
+                    this.append(DONE + "\t" + entry.id() + "\n");
+                    pending.remove(entry.id());
+                    pendingObjects.remove(objectKey, entry);
+                }
+            }
+            Files.deleteIfExists(entry.dataFile());
+            cancelled = true;
+        }
+        return cancelled;
+    }
+
+    /**
+     * 等待上传的个数
+     */
+    int size() {
+        return pending.size();
+    }
+
+    private void drain() {
+        Semaphore permits = new Semaphore(writeBehind.getParallelism());
+        while (!closed) {
+            List<Entry> batch = new ArrayList<>(writeBehind.getBatchSize());
+            try {
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, writeBehind.getBatchSize() - 1);
+
+                List<Future<Boolean>> futures = new ArrayList<>(batch.size());
+                for (Entry entry : batch) {
+                    permits.acquire();
+                    futures.add(executorService.submit(() -> {
+                        try {
+                            return this.upload(entry);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+                List<Entry> done = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (Boolean.TRUE.equals(futures.get(i).get())) {
+                        done.add(batch.get(i));
+                    } else {
+                        this.retryLater(batch.get(i));
+                    }
+                }
+                this.complete(done);
+            } catch (InterruptedException e) {
+                // 关闭时中断，未完成的记录保留在日志中，下次启动时重放
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("异步写入队列处理异常", e);
+                batch.forEach(this::retryLater);
+            }
+        }
+    }
+
+    private boolean upload(Entry entry) {
+        // 与取消互斥，已取消的记录不再上传
+        synchronized (entry) {
+            if (!pending.containsKey(entry.id())) {
+                return true;
+            }
+            try {
+                uploader.upload(entry.bucketName(), entry.objectName(), entry.dataFile());
+                return true;
+            } catch (Exception e) {
+                log.warn("异步上传 object: {} / {} 异常，{} 后重试", entry.bucketName(), entry.objectName(),
+                        writeBehind.getRetryInterval(), e);
+            }
+        }
+        return false;
+    }
+
+    private void retryLater(Entry entry) {
+        if (!closed) {
+            retryExecutor.schedule(() -> queue.add(entry), writeBehind.getRetryInterval().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 一批上传完成的记录合并为一次日志写入，之后删除暂存数据
+     */
+    private void complete(List<Entry> done) throws IOException {
+        if (done.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        done.forEach(entry -> lines.append(DONE).append('\t').append(entry.id()).append('\n'));
+        synchronized (this) {
+            this.append(lines.toString());
+            // 与取消看到的状态保持一致，不在 pending 中的记录也不再被视为排队中
+            done.forEach(entry -> {
+                pending.remove(entry.id());
+                pendingObjects.remove(entry.objectKey(), entry);
+            });
+            if (journal.size() > COMPACT_THRESHOLD || pending.isEmpty()) {
+                this.compact();
+            }
+        }
+        for (Entry entry : done) {
+            Files.deleteIfExists(entry.dataFile());
+        }
+    }
+
+    private void append(String lines) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        while (byteBuffer.hasRemaining()) {
+            journal.write(byteBuffer);
+        }
+        journal.force(false);
+    }
+
+    /**
+     * 重放日志，恢复没有 DONE 的记录；暂存数据缺失的记录无法恢复，日志之外的暂存数据未曾返回给调用方，直接删除
+     */
+    private void replay() throws IOException {
+        if (Files.isRegularFile(journalFile)) {
+            // 最后一行可能因崩溃而不完整，字段不全时忽略
+            for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", 4);
+                if (fields.length == 4 && PUT.equals(fields[0])) {
+                    Path dataFile = spoolDirectory.resolve(fields[1] + DATA_SUFFIX);
+                    pending.put(fields[1], new Entry(fields[1], fields[2], fields[3], dataFile));
+                } else if (fields.length == 2 && DONE.equals(fields[0])) {
+                    pending.remove(fields[1]);
+                }
+            }
+        }
+        pending.values().removeIf(entry -> {
+            if (Files.isRegularFile(entry.dataFile())) {
+                return false;
+            }
+            log.warn("异步上传 object: {} / {} 的暂存数据丢失，无法恢复", entry.bucketName(), entry.objectName());
+            return true;
+        });
+        pending.values().forEach(entry -> pendingObjects.put(entry.objectKey(), entry));
+
+        try (Stream<Path> paths = Files.list(spoolDirectory)) {
+            for (Path path : paths.filter(path -> path.getFileName().toString().endsWith(DATA_SUFFIX)).toList()) {
+                String id = path.getFileName().toString();
+                if (!pending.containsKey(id.substring(0, id.length() - DATA_SUFFIX.length()))) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * 只保留未完成的记录重写日志，原子替换后重新打开
+     */
+    private synchronized void compact() throws IOException {
+        Path tempFile = spoolDirectory.resolve(JOURNAL_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder lines = new StringBuilder();
+            pending.values().forEach(entry -> lines.append(entry.toJournalLine()));
+            ByteBuffer byteBuffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            channel.force(false);
+        }
+        if (Objects.nonNull(journal)) {
+            journal.close();
+        }
+        Files.move(tempFile, journalFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        drainThread.interrupt();
+        try {
+            drainThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        retryExecutor.shutdownNow();
+        executorService.shutdownNow();
+        synchronized (this) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("关闭异步写入日志异常", e);
+            }
+        }
+    }
+
+    /**
+     * 一条待上传的记录
+     */
+    private record Entry(String id, String bucketName, String objectName, Path dataFile) {
+
+        private String objectKey() {
+            return bucketName + "/" + objectName;
+        }
+
+        private String toJournalLine() {
+            return PUT + "\t" + id + "\t" + bucketName + "\t" + objectName + "\n";
+        }
+
+    }
+
+}
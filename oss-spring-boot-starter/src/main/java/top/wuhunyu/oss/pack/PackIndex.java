@@ -0,0 +1,139 @@
+package top.wuhunyu.oss.pack;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 一个打包文件的索引
+ * 记录每个槽位的数据在打包文件中的偏移量和长度，已删除的槽位长度记为 -长度-1，用于统计打包文件中的无效数据。
+ * 压缩后数据写入新一代的打包文件，槽位编号不变，因此数据 id 始终有效。实例不可变
+ **/
+
+class PackIndex {
+
+    /**
+     * 索引格式标识 OPK1
+     */
+    private static final int MAGIC = 0x4F504B31;
+
+    private final int generation;
+
+    private final long[] offsets;
+
+    private final int[] lengths;
+
+    PackIndex(int generation, long[] offsets, int[] lengths) {
+        this.generation = generation;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    static PackIndex parse(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("不是打包文件索引");
+        }
+        int generation = input.readInt();
+        int count = input.readInt();
+        long[] offsets = new long[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = input.readLong();
+            lengths[i] = input.readInt();
+        }
+        return new PackIndex(generation, offsets, lengths);
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(12 + offsets.length * 12);
+        DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(generation);
+            output.writeInt(offsets.length);
+            for (int i = 0; i < offsets.length; i++) {
+                output.writeLong(offsets[i]);
+                output.writeInt(lengths[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    int slotCount() {
+        return offsets.length;
+    }
+
+    boolean isLive(int slot) {
+        return slot >= 0 && slot < lengths.length && lengths[slot] >= 0;
+    }
+
+    long offset(int slot) {
+        return offsets[slot];
+    }
+
+    int length(int slot) {
+        return lengths[slot];
+    }
+
+    /**
+     * @return 未删除数据的总字节数
+     */
+    long liveBytes() {
+        return Arrays.stream(lengths).filter(length -> length >= 0).asLongStream().sum();
+    }
+
+    /**
+     * @return 当前一代打包文件的总字节数，包含已删除的数据
+     */
+    long totalBytes() {
+        long total = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            int length = lengths[i] >= 0 ? lengths[i] : -lengths[i] - 1;
+            total = Math.max(total, offsets[i] + length);
+        }
+        return total;
+    }
+
+    /**
+     * 标记槽位已删除
+     *
+     * @return 新的索引
+     */
+    PackIndex remove(Collection<Integer> slots) {
+        int[] removed = lengths.clone();
+        slots.stream()
+                .filter(this::isLive)
+                .distinct()
+                .forEach(slot -> removed[slot] = -removed[slot] - 1);
+        return new PackIndex(generation, offsets, removed);
+    }
+
+    /**
+     * 将未删除的数据按槽位顺序紧凑排列，写入下一代打包文件，已删除的槽位不再占用字节
+     *
+     * @param data 当前一代打包文件的内容
+     * @return 新的索引，以及写入 {@code compacted} 的下一代打包文件内容
+     */
+    PackIndex compact(byte[] data, ByteArrayOutputStream compacted) {
+        long[] compactedOffsets = new long[offsets.length];
+        int[] compactedLengths = new int[lengths.length];
+        for (int i = 0; i < offsets.length; i++) {
+            if (lengths[i] >= 0) {
+                compactedOffsets[i] = compacted.size();
+                compactedLengths[i] = lengths[i];
+                compacted.write(data, (int) offsets[i], lengths[i]);
+            } else {
+                compactedLengths[i] = -1;
+            }
+        }
+        return new PackIndex(generation + 1, compactedOffsets, compactedLengths);
+    }
+
+}
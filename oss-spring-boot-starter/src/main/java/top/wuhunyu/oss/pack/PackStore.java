@@ -0,0 +1,562 @@
+package top.wuhunyu.oss.pack;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+import top.wuhunyu.oss.properties.PackProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * 小文件打包存储
+ * 大量的小数据追加写入同一个打包文件，写满或等待超时后一次上传，同时上传记录每个数据偏移量和长度的索引。
+ * 数据 id 为 打包文件 id - 槽位，读取时根据索引对打包文件做范围读取；删除只修改索引，
+ * 压缩时重写已删除数据较多的打包文件。
+ * 打包文件为 前缀 + 打包文件 id + . + 代数 + .pack，索引为 前缀 + 打包文件 id + .idx。
+ * 同一个前缀只能由一个进程写入
+ **/
+
+@Slf4j
+public class PackStore implements AutoCloseable {
+
+    private static final String PACK_SUFFIX = ".pack";
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final OssClient ossClient;
+
+    private final PackProperties packProperties;
+
+    private final String bucketName;
+
+    private final Path indexCacheDirectory;
+
+    /**
+     * 内存中的索引缓存，按访问顺序淘汰，读写都需要持有它的锁
+     */
+    private final Map<String, PackIndex> indexCache;
+
+    /**
+     * 修改索引时按打包文件加锁
+     */
+    private final Map<String, Object> packLocks = new ConcurrentHashMap<>();
+
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("oss-pack-flush").factory());
+
+    /**
+     * 正在写入的打包文件，读写都需要持有当前对象的锁
+     */
+    private OpenPack openPack;
+
+    private boolean closed;
+
+    public PackStore(OssClient ossClient, PackProperties packProperties) {
+        this.ossClient = Objects.requireNonNull(ossClient);
+        this.packProperties = Objects.requireNonNull(packProperties);
+        this.bucketName = Objects.requireNonNull(packProperties.getBucket(), "pack：bucket 不能为空");
+        this.indexCacheDirectory = Path.of(packProperties.getIndexCacheDirectory(), bucketName)
+                .toAbsolutePath().normalize();
+        int indexCacheSize = packProperties.getIndexCacheSize();
+        this.indexCache = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PackIndex> eldest) {
+                return this.size() > indexCacheSize;
+            }
+        };
+        try {
+            Files.createDirectories(indexCacheDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("初始化索引缓存目录: " + indexCacheDirectory + " 异常", e);
+        }
+        long flushInterval = packProperties.getFlushInterval().toMillis();
+        flushExecutor.scheduleWithFixedDelay(this::flushExpired, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 写入一个小数据，与其他写入合并为同一个打包文件上传
+     *
+     * @param bytes 数据内容，不能超过 maxBlobSize
+     * @return 打包文件上传后完成，结果为数据 id；上传失败时以 {@link IllegalStateException} 结束
+     */
+    public CompletableFuture<String> putAsync(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+        if (bytes.length > packProperties.getMaxBlobSize()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "数据大小 " + bytes.length + " 超过了 maxBlobSize: " + packProperties.getMaxBlobSize()));
+        }
+
+        CompletableFuture<String> future;
+        OpenPack fullPack = null;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("打包存储已关闭"));
+            }
+            if (Objects.isNull(openPack)) {
+                openPack = new OpenPack(IdUtil.fastSimpleUUID(), System.currentTimeMillis());
+            }
+            future = openPack.add(bytes);
+            if (openPack.size() >= packProperties.getPackSize()) {
+                fullPack = openPack;
+                openPack = null;
+            }
+        }
+        if (Objects.nonNull(fullPack)) {
+            OpenPack pack = fullPack;
+            executorService.execute(() -> this.upload(pack));
+        }
+        return future;
+    }
+
+    /**
+     * 写入一个小数据，等待所在的打包文件上传完毕
+     *
+     * @param bytes 数据内容，不能超过 maxBlobSize
+     * @return 数据 id，失败时返回 null
+     * @see #putAsync(byte[])
+     */
+    public String put(byte[] bytes) {
+        try {
+            return this.putAsync(bytes).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("写入打包数据被中断", e);
+        } catch (ExecutionException e) {
+            log.warn("写入打包数据异常", e.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * 读取一个数据
+     *
+     * @param blobId 数据 id
+     * @return 数据内容，不存在或读取失败时返回 null
+     */
+    public byte[] get(String blobId) {
+        Objects.requireNonNull(blobId);
+
+        BlobId id = BlobId.parse(blobId);
+        if (Objects.isNull(id)) {
+            return null;
+        }
+        PackIndex index = this.loadIndex(id.packId());
+        if (Objects.isNull(index) || !index.isLive(id.slot())) {
+            return null;
+        }
+        byte[] bytes = this.read(id, index);
+        if (Objects.isNull(bytes)) {
+            // 缓存的索引可能已被压缩替换，旧一代的打包文件已删除，重新加载索引后再读一次
+            this.invalidateIndex(id.packId());
+            PackIndex latest = this.loadIndex(id.packId());
+            if (Objects.nonNull(latest) && latest.isLive(id.slot()) && latest.generation() != index.generation()) {
+                bytes = this.read(id, latest);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 删除一个数据
+     *
+     * @param blobId 数据 id
+     * @return true: 删除成功; false: 删除失败
+     * @see #remove(Collection)
+     */
+    public Boolean remove(String blobId) {
+        Objects.requireNonNull(blobId);
+
+        return this.remove(List.of(blobId)).get(blobId);
+    }
+
+    /**
+     * 批量删除数据，同一个打包文件中的数据只重写一次索引；打包文件中的数据全部删除时同时删除打包文件
+     *
+     * @param blobIds 数据 id 集合
+     * @return 每个数据 id 的删除结果，已不存在的数据视为删除成功
+     */
+    public Map<String, Boolean> remove(Collection<String> blobIds) {
+        Objects.requireNonNull(blobIds);
+
+        Map<String, Boolean> results = new HashMap<>(blobIds.size() * 2);
+        Map<String, List<BlobId>> groups = new HashMap<>();
+        for (String blobId : blobIds) {
+            BlobId id = BlobId.parse(blobId);
+            if (Objects.isNull(id)) {
+                results.put(blobId, Boolean.FALSE);
+            } else {
+                groups.computeIfAbsent(id.packId(), k -> new ArrayList<>()).add(id);
+            }
+        }
+        groups.forEach((packId, ids) -> {
+            Boolean removed = this.removeSlots(packId, ids.stream().map(BlobId::slot).toList());
+            ids.forEach(id -> results.put(id.toString(), removed));
+        });
+        return results;
+    }
+
+    /**
+     * 重写已删除数据比例达到 compactGarbageRatio 的打包文件，数据 id 保持不变
+     *
+     * @return 重写的打包文件个数
+     */
+    public Integer compact() {
+        List<String> packIds;
+        try (Stream<ObjectSummary> objects = ossClient.listObjects(bucketName, packProperties.getPrefix())) {
+            packIds = objects.map(ObjectSummary::objectName)
+                    .filter(objectName -> objectName.endsWith(INDEX_SUFFIX))
+                    .map(objectName -> objectName.substring(packProperties.getPrefix().length(),
+                            objectName.length() - INDEX_SUFFIX.length()))
+                    .toList();
+        } catch (RuntimeException e) {
+            log.warn("列举打包文件索引 bucket: {} prefix: {} 异常", bucketName, packProperties.getPrefix(), e);
+            return 0;
+        }
+        int compacted = 0;
+        for (String packId : packIds) {
+            if (this.compact(packId)) {
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * 立即上传正在写入的打包文件
+     */
+    public void flush() {
+        OpenPack pack;
+        synchronized (this) {
+            pack = openPack;
+            openPack = null;
+        }
+        if (Objects.nonNull(pack)) {
+            this.upload(pack);
+        }
+    }
+
+    /**
+     * 上传正在写入的打包文件后关闭
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flushExecutor.shutdownNow();
+        this.flush();
+        executorService.close();
+    }
+
+    private void flushExpired() {
+        OpenPack pack;
+        synchronized (this) {
+            if (Objects.isNull(openPack) || System.currentTimeMillis() - openPack.createdAt()
+                    < packProperties.getFlushInterval().toMillis()) {
+                return;
+            }
+            pack = openPack;
+            openPack = null;
+        }
+        executorService.execute(() -> this.upload(pack));
+    }
+
+    /**
+     * 先上传打包文件再上传索引，索引上传成功后数据才可见
+     */
+    private void upload(OpenPack pack) {
+        PackIndex index = pack.toIndex();
+        String dataObjectName = this.dataObjectName(pack.packId(), index.generation());
+        if (!Boolean.TRUE.equals(ossClient.putObject(bucketName, dataObjectName, pack.toBytes()))) {
+            pack.fail(new IllegalStateException("上传打包文件 object: " + bucketName + " / " + dataObjectName + " 失败"));
+            return;
+        }
+        if (!this.saveIndex(pack.packId(), index)) {
+            ossClient.removeObject(bucketName, dataObjectName);
+            pack.fail(new IllegalStateException("上传打包文件索引 object: " + bucketName + " / "
+                    + this.indexObjectName(pack.packId()) + " 失败"));
+            return;
+        }
+        pack.complete();
+    }
+
+    private byte[] read(BlobId id, PackIndex index) {
+        int length = index.length(id.slot());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(length);
+        if (length > 0) {
+            Long read = ossClient.getObject(bucketName, this.dataObjectName(id.packId(), index.generation()),
+                    index.offset(id.slot()), (long) length, outputStream);
+            if (Objects.isNull(read) || read != length) {
+                return null;
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    private Boolean removeSlots(String packId, List<Integer> slots) {
+        synchronized (this.packLock(packId)) {
+            PackIndex index = this.loadIndex(packId);
+            if (Objects.isNull(index)) {
+                // 索引不存在说明整个打包文件已删除
+                return !ossClient.isObjectExist(bucketName, this.indexObjectName(packId));
+            }
+            PackIndex removed = index.remove(slots);
+            if (removed.liveBytes() > 0 || this.hasLiveEmptySlot(removed)) {
+                return this.saveIndex(packId, removed);
+            }
+            // 先删除索引，中途失败时只会留下无法访问的打包文件
+            if (!Boolean.TRUE.equals(ossClient.removeObject(bucketName, this.indexObjectName(packId)))) {
+                return Boolean.FALSE;
+            }
+            this.invalidateIndex(packId);
+            ossClient.removeObject(bucketName, this.dataObjectName(packId, index.generation()));
+            return Boolean.TRUE;
+        }
+    }
+
+    private boolean compact(String packId) {
+        synchronized (this.packLock(packId)) {
+            PackIndex index = this.loadIndex(packId);
+            if (Objects.isNull(index)) {
+                return false;
+            }
+            long totalBytes = index.totalBytes();
+            if (totalBytes == 0 || index.liveBytes() == 0
+                    || 1 - (double) index.liveBytes() / totalBytes < packProperties.getCompactGarbageRatio()) {
+                return false;
+            }
+            String dataObjectName = this.dataObjectName(packId, index.generation());
+            ByteArrayOutputStream data = new ByteArrayOutputStream((int) totalBytes);
+            Long read = ossClient.getObject(bucketName, dataObjectName, data);
+            if (Objects.isNull(read) || read < totalBytes) {
+                log.warn("读取打包文件 object: {} / {} 失败，跳过压缩", bucketName, dataObjectName);
+                return false;
+            }
+            ByteArrayOutputStream compactedData = new ByteArrayOutputStream((int) index.liveBytes());
+            PackIndex compacted = index.compact(data.toByteArray(), compactedData);
+            String compactedObjectName = this.dataObjectName(packId, compacted.generation());
+            if (!Boolean.TRUE.equals(ossClient.putObject(bucketName, compactedObjectName,
+                    compactedData.toByteArray()))) {
+                return false;
+            }
+            if (!this.saveIndex(packId, compacted)) {
+                ossClient.removeObject(bucketName, compactedObjectName);
+                return false;
+            }
+            ossClient.removeObject(bucketName, dataObjectName);
+            log.info("压缩打包文件 {}：{} 字节 -> {} 字节", packId, totalBytes, compacted.liveBytes());
+            return true;
+        }
+    }
+
+    /**
+     * 长度为 0 的数据不占用字节，判断是否还有这样的数据未删除
+     */
+    private boolean hasLiveEmptySlot(PackIndex index) {
+        for (int slot = 0; slot < index.slotCount(); slot++) {
+            if (index.isLive(slot) && index.length(slot) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 依次从内存、本地磁盘、oss 加载索引
+     *
+     * @return 索引，不存在或加载失败时返回 null
+     */
+    private PackIndex loadIndex(String packId) {
+        synchronized (indexCache) {
+            PackIndex index = indexCache.get(packId);
+            if (Objects.nonNull(index)) {
+                return index;
+            }
+        }
+        Path cacheFile = indexCacheDirectory.resolve(packId + INDEX_SUFFIX);
+        try {
+            if (Files.isRegularFile(cacheFile)) {
+                PackIndex index = PackIndex.parse(Files.readAllBytes(cacheFile));
+                this.cacheIndex(packId, index);
+                return index;
+            }
+        } catch (IOException e) {
+            log.warn("读取索引缓存 {} 异常", cacheFile, e);
+        }
+
+        String indexObjectName = this.indexObjectName(packId);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (!ossClient.isObjectExist(bucketName, indexObjectName)
+                || Objects.isNull(ossClient.getObject(bucketName, indexObjectName, outputStream))) {
+            return null;
+        }
+        try {
+            PackIndex index = PackIndex.parse(outputStream.toByteArray());
+            this.writeCacheFile(packId, index);
+            this.cacheIndex(packId, index);
+            return index;
+        } catch (IOException e) {
+            log.warn("解析打包文件索引 object: {} / {} 异常", bucketName, indexObjectName, e);
+        }
+        return null;
+    }
+
+    /**
+     * 上传索引并更新缓存
+     */
+    private Boolean saveIndex(String packId, PackIndex index) {
+        if (!Boolean.TRUE.equals(ossClient.putObject(bucketName, this.indexObjectName(packId), index.toBytes()))) {
+            return Boolean.FALSE;
+        }
+        this.writeCacheFile(packId, index);
+        this.cacheIndex(packId, index);
+        return Boolean.TRUE;
+    }
+
+    private void cacheIndex(String packId, PackIndex index) {
+        synchronized (indexCache) {
+            indexCache.put(packId, index);
+        }
+    }
+
+    private void invalidateIndex(String packId) {
+        synchronized (indexCache) {
+            indexCache.remove(packId);
+        }
+        try {
+            Files.deleteIfExists(indexCacheDirectory.resolve(packId + INDEX_SUFFIX));
+        } catch (IOException e) {
+            log.warn("删除索引缓存 {} 异常", packId, e);
+        }
+    }
+
+    /**
+     * 先写入临时文件再原子替换，读取方不会读到残缺的索引
+     */
+    private void writeCacheFile(String packId, PackIndex index) {
+        Path cacheFile = indexCacheDirectory.resolve(packId + INDEX_SUFFIX);
+        Path tempFile = indexCacheDirectory.resolve(packId + INDEX_SUFFIX + "." + IdUtil.fastSimpleUUID());
+        try {
+            Files.write(tempFile, index.toBytes());
+            Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("写入索引缓存 {} 异常", cacheFile, e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private Object packLock(String packId) {
+        return packLocks.computeIfAbsent(packId, k -> new Object());
+    }
+
+    private String dataObjectName(String packId, int generation) {
+        return packProperties.getPrefix() + packId + "." + generation + PACK_SUFFIX;
+    }
+
+    private String indexObjectName(String packId) {
+        return packProperties.getPrefix() + packId + INDEX_SUFFIX;
+    }
+
+    /**
+     * 数据 id：打包文件 id - 槽位
+     */
+    private record BlobId(String packId, int slot) {
+
+        private static BlobId parse(String blobId) {
+            int index = blobId.lastIndexOf('-');
+            if (index <= 0) {
+                return null;
+            }
+            try {
+                return new BlobId(blobId.substring(0, index), Integer.parseInt(blobId.substring(index + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return packId + "-" + slot;
+        }
+
+    }
+
+    /**
+     * 正在写入的打包文件，只在持有 {@link PackStore} 的锁时追加
+     */
+    private static class OpenPack {
+
+        private final String packId;
+
+        private final long createdAt;
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        private final List<Long> offsets = new ArrayList<>();
+
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private final List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        private OpenPack(String packId, long createdAt) {
+            this.packId = packId;
+            this.createdAt = createdAt;
+        }
+
+        private String packId() {
+            return packId;
+        }
+
+        private long createdAt() {
+            return createdAt;
+        }
+
+        private long size() {
+            return data.size();
+        }
+
+        private CompletableFuture<String> add(byte[] bytes) {
+            offsets.add((long) data.size());
+            lengths.add(bytes.length);
+            data.writeBytes(bytes);
+            CompletableFuture<String> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }
+
+        private byte[] toBytes() {
+            return data.toByteArray();
+        }
+
+        private PackIndex toIndex() {
+            return new PackIndex(0, offsets.stream().mapToLong(Long::longValue).toArray(),
+                    lengths.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private void complete() {
+            for (int slot = 0; slot < futures.size(); slot++) {
+                futures.get(slot).complete(packId + "-" + slot);
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            futures.forEach(future -> future.completeExceptionally(throwable));
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package top.wuhunyu.oss.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 本地文件系统存储配置参数
+ **/
+
+@Data
+@ConfigurationProperties(prefix = "spring.oss.local")
+public class LocalProperties {
+
+    /**
+     * 是否启用，启用后使用本地文件系统代替 minio
+     * true: 启用; false: 禁用
+     */
+    private Boolean enabled = Boolean.FALSE;
+
+    /**
+     * 存储根目录，每个 bucket 对应根目录下的一个子目录
+     */
+    private String rootDirectory = System.getProperty("java.io.tmpdir") + "/oss-local";
+
+    /**
+     * 上传会话超过该时间未上传分片时视为已放弃，开始新的会话时顺带清理
+     */
+    private Duration sessionExpire = Duration.ofHours(24);
+
+}
@@ -4,6 +4,12 @@ import lombok.Data;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * minio 配置参数
  *
@@ -27,6 +33,11 @@ public class MinioProperties {
      */
     private String endpoint;
 
+    /**
+     * 同一集群中的其它接入点，配置后请求在各接入点之间路由并自动故障切换
+     */
+    private List<String> endpoints = new ArrayList<>();
+
     /**
      * 访问keu
      */
@@ -39,6 +50,7 @@ public class MinioProperties {
 
     /**
      * 区域
+     * 配置后批量签名临时凭证时在本地直接计算签名；未配置时由 minio 客户端查询 bucket 所在的区域后逐个签名
      */
     private String region;
 
@@ -47,4 +59,465 @@ public class MinioProperties {
      */
     private String defaultBucket;
 
+    /**
+     * 读写文件对象时使用的缓冲区大小，单位 字节
+     */
+    private Integer bufferSize = 64 * 1024;
+
+    /**
+     * http 连接配置
+     */
+    private Http http = new Http();
+
+    /**
+     * 多接入点路由配置
+     */
+    private Routing routing = new Routing();
+
+    /**
+     * 重试与对冲请求配置
+     */
+    private Resilience resilience = new Resilience();
+
+    /**
+     * 并发与带宽限制配置
+     */
+    private Throttle throttle = new Throttle();
+
+    /**
+     * 并发分片下载配置
+     */
+    private Download download = new Download();
+
+    /**
+     * 并发分片上传配置
+     */
+    private Upload upload = new Upload();
+
+    /**
+     * 批量操作配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 元数据缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 本地磁盘文件对象缓存配置
+     */
+    private DiskCache diskCache = new DiskCache();
+
+    /**
+     * 临时凭证配置
+     */
+    private Presign presign = new Presign();
+
+    /**
+     * 断点续传上传会话配置
+     */
+    private Session session = new Session();
+
+    /**
+     * 内容寻址去重上传配置
+     */
+    private Dedup dedup = new Dedup();
+
+    /**
+     * 上传压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 异步写入配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 服务端复制配置
+     */
+    private Copy copy = new Copy();
+
+    @Data
+    public static class Http {
+
+        /**
+         * 连接池最多保留的空闲连接数
+         */
+        private Integer maxIdleConnections = 64;
+
+        /**
+         * 空闲连接的保活时间
+         */
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        /**
+         * 异步请求的最大并发数
+         */
+        private Integer maxRequests = 256;
+
+        /**
+         * 对同一个主机的异步请求的最大并发数
+         */
+        private Integer maxRequestsPerHost = 64;
+
+        /**
+         * 连接超时时间
+         */
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 读超时时间
+         */
+        private Duration readTimeout = Duration.ofSeconds(60);
+
+        /**
+         * 写超时时间
+         */
+        private Duration writeTimeout = Duration.ofSeconds(60);
+
+        /**
+         * 是否启用 http2，仅在 https 接入点且服务端支持时生效
+         */
+        private Boolean http2 = Boolean.FALSE;
+
+    }
+
+    @Data
+    public static class Download {
+
+        /**
+         * 分片大小，单位 字节
+         * 文件对象不超过该大小时使用单连接下载
+         */
+        private Long partSize = 16L * 1024 * 1024;
+
+        /**
+         * 单个文件对象同时下载的分片数
+         */
+        private Integer parallelism = 8;
+
+        /**
+         * 单个分片下载失败后的最大重试次数
+         */
+        private Integer maxRetries = 3;
+
+    }
+
+    @Data
+    public static class Upload {
+
+        /**
+         * 分片大小，单位 字节，不能小于 5MB
+         * 输入流不足一个分片时使用单次上传
+         */
+        private Integer partSize = 16 * 1024 * 1024;
+
+        /**
+         * 单个文件对象同时上传的分片数
+         */
+        private Integer parallelism = 4;
+
+        /**
+         * 分片缓冲池最多保留的空闲缓冲区个数
+         */
+        private Integer maxPooledBuffers = 16;
+
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * 批量操作同时执行的请求数
+         */
+        private Integer parallelism = 16;
+
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * 是否启用 bucket / 文件对象元数据缓存
+         */
+        private Boolean enabled = Boolean.FALSE;
+
+        /**
+         * 最多缓存的条目数
+         */
+        private Integer maximumSize = 10000;
+
+        /**
+         * 存在的结果的有效期
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+
+        /**
+         * 不存在的结果的有效期
+         */
+        private Duration negativeTtl = Duration.ofSeconds(5);
+
+    }
+
+    @Data
+    public static class DiskCache {
+
+        /**
+         * 是否启用本地磁盘文件对象缓存
+         */
+        private Boolean enabled = Boolean.FALSE;
+
+        /**
+         * 缓存目录，启动时会删除目录中上一次运行遗留的缓存文件，其他文件不受影响
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/oss-disk-cache";
+
+        /**
+         * 缓存占用的最大字节数
+         */
+        private Long maxBytes = 1024L * 1024 * 1024;
+
+        /**
+         * 可被缓存的单个文件对象最大字节数，超过该大小的文件对象直接从服务端读取
+         */
+        private Long maxObjectSize = 64L * 1024 * 1024;
+
+    }
+
+    @Data
+    public static class Presign {
+
+        /**
+         * 是否缓存已签名的临时凭证地址
+         */
+        private Boolean cacheEnabled = Boolean.FALSE;
+
+        /**
+         * 最多缓存的地址数
+         */
+        private Integer maximumSize = 10000;
+
+        /**
+         * 剩余有效时间不低于总有效时间的该比例时复用已签名的地址
+         */
+        private Double reuseFraction = 0.5;
+
+    }
+
+    @Data
+    public static class Session {
+
+        /**
+         * 会话超过该时间未上传分片时视为已放弃
+         */
+        private Duration expire = Duration.ofHours(24);
+
+        /**
+         * 后台清理已放弃会话的间隔，默认为 0 不启动后台线程，可以通过 purgeExpiredUploadSessions 按需清理
+         * 启用后只清理 defaultBucket 以及本客户端开始过会话的 bucket
+         */
+        private Duration purgeInterval = Duration.ZERO;
+
+    }
+
+    @Data
+    public static class Dedup {
+
+        /**
+         * 是否启用内容寻址上传，启用后上传的文件对象以内容摘要命名，内容相同的文件对象只保存一份
+         * 同一份内容的所有上传方共享同一个文件对象且没有引用计数，删除一次即对所有持有者丢失，
+         * 因此启用期间 removeObject / removeObjects 会拒绝删除以摘要命名的文件对象，移动这类文件对象也只会完成复制；
+         * 需要回收时请在关闭后删除，或使用 bucket 生命周期规则清理
+         */
+        private Boolean enabled = Boolean.FALSE;
+
+        /**
+         * 摘要算法，需要是 {@link java.security.MessageDigest} 支持的算法
+         */
+        private String algorithm = "SHA-256";
+
+        /**
+         * 未知长度的输入流先写入该目录下的临时文件，摘要计算完毕后再决定是否上传
+         */
+        private String spoolDirectory = System.getProperty("java.io.tmpdir");
+
+    }
+
+    @Data
+    public static class Compression {
+
+        /**
+         * 是否在上传时压缩，已压缩的文件对象无论是否启用都会在读取时自动解压
+         * 压缩的文件对象不能合并；statObjects 返回解压后的长度，listObjects 返回服务端保存的压缩后长度；
+         * 启用期间 GET 临时凭证会让服务端响应 Content-Encoding: gzip，关闭后签发的临时凭证返回压缩后的原始字节
+         */
+        private Boolean enabled = Boolean.FALSE;
+
+        /**
+         * 需要压缩的 bucket，为空时不限制
+         */
+        private List<String> buckets = new ArrayList<>();
+
+        /**
+         * 需要压缩的媒体类型前缀
+         */
+        private List<String> contentTypes = new ArrayList<>(List.of(
+                "text/", "application/json", "application/xml", "application/javascript"));
+
+        /**
+         * 压缩帧的原始大小，范围读取时只需要下载并解压覆盖该范围的帧
+         */
+        private Integer frameSize = 4 * 1024 * 1024;
+
+        /**
+         * 压缩级别，1 ~ 9
+         */
+        private Integer level = 6;
+
+    }
+
+    @Data
+    public static class Routing {
+
+        /**
+         * 健康探测间隔
+         */
+        private Duration probeInterval = Duration.ofSeconds(5);
+
+        /**
+         * 健康探测超时时间
+         */
+        private Duration probeTimeout = Duration.ofSeconds(2);
+
+    }
+
+    @Data
+    public static class Resilience {
+
+        /**
+         * 幂等请求遇到 io 异常或 429、5xx 响应时的最大尝试次数，包含第一次，为 1 时不重试
+         */
+        private Integer maxAttempts = 3;
+
+        /**
+         * 第一次重试前的最大退避时间，之后每次翻倍，实际退避时间在 0 与该值之间随机
+         */
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        /**
+         * 最大退避时间
+         */
+        private Duration maxBackoff = Duration.ofSeconds(5);
+
+        /**
+         * 单个 S3 操作包含重试在内的最长时间，为 0 时不限制
+         */
+        private Duration deadline = Duration.ZERO;
+
+        /**
+         * 是否对下载、查询元数据发送对冲请求
+         * 第一个请求超过近期耗时的分位值仍未返回时再发送一个相同的请求，取先返回的结果
+         */
+        private Boolean hedgeEnabled = Boolean.FALSE;
+
+        /**
+         * 触发对冲请求的耗时分位
+         */
+        private Double hedgeQuantile = 0.95;
+
+        /**
+         * 触发对冲请求的最小延迟
+         */
+        private Duration hedgeMinDelay = Duration.ofMillis(20);
+
+    }
+
+    @Data
+    public static class Throttle {
+
+        /**
+         * 全局限制
+         */
+        private Limit global = new Limit();
+
+        /**
+         * 按 bucket 的限制，键为 bucket 名称
+         */
+        private Map<String, Limit> buckets = new HashMap<>();
+
+        /**
+         * 并发数已满时的最长排队时间，超时后拒绝请求，为 0 时立即拒绝
+         */
+        private Duration maxWait = Duration.ofSeconds(30);
+
+    }
+
+    @Data
+    public static class Limit {
+
+        /**
+         * 同时执行的最大请求数，响应体读取完毕或关闭前一直占用，为 0 时不限制
+         */
+        private Integer maxConcurrent = 0;
+
+        /**
+         * 上传与下载合计的每秒最大字节数，为 0 时不限制
+         */
+        private Long bytesPerSecond = 0L;
+
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * 是否启用异步写入，启用后 upload4Bytes 将数据写入本地暂存目录后立即返回文件对象名称，由后台上传到服务端
+         */
+        private Boolean enabled = Boolean.FALSE;
+
+        /**
+         * 暂存目录，保存待上传的数据和日志，进程重启后继续上传；不能被多个客户端共用
+         */
+        private String spoolDirectory = System.getProperty("java.io.tmpdir") + "/oss-write-behind";
+
+        /**
+         * 每批从队列中取出的最大个数，同一批上传完成的记录合并为一次日志写入
+         */
+        private Integer batchSize = 64;
+
+        /**
+         * 同时上传的个数
+         */
+        private Integer parallelism = 8;
+
+        /**
+         * 上传失败后重新入队的间隔
+         */
+        private Duration retryInterval = Duration.ofSeconds(5);
+
+    }
+
+    @Data
+    public static class Copy {
+
+        /**
+         * 超过该大小的文件对象拆分为多个范围并发复制，单位 字节，不能超过 5GB
+         * 不超过该大小时使用一次 CopyObject
+         */
+        private Long multipartThreshold = 5L * 1024 * 1024 * 1024;
+
+        /**
+         * 分片复制的分片大小，单位 字节，不能小于 5MB；分片数超过 10000 时自动增大
+         */
+        private Long partSize = 512L * 1024 * 1024;
+
+        /**
+         * 单个文件对象同时复制的分片数
+         */
+        private Integer parallelism = 8;
+
+    }
+
 }
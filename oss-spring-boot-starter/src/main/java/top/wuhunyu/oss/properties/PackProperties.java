@@ -0,0 +1,62 @@
+package top.wuhunyu.oss.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 小文件打包存储配置参数
+ **/
+
+@Data
+@ConfigurationProperties(prefix = "spring.oss.pack")
+public class PackProperties {
+
+    /**
+     * 是否启用
+     * true: 启用; false: 禁用
+     */
+    private Boolean enabled = Boolean.FALSE;
+
+    /**
+     * 保存打包文件和索引的 bucket
+     */
+    private String bucket;
+
+    /**
+     * 打包文件和索引的名称前缀，同一个前缀只能由一个进程写入
+     */
+    private String prefix = "packs/";
+
+    /**
+     * 打包文件达到该大小时上传，单位 字节
+     */
+    private Long packSize = 16L * 1024 * 1024;
+
+    /**
+     * 允许打包的最大数据大小，单位 字节，更大的数据应直接上传
+     */
+    private Integer maxBlobSize = 1024 * 1024;
+
+    /**
+     * 打包文件未写满时，最早写入的数据等待超过该时间也会上传
+     */
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /**
+     * 已删除数据占打包文件的比例达到该值时，压缩会重写该打包文件
+     */
+    private Double compactGarbageRatio = 0.5;
+
+    /**
+     * 内存中缓存的索引个数
+     */
+    private Integer indexCacheSize = 4096;
+
+    /**
+     * 索引的本地磁盘缓存目录
+     */
+    private String indexCacheDirectory = System.getProperty("java.io.tmpdir") + "/oss-pack-index";
+
+}
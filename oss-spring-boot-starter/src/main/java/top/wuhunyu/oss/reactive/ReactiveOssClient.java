@@ -0,0 +1,236 @@
+package top.wuhunyu.oss.reactive;
+
+import cn.hutool.core.io.IoUtil;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * 响应式 oss 客户端
+ * 阻塞的存储 I/O 在虚拟线程上执行，不会占用事件循环线程；下载按订阅方的请求量逐块读取，
+ * 上传按有限的预取量拉取数据，两个方向都不会在内存中缓冲完整的文件对象
+ **/
+
+public class ReactiveOssClient implements AutoCloseable {
+
+    /**
+     * 下载时每个数据块的字节数
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * 上传时预取的数据块个数
+     */
+    private static final int UPLOAD_PREFETCH = 4;
+
+    private final OssClient ossClient;
+
+    private final ExecutorService executorService;
+
+    private final Scheduler scheduler;
+
+    public ReactiveOssClient(OssClient ossClient) {
+        this.ossClient = Objects.requireNonNull(ossClient);
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.scheduler = Schedulers.fromExecutorService(executorService, "oss-reactive");
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+        executorService.shutdown();
+    }
+
+    /**
+     * 以数据块的形式读取一个文件对象
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @return 文件对象的数据块，文件对象不存在或读取失败时以 {@link IllegalStateException} 结束
+     */
+    public Flux<ByteBuffer> getObject(String bucketName, String objectName) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+
+        return this.read(() -> ossClient.getObjectInputStream(bucketName, objectName), bucketName, objectName);
+    }
+
+    /**
+     * 以数据块的形式读取一个文件对象的部分数据
+     *
+     * @param bucketName bucket
+     * @param objectName 文件对象的绝对访问路径
+     * @param offset     开始读取的位置，单位 字节
+     * @param length     读取的字节数
+     * @return 文件对象的数据块，文件对象不存在或读取失败时以 {@link IllegalStateException} 结束
+     */
+    public Flux<ByteBuffer> getObject(String bucketName, String objectName, Long offset, Long length) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(objectName);
+        Objects.requireNonNull(offset);
+        Objects.requireNonNull(length);
+
+        return this.read(() -> ossClient.getObjectInputStream(bucketName, objectName, offset, length),
+                bucketName, objectName);
+    }
+
+    /**
+     * 按订阅方的请求量逐块读取输入流，每个请求都在虚拟线程上执行
+     */
+    private Flux<ByteBuffer> read(InputStreamSupplier inputStreamSupplier, String bucketName, String objectName) {
+        return Flux.using(() -> {
+                    InputStream inputStream = inputStreamSupplier.get();
+                    if (Objects.isNull(inputStream)) {
+                        throw new IllegalStateException("读取 object: " + bucketName + " / " + objectName + " 失败");
+                    }
+                    return inputStream;
+                }, inputStream -> Flux.<ByteBuffer>generate(sink -> {
+                    try {
+                        byte[] bytes = new byte[CHUNK_SIZE];
+                        int read = inputStream.readNBytes(bytes, 0, bytes.length);
+                        if (read > 0) {
+                            sink.next(ByteBuffer.wrap(bytes, 0, read));
+                        }
+                        if (read < bytes.length) {
+                            sink.complete();
+                        }
+                    } catch (IOException e) {
+                        sink.error(new IllegalStateException(
+                                "读取 object: " + bucketName + " / " + objectName + " 异常", e));
+                    }
+                }), IoUtil::close)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * 上传数据块，文件名称随机生成
+     *
+     * @param bucketName bucket
+     * @param content    文件内容
+     * @param suffix     文件后缀，没有 .
+     * @return 上传完毕后文件在文件服务器的路径，上传失败时以 {@link IllegalStateException} 结束
+     */
+    public Mono<String> upload(String bucketName, Publisher<ByteBuffer> content, String suffix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(content);
+        Objects.requireNonNull(suffix);
+
+        return Mono.using(() -> Flux.from(content).toStream(UPLOAD_PREFETCH),
+                        buffers -> Mono.fromCallable(() -> {
+                            String objectName = ossClient.upload4InputStream(bucketName,
+                                    new ByteBufferInputStream(buffers.iterator()), suffix);
+                            if (Objects.isNull(objectName) || objectName.isEmpty()) {
+                                throw new IllegalStateException("上传 object: " + bucketName + " 失败");
+                            }
+                            return objectName;
+                        }),
+                        Stream::close)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * 上传 spring 的数据缓冲区，每个缓冲区复制后立即释放，适用于 WebFlux 的请求体
+     *
+     * @param bucketName bucket
+     * @param content    文件内容
+     * @param suffix     文件后缀，没有 .
+     * @return 上传完毕后文件在文件服务器的路径，上传失败时以 {@link IllegalStateException} 结束
+     * @see #upload(String, Publisher, String)
+     */
+    public Mono<String> uploadDataBuffers(String bucketName, Publisher<DataBuffer> content, String suffix) {
+        Objects.requireNonNull(content);
+
+        return this.upload(bucketName, Flux.from(content)
+                .map(dataBuffer -> {
+                    try {
+                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                        dataBuffer.read(bytes);
+                        return ByteBuffer.wrap(bytes);
+                    } finally {
+                        DataBufferUtils.release(dataBuffer);
+                    }
+                }), suffix);
+    }
+
+    /**
+     * 递归列举前缀下的所有文件对象，按订阅方的请求量分页拉取
+     *
+     * @param bucketName bucket
+     * @param prefix     文件对象名称前缀
+     * @return 按名称排序的文件对象摘要
+     * @see OssClient#listObjects(String, String)
+     */
+    public Flux<ObjectSummary> listObjects(String bucketName, String prefix) {
+        Objects.requireNonNull(bucketName);
+        Objects.requireNonNull(prefix);
+
+        return Flux.fromStream(() -> ossClient.listObjects(bucketName, prefix))
+                .subscribeOn(scheduler);
+    }
+
+    @FunctionalInterface
+    private interface InputStreamSupplier {
+
+        InputStream get() throws Exception;
+
+    }
+
+    /**
+     * 将数据块迭代器按字节读取，迭代器阻塞等待上游的数据
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final Iterator<ByteBuffer> buffers;
+
+        private ByteBuffer current = ByteBuffer.allocate(0);
+
+        private ByteBufferInputStream(Iterator<ByteBuffer> buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public int read() {
+            return this.nextBuffer() ? current.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!this.nextBuffer()) {
+                return -1;
+            }
+            int size = Math.min(length, current.remaining());
+            current.get(bytes, offset, size);
+            return size;
+        }
+
+        private boolean nextBuffer() {
+            while (!current.hasRemaining()) {
+                if (!buffers.hasNext()) {
+                    return false;
+                }
+                current = buffers.next();
+            }
+            return true;
+        }
+
+    }
+
+}
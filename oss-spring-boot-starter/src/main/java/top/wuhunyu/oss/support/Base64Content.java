@@ -0,0 +1,159 @@
+package top.wuhunyu.oss.support;
+
+import cn.hutool.core.io.FileTypeUtil;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.HexUtil;
+
+import java.io.*;
+import java.util.Base64;
+
+/**
+ * 流式解码的 base64 内容
+ * 边读取字符流边解码，不在内存中保留完整的编码或解码数据；
+ * 支持 data:[媒体类型];base64, 形式的前缀，并根据解码后内容的文件头识别文件类型
+ **/
+
+public class Base64Content {
+
+    private static final String DATA_URI_PREFIX = "data:";
+
+    private static final String BASE64_MARKER = ";base64";
+
+    /**
+     * data uri 前缀的最大长度
+     */
+    private static final int MAX_PREFIX_LENGTH = 256;
+
+    /**
+     * 识别文件类型需要的文件头长度
+     */
+    private static final int MAGIC_LENGTH = 28;
+
+    private static final String DEFAULT_SUFFIX = "bin";
+
+    private final InputStream inputStream;
+
+    private final String contentType;
+
+    private final String suffix;
+
+    private Base64Content(InputStream inputStream, String contentType, String suffix) {
+        this.inputStream = inputStream;
+        this.contentType = contentType;
+        this.suffix = suffix;
+    }
+
+    /**
+     * 解码 base64 字符流，只读取前缀和文件头，其余内容在读取 {@link #getInputStream()} 时解码
+     *
+     * @param reader base64 字符流
+     * @return base64 内容
+     */
+    public static Base64Content decode(Reader reader) throws IOException {
+        PushbackReader pushbackReader = new PushbackReader(reader, MAX_PREFIX_LENGTH);
+
+        // 解析 data uri 前缀
+        char[] head = new char[MAX_PREFIX_LENGTH];
+        int headLength = 0;
+        int read;
+        while (headLength < head.length
+                && (read = pushbackReader.read(head, headLength, head.length - headLength)) != -1) {
+            headLength += read;
+        }
+        String prefix = new String(head, 0, headLength);
+        String declaredContentType = null;
+        int start = 0;
+        if (prefix.startsWith(DATA_URI_PREFIX)) {
+            int comma = prefix.indexOf(',');
+            if (comma < 0 || !prefix.substring(0, comma).endsWith(BASE64_MARKER)) {
+                throw new IllegalArgumentException("只支持 base64 编码的 data uri");
+            }
+            String mediaType = prefix.substring(DATA_URI_PREFIX.length(), comma - BASE64_MARKER.length())
+                    .split(";", 2)[0];
+            declaredContentType = mediaType.isEmpty() ? null : mediaType;
+            start = comma + 1;
+        }
+        pushbackReader.unread(head, start, headLength - start);
+
+        // mime 解码器会忽略换行等非 base64 字符
+        PushbackInputStream decoded = new PushbackInputStream(
+                Base64.getMimeDecoder().wrap(new AsciiInputStream(pushbackReader)), MAGIC_LENGTH);
+        byte[] magic = decoded.readNBytes(MAGIC_LENGTH);
+        decoded.unread(magic);
+
+        String type = magic.length == 0 ? null : FileTypeUtil.getType(HexUtil.encodeHexStr(magic, false));
+        String contentType = type == null ? null : FileUtil.getMimeType("file." + type);
+        return new Base64Content(decoded,
+                contentType == null ? declaredContentType : contentType,
+                type == null ? DEFAULT_SUFFIX : type);
+    }
+
+    /**
+     * 获取解码后的输入流
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * 获取媒体类型，优先使用文件头识别的类型，其次使用 data uri 声明的类型
+     *
+     * @return 媒体类型，都无法确定时返回 null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 获取根据文件头识别的后缀，没有 .
+     *
+     * @return 后缀，无法识别时返回 bin
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * 将只包含 ascii 字符的字符流按字节读取
+     */
+    private static class AsciiInputStream extends InputStream {
+
+        private final Reader reader;
+
+        private final char[] buffer = new char[8192];
+
+        private AsciiInputStream(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = reader.read();
+            return c < 0 ? c : ascii(c);
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int read = reader.read(buffer, 0, Math.min(length, buffer.length));
+            for (int i = 0; i < read; i++) {
+                bytes[offset + i] = (byte) ascii(buffer[i]);
+            }
+            return read;
+        }
+
+        /**
+         * 非 ascii 字符直接截断为字节会被当作合法的 base64 字符解码，需要拒绝
+         */
+        private static int ascii(int c) throws IOException {
+            if (c > 0x7F) {
+                throw new IOException("base64 中存在非 ascii 字符：" + (char) c);
+            }
+            return c;
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package top.wuhunyu.oss.support;
+
+import top.wuhunyu.oss.api.model.DirectorySyncResult;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 目录同步计数，可以被并发的传输任务同时更新
+ **/
+
+public class SyncCounter {
+
+    private final AtomicInteger transferred = new AtomicInteger();
+
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private final Queue<String> failed = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * 记录一个已传输的文件
+     *
+     * @param length 传输的字节数
+     */
+    public void transferred(long length) {
+        transferred.incrementAndGet();
+        bytes.addAndGet(length);
+    }
+
+    /**
+     * 记录一个未变化而跳过的文件
+     */
+    public void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    /**
+     * 记录一个传输失败的文件
+     */
+    public void failed(String relativePath) {
+        failed.add(relativePath);
+    }
+
+    public DirectorySyncResult toResult() {
+        return new DirectorySyncResult(transferred.get(), skipped.get(),
+                failed.stream().sorted().toList(), bytes.get());
+    }
+
+}
@@ -0,0 +1,166 @@
+package top.wuhunyu.oss.support;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 目录同步清单
+ * 记录上次同步时每个文件的大小、本地修改时间和文件对象的 etag，本地文件和文件对象都未变化时跳过该文件。
+ * 每行一个文件：大小 \t 修改时间 \t etag \t 相对路径，相对路径放在最后，可以包含制表符
+ **/
+
+public class SyncManifest {
+
+    /**
+     * 清单的文件名称，上传时保存在前缀下，下载时保存在本地目录下
+     */
+    public static final String FILE_NAME = ".oss-sync-manifest";
+
+    private static final String TEMP_FILE_NAME = FILE_NAME + ".tmp";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 读取清单，格式不正确的行会被忽略
+     *
+     * @param inputStream 清单内容
+     * @return 同步清单
+     */
+    public static SyncManifest read(InputStream inputStream) throws IOException {
+        SyncManifest manifest = new SyncManifest();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] fields = line.split("\t", 4);
+            if (fields.length != 4) {
+                continue;
+            }
+            try {
+                manifest.put(fields[3], new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 读取本地的清单文件
+     *
+     * @return 同步清单，文件不存在时返回空清单
+     */
+    public static SyncManifest read(Path manifestFile) throws IOException {
+        if (!Files.isRegularFile(manifestFile)) {
+            return new SyncManifest();
+        }
+        try (InputStream inputStream = Files.newInputStream(manifestFile)) {
+            return read(inputStream);
+        }
+    }
+
+    /**
+     * 写出清单
+     *
+     * @param outputStream 输出流，不会被关闭
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Entry value = entry.getValue();
+            writer.write(value.size() + "\t" + value.lastModified() + "\t" + value.etag() + "\t" + entry.getKey());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * 写出到本地的清单文件，先写入同目录的临时文件再原子替换，中断时不会留下残缺的清单
+     */
+    public void write(Path manifestFile) throws IOException {
+        Path tempFile = manifestFile.resolveSibling(TEMP_FILE_NAME);
+        try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+            this.write(outputStream);
+        }
+        Files.move(tempFile, manifestFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 获取一个文件的同步记录
+     *
+     * @return 同步记录，没有时返回 null
+     */
+    public Entry get(String relativePath) {
+        return entries.get(relativePath);
+    }
+
+    /**
+     * @return 是否没有任何同步记录
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * 记录一个文件的同步结果
+     */
+    public void put(String relativePath, Entry entry) {
+        entries.put(relativePath, entry);
+    }
+
+    /**
+     * 将前缀规范为以 / 结尾的目录形式
+     *
+     * @return 规范后的前缀，前缀为 "" 时仍返回 ""
+     */
+    public static String objectPrefix(String prefix) {
+        return prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+
+    /**
+     * 目录根路径下的清单文件及其临时文件，不参与同步
+     */
+    public static boolean isManifest(String relativePath) {
+        return FILE_NAME.equals(relativePath) || TEMP_FILE_NAME.equals(relativePath);
+    }
+
+    /**
+     * 文件相对于目录的路径，统一使用 / 作为分隔符
+     *
+     * @return 相对路径，路径中包含换行符时返回 null，这样的路径无法写入清单
+     */
+    public static String relativePath(Path directory, Path file) {
+        String relativePath = directory.relativize(file).toString().replace(File.separatorChar, '/');
+        return relativePath.indexOf('\n') >= 0 || relativePath.indexOf('\r') >= 0 ? null : relativePath;
+    }
+
+    /**
+     * 一个文件的同步记录
+     *
+     * @param size         文件大小，单位 字节
+     * @param lastModified 本地文件的修改时间，单位 毫秒
+     * @param etag         文件对象的 etag
+     */
+    public record Entry(long size, long lastModified, String etag) {
+
+        /**
+         * 本地文件的大小和修改时间与记录一致
+         */
+        public boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        /**
+         * 文件对象的 etag 与记录一致
+         */
+        public boolean matches(String etag) {
+            return Objects.equals(this.etag, etag);
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package top.wuhunyu.oss.minio;
+
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import okhttp3.Headers;
+import org.junit.jupiter.api.Test;
+import top.wuhunyu.oss.api.model.ObjectStat;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分帧 gzip 压缩的格式与范围读取
+ **/
+
+class GzipFrameCodecTest {
+
+    private static final String BUCKET = "bucket";
+
+    private static final String OBJECT = "object.txt";
+
+    private static final String ETAG = "etag";
+
+    @Test
+    void compressedObjectIsAValidGzipFile() throws IOException {
+        byte[] data = text(10_000);
+        byte[] compressed = compress(codec(1024, null), data);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, inputStream.readAllBytes());
+        }
+        try (InputStream inputStream = codec(1024, null).decompress(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void rangedReadsAcrossFrameBoundaries() throws Exception {
+        byte[] data = text(10_000);
+        FakeObject object = new FakeObject(compress(codec(1024, null), data));
+        GzipFrameCodec codec = codec(1024, object);
+        ObjectStat objectStat = object.stat(codec);
+
+        long[][] ranges = {
+                // 帧内、恰好一帧、跨一个边界、跨多个边界、到末尾
+                {10, 100}, {1024, 1024}, {1000, 50}, {1023, 3000}, {9000, 1000},
+                // 超出末尾的部分被截断
+                {9990, 100}, {0, 20_000}
+        };
+        for (long[] range : ranges) {
+            int from = (int) range[0];
+            int to = (int) Math.min(data.length, range[0] + range[1]);
+            try (InputStream inputStream = codec.getRange(BUCKET, objectStat, range[0], range[1])) {
+                assertArrayEquals(Arrays.copyOfRange(data, from, to), inputStream.readAllBytes(),
+                        "offset " + range[0] + " length " + range[1]);
+            }
+        }
+        try (InputStream inputStream = codec.getRange(BUCKET, objectStat, 10_000, 10)) {
+            assertEquals(0, inputStream.readAllBytes().length);
+        }
+        assertEquals(data.length, codec.uncompressedLength(BUCKET, objectStat));
+    }
+
+    @Test
+    void rangedReadOnlyDownloadsCoveringFrames() throws Exception {
+        byte[] data = text(10_000);
+        FakeObject object = new FakeObject(compress(codec(1024, null), data));
+        GzipFrameCodec codec = codec(1024, object);
+
+        try (InputStream inputStream = codec.getRange(BUCKET, object.stat(codec), 1000, 50)) {
+            inputStream.readAllBytes();
+        }
+        // 尾部、索引和覆盖范围的两帧，每次请求都带上 etag
+        assertEquals(3, object.requests.size());
+        long[] frames = object.requests.get(2);
+        assertTrue(frames[1] < object.bytes.length / 4, "只下载覆盖范围的帧");
+        assertTrue(object.requests.stream().allMatch(request -> request[2] == 1));
+    }
+
+    @Test
+    void emptyInput() throws Exception {
+        byte[] compressed = compress(codec(1024, null), new byte[0]);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(0, inputStream.readAllBytes().length);
+        }
+        FakeObject object = new FakeObject(compressed);
+        GzipFrameCodec codec = codec(1024, object);
+        ObjectStat objectStat = object.stat(codec);
+        assertEquals(0, codec.uncompressedLength(BUCKET, objectStat));
+        try (InputStream inputStream = codec.getRange(BUCKET, objectStat, 0, 10)) {
+            assertEquals(0, inputStream.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void indexSplitsIntoMultipleMembers() throws Exception {
+        // 每字节一帧，索引超过单个成员可以记录的帧数
+        byte[] data = text(40_000);
+        byte[] compressed = compress(codec(1, null), data);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, inputStream.readAllBytes());
+        }
+        FakeObject object = new FakeObject(compressed);
+        GzipFrameCodec codec = codec(1, object);
+        ObjectStat objectStat = object.stat(codec);
+        for (int offset : new int[]{0, 16_380, 32_760, 39_990}) {
+            try (InputStream inputStream = codec.getRange(BUCKET, objectStat, offset, 10)) {
+                assertArrayEquals(Arrays.copyOfRange(data, offset, offset + 10), inputStream.readAllBytes(),
+                        "offset " + offset);
+            }
+        }
+    }
+
+    private static GzipFrameCodec codec(int frameSize, FakeObject object) {
+        MinioProperties.Compression compression = new MinioProperties.Compression();
+        compression.setEnabled(Boolean.TRUE);
+        compression.setFrameSize(frameSize);
+        return new GzipFrameCodec(Objects.isNull(object) ? null : object.minioClient(), compression, 8192);
+    }
+
+    private static byte[] compress(GzipFrameCodec codec, byte[] data) throws IOException {
+        try (InputStream inputStream = codec.compress(new ByteArrayInputStream(data))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    /**
+     * 可压缩、不重复的文本
+     */
+    private static byte[] text(int length) {
+        String[] words = {"minio ", "object ", "frame ", "gzip ", "index ", "trailer ", "range "};
+        Random random = new Random(length);
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            builder.append(words[random.nextInt(words.length)]).append(random.nextInt(100));
+        }
+        return builder.substring(0, length).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 只支持范围下载的内存文件对象，记录每次请求的 起始位置、长度、是否带有 etag
+     */
+    private static class FakeObject {
+
+        private final byte[] bytes;
+
+        private final List<long[]> requests = new ArrayList<>();
+
+        private FakeObject(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private ObjectStat stat(GzipFrameCodec codec) {
+            return new ObjectStat(OBJECT, true, (long) bytes.length, ETAG, null, null, codec.metadata());
+        }
+
+        private MinioClient minioClient() {
+            return new MinioClient(MinioClient.builder().endpoint("http://localhost:9000").build()) {
+                @Override
+                public GetObjectResponse getObject(GetObjectArgs args) {
+                    int from = Math.toIntExact(args.offset());
+                    int to = Math.toIntExact(Math.min(bytes.length, args.offset() + args.length()));
+                    requests.add(new long[]{from, to - from, ETAG.equals(args.matchETag()) ? 1 : 0});
+                    return new GetObjectResponse(Headers.of(), args.bucket(), null, args.object(),
+                            new ByteArrayInputStream(bytes, from, to - from));
+                }
+            };
+        }
+
+    }
+
+}
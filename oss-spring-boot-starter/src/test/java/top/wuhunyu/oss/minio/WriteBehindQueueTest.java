@@ -0,0 +1,146 @@
+package top.wuhunyu.oss.minio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.wuhunyu.oss.properties.MinioProperties;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异步写入队列的日志重放、压缩与取消
+ **/
+
+class WriteBehindQueueTest {
+
+    private static final String BUCKET = "bucket";
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    void replayIgnoresTruncatedLastLine() throws Exception {
+        Files.writeString(spoolDirectory.resolve("a.data"), "a");
+        Files.writeString(spoolDirectory.resolve("b.data"), "b");
+        // b 的 DONE 只写入了一半
+        Files.writeString(spoolDirectory.resolve("journal"),
+                "PUT\ta\tbucket\tx.txt\nPUT\tb\tbucket\ty.txt\nDONE\ta\nDON");
+
+        Map<String, String> uploaded = new ConcurrentHashMap<>();
+        try (WriteBehindQueue queue = this.queue((bucketName, objectName, dataFile) ->
+                uploaded.put(objectName, Files.readString(dataFile)))) {
+            await(() -> queue.size() == 0 && !Files.exists(spoolDirectory.resolve("b.data")));
+        }
+        assertEquals(Map.of("y.txt", "b"), uploaded);
+        assertFalse(Files.exists(spoolDirectory.resolve("b.data")));
+    }
+
+    @Test
+    void putWithoutDoneIsRequeued() throws Exception {
+        try (WriteBehindQueue queue = this.queue((bucketName, objectName, dataFile) -> {
+            throw new IOException("服务端不可用");
+        })) {
+            queue.submit(BUCKET, "x.txt", "hello".getBytes(StandardCharsets.UTF_8));
+            assertTrue(queue.contains(BUCKET, "x.txt"));
+        }
+        assertTrue(Files.readString(spoolDirectory.resolve("journal")).startsWith("PUT\t"));
+
+        // 重启后没有 DONE 的记录重新上传，上传完成前仍可读取
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, String> uploaded = new ConcurrentHashMap<>();
+        try (WriteBehindQueue queue = this.queue((bucketName, objectName, dataFile) -> {
+            release.await();
+            uploaded.put(objectName, Files.readString(dataFile));
+        })) {
+            assertEquals(1, queue.size());
+            try (var inputStream = queue.open(BUCKET, "x.txt")) {
+                assertEquals("hello", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            release.countDown();
+            await(() -> queue.size() == 0 && spoolDirectory.resolve("journal").toFile().length() == 0);
+        }
+        assertEquals(Map.of("x.txt", "hello"), uploaded);
+        // 全部完成后日志被压缩为空
+        assertEquals("", Files.readString(spoolDirectory.resolve("journal")));
+    }
+
+    @Test
+    void orphanSpoolFilesAreDeleted() throws Exception {
+        Files.writeString(spoolDirectory.resolve("orphan.data"), "orphan");
+        Files.writeString(spoolDirectory.resolve("other.txt"), "other");
+        // 暂存数据丢失的记录无法恢复
+        Files.writeString(spoolDirectory.resolve("journal"), "PUT\tlost\tbucket\tlost.txt\n");
+
+        try (WriteBehindQueue queue = this.queue((bucketName, objectName, dataFile) -> fail("不应上传"))) {
+            assertEquals(0, queue.size());
+            assertFalse(queue.contains(BUCKET, "lost.txt"));
+        }
+        assertFalse(Files.exists(spoolDirectory.resolve("orphan.data")));
+        assertTrue(Files.exists(spoolDirectory.resolve("other.txt")));
+        assertEquals("", Files.readString(spoolDirectory.resolve("journal")));
+    }
+
+    @Test
+    void cancelWaitsForInFlightUpload() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> uploaded = new CopyOnWriteArrayList<>();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (WriteBehindQueue queue = this.queue((bucketName, objectName, dataFile) -> {
+            started.countDown();
+            release.await();
+            uploaded.add(objectName);
+        })) {
+            queue.submit(BUCKET, "x.txt", new byte[]{1});
+            queue.submit(BUCKET, "y.txt", new byte[]{2});
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // 排队中的记录直接取消
+            assertTrue(queue.cancel(BUCKET, "y.txt"));
+            assertFalse(queue.contains(BUCKET, "y.txt"));
+
+            // 正在上传的记录需要等待上传结束
+            Future<Boolean> cancelled = executorService.submit(() -> queue.cancel(BUCKET, "x.txt"));
+            assertThrows(TimeoutException.class, () -> cancelled.get(200, TimeUnit.MILLISECONDS));
+            release.countDown();
+            cancelled.get(5, TimeUnit.SECONDS);
+            assertFalse(queue.contains(BUCKET, "x.txt"));
+            await(() -> queue.size() == 0);
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(List.of("x.txt"), uploaded);
+
+        // 取消和完成都已记录，重启后不再上传
+        try (WriteBehindQueue queue = this.queue((bucketName, objectName, dataFile) -> fail("不应上传"))) {
+            assertEquals(0, queue.size());
+        }
+    }
+
+    private WriteBehindQueue queue(WriteBehindQueue.Uploader uploader) {
+        MinioProperties.WriteBehind writeBehind = new MinioProperties.WriteBehind();
+        writeBehind.setEnabled(Boolean.TRUE);
+        writeBehind.setSpoolDirectory(spoolDirectory.toString());
+        writeBehind.setParallelism(1);
+        writeBehind.setRetryInterval(Duration.ofMillis(50));
+        return new WriteBehindQueue(writeBehind, uploader);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待超时");
+            Thread.sleep(20);
+        }
+    }
+
+}
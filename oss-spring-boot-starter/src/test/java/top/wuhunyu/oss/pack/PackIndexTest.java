@@ -0,0 +1,82 @@
+package top.wuhunyu.oss.pack;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 打包文件索引的二进制格式、删除与压缩
+ **/
+
+class PackIndexTest {
+
+    @Test
+    void binaryFormatRoundTrip() throws IOException {
+        PackIndex index = new PackIndex(3, new long[]{0, 5, 5}, new int[]{5, 0, -8});
+        byte[] bytes = index.toBytes();
+
+        // 大端序：OPK1、代数、槽位数，之后每个槽位 8 字节偏移量 + 4 字节长度
+        assertEquals(12 + 3 * 12, bytes.length);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        assertEquals("OPK1", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(3, byteBuffer.getInt(4));
+        assertEquals(3, byteBuffer.getInt(8));
+        assertEquals(5L, byteBuffer.getLong(12 + 12));
+        assertEquals(-8, byteBuffer.getInt(12 + 2 * 12 + 8));
+
+        PackIndex parsed = PackIndex.parse(bytes);
+        assertEquals(3, parsed.generation());
+        assertEquals(3, parsed.slotCount());
+        for (int slot = 0; slot < 3; slot++) {
+            assertEquals(index.offset(slot), parsed.offset(slot));
+            assertEquals(index.length(slot), parsed.length(slot));
+        }
+        assertTrue(parsed.isLive(1));
+        assertFalse(parsed.isLive(2));
+    }
+
+    @Test
+    void parseRejectsOtherData() {
+        assertThrows(IOException.class, () -> PackIndex.parse("not an index".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void removeKeepsOffsetsAndTotalBytes() {
+        PackIndex index = new PackIndex(0, new long[]{0, 3, 7}, new int[]{3, 4, 2});
+        PackIndex removed = index.remove(List.of(1, 1, 5, -1));
+
+        // 原索引不变
+        assertTrue(index.isLive(1));
+        assertFalse(removed.isLive(1));
+        assertEquals(-5, removed.length(1));
+        assertEquals(5, removed.liveBytes());
+        assertEquals(9, removed.totalBytes());
+        // 重复删除不改变结果
+        assertEquals(-5, removed.remove(List.of(1)).length(1));
+        assertFalse(removed.isLive(3));
+    }
+
+    @Test
+    void compactBumpsGenerationAndDropsRemovedBytes() {
+        byte[] data = "aaabbbbcc".getBytes(StandardCharsets.US_ASCII);
+        PackIndex index = new PackIndex(2, new long[]{0, 3, 7}, new int[]{3, 4, 2}).remove(List.of(1));
+
+        ByteArrayOutputStream compactedData = new ByteArrayOutputStream();
+        PackIndex compacted = index.compact(data, compactedData);
+
+        assertEquals(3, compacted.generation());
+        assertArrayEquals("aaacc".getBytes(StandardCharsets.US_ASCII), compactedData.toByteArray());
+        assertEquals(3, compacted.slotCount());
+        assertEquals(3, compacted.offset(2));
+        assertEquals(2, compacted.length(2));
+        assertFalse(compacted.isLive(1));
+        assertEquals(compacted.liveBytes(), compacted.totalBytes());
+    }
+
+}
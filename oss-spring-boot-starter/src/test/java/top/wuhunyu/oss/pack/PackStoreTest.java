@@ -0,0 +1,141 @@
+package top.wuhunyu.oss.pack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.wuhunyu.oss.api.OssClient;
+import top.wuhunyu.oss.api.model.ObjectSummary;
+import top.wuhunyu.oss.local.LocalOssClient;
+import top.wuhunyu.oss.properties.LocalProperties;
+import top.wuhunyu.oss.properties.PackProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 打包存储的读写、删除与压缩，使用本地文件系统实现代替 oss 服务端
+ **/
+
+class PackStoreTest {
+
+    private static final String BUCKET = "bucket";
+
+    private static final String PREFIX = "packs/";
+
+    @TempDir
+    Path rootDirectory;
+
+    @Test
+    void putGetAndRemove() throws Exception {
+        OssClient ossClient = this.ossClient();
+        try (PackStore packStore = this.packStore(ossClient, "cache")) {
+            List<String> blobIds = this.put(packStore, "first", "", "third");
+            String packId = blobIds.get(0).substring(0, blobIds.get(0).lastIndexOf('-'));
+            assertEquals(List.of(packId + "-0", packId + "-1", packId + "-2"), blobIds);
+            assertEquals(List.of(PREFIX + packId + ".0.pack", PREFIX + packId + ".idx"), this.objectNames(ossClient));
+
+            assertEquals("first", this.get(packStore, blobIds.get(0)));
+            assertEquals("", this.get(packStore, blobIds.get(1)));
+            assertEquals("third", this.get(packStore, blobIds.get(2)));
+            assertNull(packStore.get(packId + "-3"));
+            assertNull(packStore.get("unknown"));
+
+            assertTrue(packStore.remove(blobIds.get(0)));
+            assertNull(packStore.get(blobIds.get(0)));
+            assertEquals("third", this.get(packStore, blobIds.get(2)));
+
+            // 长度为 0 的数据也需要删除后才能删除整个打包文件
+            assertTrue(packStore.remove(blobIds.get(2)));
+            assertEquals(2, this.objectNames(ossClient).size());
+            assertTrue(packStore.remove(blobIds.get(1)));
+            assertEquals(List.of(), this.objectNames(ossClient));
+            // 已不存在的数据视为删除成功
+            assertTrue(packStore.remove(blobIds.get(1)));
+        }
+    }
+
+    @Test
+    void compactRewritesPackAndKeepsBlobIds() throws Exception {
+        OssClient ossClient = this.ossClient();
+        try (PackStore packStore = this.packStore(ossClient, "cache")) {
+            List<String> blobIds = this.put(packStore, "aaaa", "bbbbbbbb", "cc");
+            String packId = blobIds.get(0).substring(0, blobIds.get(0).lastIndexOf('-'));
+
+            // 无效数据比例未达到 compactGarbageRatio 时不压缩
+            assertTrue(packStore.remove(blobIds.get(2)));
+            assertEquals(0, packStore.compact());
+
+            assertTrue(packStore.remove(blobIds.get(1)));
+            assertEquals(1, packStore.compact());
+            assertEquals(List.of(PREFIX + packId + ".1.pack", PREFIX + packId + ".idx"), this.objectNames(ossClient));
+            String dataObjectName = PREFIX + packId + ".1.pack";
+            assertEquals(4L, ossClient.statObjects(BUCKET, List.of(dataObjectName)).get(dataObjectName).size());
+            assertEquals("aaaa", this.get(packStore, blobIds.get(0)));
+            assertNull(packStore.get(blobIds.get(1)));
+            assertEquals(0, packStore.compact());
+        }
+    }
+
+    @Test
+    void getReloadsIndexAfterCompaction() throws Exception {
+        OssClient ossClient = this.ossClient();
+        try (PackStore writer = this.packStore(ossClient, "writer");
+             PackStore reader = this.packStore(ossClient, "reader")) {
+            List<String> blobIds = this.put(writer, "aaaaaaaa", "bb");
+            // reader 缓存第 0 代的索引
+            assertEquals("bb", this.get(reader, blobIds.get(1)));
+
+            assertTrue(writer.remove(blobIds.get(0)));
+            assertEquals(1, writer.compact());
+
+            // 第 0 代的打包文件已删除，reader 重新加载索引后读取第 1 代
+            assertEquals("bb", this.get(reader, blobIds.get(1)));
+            // 重新加载后的索引中已删除的数据不可读取
+            assertNull(reader.get(blobIds.get(0)));
+        }
+    }
+
+    private OssClient ossClient() {
+        LocalProperties localProperties = new LocalProperties();
+        localProperties.setRootDirectory(rootDirectory.resolve("oss").toString());
+        OssClient ossClient = new LocalOssClient(localProperties);
+        assertTrue(ossClient.createBucket(BUCKET));
+        return ossClient;
+    }
+
+    private PackStore packStore(OssClient ossClient, String indexCacheDirectory) {
+        PackProperties packProperties = new PackProperties();
+        packProperties.setBucket(BUCKET);
+        packProperties.setPrefix(PREFIX);
+        // 只通过 flush 上传
+        packProperties.setFlushInterval(Duration.ofHours(1));
+        packProperties.setIndexCacheDirectory(rootDirectory.resolve(indexCacheDirectory).toString());
+        return new PackStore(ossClient, packProperties);
+    }
+
+    private List<String> put(PackStore packStore, String... contents) {
+        List<CompletableFuture<String>> futures = Stream.of(contents)
+                .map(content -> packStore.putAsync(content.getBytes(StandardCharsets.UTF_8)))
+                .toList();
+        packStore.flush();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private String get(PackStore packStore, String blobId) {
+        byte[] bytes = packStore.get(blobId);
+        assertNotNull(bytes, blobId);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<String> objectNames(OssClient ossClient) {
+        try (Stream<ObjectSummary> objects = ossClient.listObjects(BUCKET, PREFIX)) {
+            return objects.map(ObjectSummary::objectName).sorted().toList();
+        }
+    }
+
+}